@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.adapters.mysql;
+
+import org.apache.streampipes.connect.utils.LocalStateFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Stores the binlog position up to which all changes have been emitted in a local properties file, so that a
+ * restarted adapter resumes at this position instead of the current end of the binlog.
+ */
+class MySqlBinlogCheckpoint {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MySqlBinlogCheckpoint.class);
+
+    private static final String FILENAME = "binlogFilename";
+    private static final String POSITION = "binlogPosition";
+
+    private final Path checkpointFile;
+
+    private String binlogFilename;
+    private long binlogPosition;
+
+    MySqlBinlogCheckpoint(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+        load();
+    }
+
+    /**
+     * @return true if a position has been stored before
+     */
+    boolean exists() {
+        return binlogFilename != null;
+    }
+
+    String getBinlogFilename() {
+        return binlogFilename;
+    }
+
+    long getBinlogPosition() {
+        return binlogPosition;
+    }
+
+    void store(String binlogFilename, long binlogPosition) {
+        this.binlogFilename = binlogFilename;
+        this.binlogPosition = binlogPosition;
+
+        Properties properties = new Properties();
+        properties.setProperty(FILENAME, binlogFilename);
+        properties.setProperty(POSITION, String.valueOf(binlogPosition));
+        try {
+            LocalStateFiles.store(checkpointFile, properties);
+        } catch (IOException e) {
+            LOG.error("Could not write binlog checkpoint " + checkpointFile, e);
+        }
+    }
+
+    void clear() {
+        this.binlogFilename = null;
+        this.binlogPosition = 0;
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            LOG.error("Could not delete binlog checkpoint " + checkpointFile, e);
+        }
+    }
+
+    private void load() {
+        try {
+            Properties properties = LocalStateFiles.load(checkpointFile);
+            String filename = properties.getProperty(FILENAME);
+            String position = properties.getProperty(POSITION);
+            if (filename != null && position != null) {
+                this.binlogPosition = Long.parseLong(position);
+                this.binlogFilename = filename;
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOG.error("Could not read binlog checkpoint " + checkpointFile + ", streaming starts at the current position", e);
+        }
+    }
+}
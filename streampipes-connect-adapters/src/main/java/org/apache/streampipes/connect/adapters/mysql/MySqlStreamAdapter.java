@@ -21,42 +21,73 @@ package org.apache.streampipes.connect.adapters.mysql;
 import com.github.shyiko.mysql.binlog.BinaryLogClient;
 import com.github.shyiko.mysql.binlog.event.*;
 import com.github.shyiko.mysql.binlog.event.deserialization.EventDeserializer;
+import com.github.shyiko.mysql.binlog.network.ServerException;
 import org.apache.streampipes.connect.adapter.Adapter;
 import org.apache.streampipes.connect.adapter.exception.AdapterException;
 import org.apache.streampipes.connect.adapter.exception.ParseException;
 import org.apache.streampipes.connect.adapter.model.specific.SpecificDataStreamAdapter;
 import org.apache.streampipes.connect.adapter.sdk.ParameterExtractor;
+import org.apache.streampipes.connect.utils.LocalStateFiles;
 import org.apache.streampipes.model.connect.adapter.SpecificAdapterStreamDescription;
 import org.apache.streampipes.model.connect.guess.GuessSchema;
+import org.apache.streampipes.sdk.builder.PrimitivePropertyBuilder;
 import org.apache.streampipes.sdk.builder.adapter.SpecificDataStreamAdapterBuilder;
 import org.apache.streampipes.sdk.helpers.Labels;
 import org.apache.streampipes.sdk.helpers.Locales;
 import org.apache.streampipes.sdk.helpers.Options;
 import org.apache.streampipes.sdk.helpers.Tuple2;
 import org.apache.streampipes.sdk.utils.Assets;
+import org.apache.streampipes.sdk.utils.Datatypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class MySqlStreamAdapter extends SpecificDataStreamAdapter {
 
     public static final String ID = "org.apache.streampipes.connect.adapters.mysql.stream";
 
+    private static final String EMIT_DELETES = "emitDeletes";
+    private static final String DO_EMIT_DELETES = "doEmitDeletes";
+    private static final String DO_NOT_EMIT_DELETES = "doNotEmitDeletes";
+
+    private static final String CHANGE_TYPE = "changeType";
+    private static final String INSERT = "insert";
+    private static final String UPDATE = "update";
+    private static final String DELETE = "delete";
+
+    private static final long CHECKPOINT_INTERVAL_MS = 1000;
+
+    // ER_MASTER_FATAL_ERROR_READING_BINLOG, e.g. the requested binlog file has been purged
+    private static final int BINLOG_READ_ERROR_CODE = 1236;
+
+    private static final Logger LOG = LoggerFactory.getLogger(MySqlStreamAdapter.class);
+
     private MySqlClient mySqlClient;
     private BinaryLogClient binaryLogClient;
+    private MySqlBinlogCheckpoint checkpoint;
 
-    private Thread subscriptionThread  = new Thread(()-> {
-        try {
-            binaryLogClient.connect();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    });
+    private Thread subscriptionThread  = new Thread(this::subscribe);
 
     private boolean replaceNullValues;
-    private boolean dataComing = false;
+    private boolean emitDeletes;
+
+    private String[] columnNames;
+    private Object[] columnDefaults;
+
+    // The binlog identifies a table by an id, which is announced in the table map event preceding its row events
+    private long tableId = -1;
+
+    private String uncheckpointedFilename;
+    private long uncheckpointedPosition;
+    private long lastCheckpointTime;
+    private volatile boolean restartAtCurrentPosition;
 
     public MySqlStreamAdapter() {
     }
@@ -82,6 +113,10 @@ public class MySqlStreamAdapter extends SpecificDataStreamAdapter {
                         Options.from(
                                 new Tuple2<>("Yes", MySqlClient.DO_REPLACE_NULL_VALUES),
                                 new Tuple2<>("No", MySqlClient.DO_NOT_REPLACE_NULL_VALUES)))
+                .requiredSingleValueSelection(Labels.withId(EMIT_DELETES),
+                        Options.from(
+                                new Tuple2<>("Yes", DO_EMIT_DELETES),
+                                new Tuple2<>("No", DO_NOT_EMIT_DELETES)))
                 .build();
 
         description.setAppId(ID);
@@ -95,6 +130,14 @@ public class MySqlStreamAdapter extends SpecificDataStreamAdapter {
         mySqlClient.loadColumns();
         mySqlClient.disconnect();
 
+        List<Column> columns = mySqlClient.getColumns();
+        columnNames = new String[columns.size()];
+        columnDefaults = new Object[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            columnNames[i] = columns.get(i).getName();
+            columnDefaults[i] = columns.get(i).getDefault();
+        }
+
         // Connect BinaryLogClient
         binaryLogClient = new BinaryLogClient(
                 mySqlClient.getHost(),
@@ -109,53 +152,160 @@ public class MySqlStreamAdapter extends SpecificDataStreamAdapter {
         );
         binaryLogClient.setEventDeserializer(eventDeserializer);
         binaryLogClient.registerEventListener(event -> sendEvent(event));
+        binaryLogClient.registerLifecycleListener(new BinaryLogClient.AbstractLifecycleListener() {
+            @Override
+            public void onCommunicationFailure(BinaryLogClient client, Exception ex) {
+                handleCommunicationFailure(ex);
+            }
+        });
+
+        // Resume after the last transaction which was emitted before this adapter was stopped. Several adapters may
+        // read the same table, so the checkpoint belongs to the adapter and not only to the table.
+        checkpoint = new MySqlBinlogCheckpoint(LocalStateFiles.getPath("mysql-binlog",
+                adapterDescription.getElementId() + "@" + mySqlClient.getHost() + ":" + mySqlClient.getPort() + "/"
+                        + mySqlClient.getDatabase() + "/" + mySqlClient.getTable()));
+        if (checkpoint.exists()) {
+            binaryLogClient.setBinlogFilename(checkpoint.getBinlogFilename());
+            binaryLogClient.setBinlogPosition(checkpoint.getBinlogPosition());
+        }
         subscriptionThread.start();
     }
 
+    private void subscribe() {
+        try {
+            do {
+                restartAtCurrentPosition = false;
+                binaryLogClient.connect();
+            } while (restartAtCurrentPosition);
+        } catch (IOException e) {
+            LOG.error("Could not connect to the binlog", e);
+        }
+    }
+
+    /**
+     * Called when streaming from the binlog fails after the connection has been established. Only if the server
+     * cannot read the binlog at the position of the checkpoint, the checkpoint is cleared and streaming restarts at
+     * the current position. Other failures, e.g. missing privileges, keep the checkpoint.
+     */
+    private void handleCommunicationFailure(Exception ex) {
+        if (ex instanceof ServerException
+                && ((ServerException) ex).getErrorCode() == BINLOG_READ_ERROR_CODE
+                && checkpoint.exists()) {
+            // The binlog file of the checkpoint has most likely been purged on the server
+            LOG.warn("Could not resume at binlog position " + checkpoint.getBinlogFilename() + ":"
+                    + checkpoint.getBinlogPosition() + " (" + ex.getMessage()
+                    + "), streaming starts at the current position");
+            checkpoint.clear();
+            binaryLogClient.setBinlogFilename(null);
+            restartAtCurrentPosition = true;
+        } else {
+            LOG.error("Streaming from the binlog failed", ex);
+        }
+    }
 
     private void sendEvent(Event event) {
-        // An event can contain multiple insertions/updates
-        if (event.getHeader().getEventType() == EventType.TABLE_MAP) {
-            // Check table and database, if the next event should be streamed
-            if (((TableMapEventData) event.getData()).getDatabase().equals(mySqlClient.getDatabase())
-                    && ((TableMapEventData) event.getData()).getTable().equals((mySqlClient.getTable()))) {
-                dataComing = true;
+        EventType eventType = event.getHeader().getEventType();
+        if (eventType == EventType.TABLE_MAP) {
+            // Check table and database, if the row events with this table id should be streamed
+            TableMapEventData data = event.getData();
+            if (data.getDatabase().equals(mySqlClient.getDatabase())
+                    && data.getTable().equals(mySqlClient.getTable())) {
+                tableId = data.getTableId();
             }
-        }
-        if (dataComing) {
-            if (EventType.isUpdate(event.getHeader().getEventType())) {
-                for (Map.Entry<Serializable[], Serializable[]> en : ((UpdateRowsEventData) event.getData()).getRows()) {
-                    sendChange(en.getValue());
+        } else if (EventType.isWrite(eventType)) {
+            // An event can contain multiple insertions/updates/deletions
+            WriteRowsEventData data = event.getData();
+            if (data.getTableId() == tableId) {
+                sendChanges(data.getRows(), INSERT);
+            }
+        } else if (EventType.isUpdate(eventType)) {
+            UpdateRowsEventData data = event.getData();
+            if (data.getTableId() == tableId) {
+                List<Serializable[]> rows = new ArrayList<>(data.getRows().size());
+                for (Map.Entry<Serializable[], Serializable[]> en : data.getRows()) {
+                    rows.add(en.getValue());
                 }
-                dataComing = false;
-            } else if (EventType.isWrite(event.getHeader().getEventType())) {
-                for (Serializable[] s : ((WriteRowsEventData) event.getData()).getRows()) {
-                    sendChange(s);
+                sendChanges(rows, UPDATE);
+            }
+        } else if (EventType.isDelete(eventType)) {
+            DeleteRowsEventData data = event.getData();
+            if (emitDeletes && data.getTableId() == tableId) {
+                sendChanges(data.getRows(), DELETE);
+            }
+        } else if (eventType == EventType.XID || isCommit(event)) {
+            // Only transaction boundaries are checkpointed, a restart within a transaction would miss its table map
+            checkpoint(((EventHeaderV4) event.getHeader()).getNextPosition());
+        }
+    }
+
+    private boolean isCommit(Event event) {
+        return event.getHeader().getEventType() == EventType.QUERY
+                && "COMMIT".equals(((QueryEventData) event.getData()).getSql());
+    }
+
+    /**
+     * Converts all rows of a binlog event before they are handed to the pipeline.
+     */
+    private void sendChanges(List<Serializable[]> rows, String changeType) {
+        List<Map<String, Object>> changes = new ArrayList<>(rows.size());
+        for (Serializable[] row : rows) {
+            Map<String, Object> change = toChange(row);
+            if (change != null) {
+                if (emitDeletes) {
+                    change.put(CHANGE_TYPE, changeType);
                 }
-                dataComing = false;
+                changes.add(change);
             }
         }
+        for (Map<String, Object> change : changes) {
+            adapterPipeline.process(change);
+        }
     }
 
-    private void sendChange(Serializable[] rows) {
-        Map<String, Object> out = new HashMap<>();
-        for (int i = 0; i < rows.length; i++) {
-            if (rows[i] != null) {
-                if (rows[i] instanceof byte[]) {
+    private Map<String, Object> toChange(Serializable[] row) {
+        if (row.length != columnNames.length) {
+            LOG.warn("Skipping row with " + row.length + " columns, the table " + mySqlClient.getTable() + " has "
+                    + columnNames.length + " columns. Restart the adapter after altering the table.");
+            return null;
+        }
+        Map<String, Object> out = new HashMap<>((int) (row.length / 0.75f) + 2);
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] != null) {
+                if (row[i] instanceof byte[]) {
                     // Strings are sent in byte arrays and have to be converted.
-                    //TODO: Check that encoding is correct
-                    out.put(mySqlClient.getColumns().get(i).getName(), new String((byte[])rows[i]));
+                    out.put(columnNames[i], new String((byte[]) row[i], StandardCharsets.UTF_8));
                 } else {
-                    out.put(mySqlClient.getColumns().get(i).getName(), rows[i]);
+                    out.put(columnNames[i], row[i]);
                 }
             } else if (replaceNullValues) {
-                out.put(mySqlClient.getColumns().get(i).getName(), mySqlClient.getColumns().get(i).getDefault());
+                out.put(columnNames[i], columnDefaults[i]);
             } else {
                 // We should skip events with null values
-                return;
+                return null;
             }
         }
-        adapterPipeline.process(out);
+        return out;
+    }
+
+    /**
+     * Remembers the binlog position after a transaction and stores it at most once per
+     * {@link #CHECKPOINT_INTERVAL_MS}. After a crash, the changes of the last interval are emitted again.
+     */
+    private void checkpoint(long nextPosition) {
+        uncheckpointedFilename = binaryLogClient.getBinlogFilename();
+        uncheckpointedPosition = nextPosition;
+        long now = System.currentTimeMillis();
+        if (now - lastCheckpointTime >= CHECKPOINT_INTERVAL_MS) {
+            storeCheckpoint();
+            lastCheckpointTime = now;
+        }
+    }
+
+    private void storeCheckpoint() {
+        if (uncheckpointedFilename != null) {
+            checkpoint.store(uncheckpointedFilename, uncheckpointedPosition);
+            uncheckpointedFilename = null;
+        }
     }
 
     @Override
@@ -163,6 +313,7 @@ public class MySqlStreamAdapter extends SpecificDataStreamAdapter {
         try {
             binaryLogClient.disconnect();
             subscriptionThread.join();
+            storeCheckpoint();
         } catch (IOException | InterruptedException e) {
             throw new AdapterException("Thrown exception: " + e.getMessage());
         }
@@ -176,7 +327,15 @@ public class MySqlStreamAdapter extends SpecificDataStreamAdapter {
     @Override
     public GuessSchema getSchema(SpecificAdapterStreamDescription adapterDescription) throws AdapterException, ParseException {
         getConfigurations(adapterDescription);
-        return mySqlClient.getSchema();
+        GuessSchema guessSchema = mySqlClient.getSchema();
+        if (emitDeletes) {
+            guessSchema.getEventSchema().getEventProperties().add(PrimitivePropertyBuilder
+                    .create(Datatypes.String, CHANGE_TYPE)
+                    .label("Change Type")
+                    .description("insert, update or delete")
+                    .build());
+        }
+        return guessSchema;
     }
 
     @Override
@@ -190,6 +349,9 @@ public class MySqlStreamAdapter extends SpecificDataStreamAdapter {
         String replace = extractor.selectedSingleValueInternalName(MySqlClient.REPLACE_NULL_VALUES);
         replaceNullValues = replace.equals(MySqlClient.DO_REPLACE_NULL_VALUES);
 
+        String deletes = extractor.selectedSingleValueInternalName(EMIT_DELETES);
+        emitDeletes = DO_EMIT_DELETES.equals(deletes);
+
         mySqlClient = new MySqlClient(
                 extractor.singleValue(MySqlClient.HOST, String.class),
                 extractor.singleValue(MySqlClient.PORT, Integer.class),
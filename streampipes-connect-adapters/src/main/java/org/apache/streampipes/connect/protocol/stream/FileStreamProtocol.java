@@ -19,6 +19,10 @@
 package org.apache.streampipes.connect.protocol.stream;
 
 import org.apache.http.client.fluent.Request;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.apache.streampipes.connect.SendToPipeline;
 import org.apache.streampipes.connect.adapter.exception.ParseException;
 import org.apache.streampipes.connect.adapter.guess.SchemaGuesser;
@@ -39,8 +43,14 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -52,6 +62,8 @@ public class FileStreamProtocol extends Protocol {
 
   public static final String ID = "org.apache.streampipes.connect.protocol.stream.file";
 
+  private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
   //private String filePath;
   private String fileFetchUrl;
  // private String timestampKey;
@@ -106,46 +118,78 @@ public class FileStreamProtocol extends Protocol {
     task = new Thread() {
         @Override
         public void run() {
-          while (running) {
-
-            format.reset();
-            SendToPipeline stk = new SendToPipeline(format, adapterPipeline);
-            InputStream dataInputStream = getDataFromEndpoint();
-            try {
-              if(dataInputStream != null) {
-                parser.parse(dataInputStream, stk);
-              } else {
-                logger.warn("Could not read data from file.");
+          Path localFile = null;
+          try {
+            while (running) {
+              if (localFile == null) {
+                // a failed download is retried in the next replay round
+                localFile = tryDownloadToLocalFile();
               }
-            } catch (ParseException e) {
-              logger.error("Error while parsing: " + e.getMessage());
-            }
 
-              try {
-                  Thread.sleep(timeBetweenReplay * 1000);
-              } catch (InterruptedException e) {
-                  logger.error("Error while waiting for next replay round" + e.getMessage());
+              if (localFile != null) {
+                format.reset();
+                SendToPipeline stk = new SendToPipeline(format, adapterPipeline);
+                try (InputStream dataInputStream = openLocalFile(localFile)) {
+                  parser.parse(dataInputStream, stk);
+                } catch (ParseException e) {
+                  logger.error("Error while parsing: " + e.getMessage());
+                } catch (IOException e) {
+                  logger.warn("Could not read data from file: " + e.getMessage());
+                }
               }
+
+                try {
+                    Thread.sleep(timeBetweenReplay * 1000);
+                } catch (InterruptedException e) {
+                    logger.error("Error while waiting for next replay round" + e.getMessage());
+                }
+            }
+          } finally {
+            deleteLocalFile(localFile);
           }
         }
     };
     task.start();
   }
 
+  /**
+   * Downloads the file once, so that each replay round reads it from the local disk instead of fetching it again.
+   *
+   * @return the local copy, or null if the download failed
+   */
+  private Path tryDownloadToLocalFile() {
+    Path localFile = null;
+    try {
+      localFile = Files.createTempFile("streampipes-file-replay", null);
+      Request.Get(fileFetchUrl).execute().saveContent(localFile.toFile());
+      return localFile;
+    } catch (IOException e) {
+      logger.warn("Could not download file " + fileFetchUrl + ": " + e.getMessage());
+      deleteLocalFile(localFile);
+      return null;
+    }
+  }
 
-  @Override
-  public void stop() {
-    running = false;
+  private InputStream openLocalFile(Path localFile) throws IOException {
+    return new BufferedInputStream(Channels.newInputStream(FileChannel.open(localFile, StandardOpenOption.READ)),
+            READ_BUFFER_SIZE);
   }
 
-  private InputStream getDataFromEndpoint() throws ParseException {
-    try {
-      return Request.Get(fileFetchUrl).execute().returnContent().asStream();
-    } catch (IOException e) {
-      throw new ParseException("Could not find file: " + fileFetchUrl);
+  private void deleteLocalFile(Path localFile) {
+    if (localFile != null) {
+      try {
+        Files.deleteIfExists(localFile);
+      } catch (IOException e) {
+        logger.warn("Could not delete local copy of " + fileFetchUrl + ": " + e.getMessage());
+      }
     }
   }
 
+  @Override
+  public void stop() {
+    running = false;
+  }
+
   @Override
   public Protocol getInstance(ProtocolDescription protocolDescription, Parser parser, Format format) {
     StaticPropertyExtractor extractor = StaticPropertyExtractor.from(protocolDescription.getConfig(), new ArrayList<>());
@@ -203,24 +247,19 @@ public class FileStreamProtocol extends Protocol {
 
   @Override
   public GuessSchema getGuessSchema() throws ParseException {
-     InputStream dataInputStream = getDataFromEndpoint();
-
-    List<byte[]> dataByte = parser.parseNEvents(dataInputStream, 2);
+    // the sample events are parsed from the same download as the schema
+    List<byte[]> dataByte = readNEvents(2);
 
     EventSchema eventSchema = parser.getEventSchema(dataByte);
 
-    GuessSchema result = SchemaGuesser.guessSchma(eventSchema, getNElements(2));
+    GuessSchema result = SchemaGuesser.guessSchma(eventSchema, toMaps(dataByte));
 
     return result;
   }
 
   @Override
   public List<Map<String, Object>> getNElements(int n) throws ParseException {
-    List<Map<String, Object>> result = new ArrayList<>();
-
-    InputStream dataInputStream = getDataFromEndpoint();
-
-    List<byte[]> dataByteArray = parser.parseNEvents(dataInputStream, n);
+    List<byte[]> dataByteArray = readNEvents(n);
 
     // Check that result size is n. Currently just an error is logged. Maybe change to an exception
     if (dataByteArray.size() < n) {
@@ -228,10 +267,31 @@ public class FileStreamProtocol extends Protocol {
               dataByteArray.size());
     }
 
+    return toMaps(dataByteArray);
+  }
+
+  /**
+   * Streams the file from the endpoint only until n events are parsed. Closing the response afterwards aborts the
+   * connection instead of reading the rest of the file.
+   */
+  private List<byte[]> readNEvents(int n) throws ParseException {
+    try (CloseableHttpClient httpClient = HttpClients.createDefault();
+         CloseableHttpResponse response = httpClient.execute(new HttpGet(fileFetchUrl))) {
+      int statusCode = response.getStatusLine().getStatusCode();
+      if (statusCode >= 300 || response.getEntity() == null) {
+        throw new ParseException("Could not find file: " + fileFetchUrl + " (status " + statusCode + ")");
+      }
+      return parser.parseNEvents(response.getEntity().getContent(), n);
+    } catch (IOException e) {
+      throw new ParseException("Could not find file: " + fileFetchUrl);
+    }
+  }
+
+  private List<Map<String, Object>> toMaps(List<byte[]> dataByteArray) {
+    List<Map<String, Object>> result = new ArrayList<>();
     for (byte[] b : dataByteArray) {
       result.add(format.parse(b));
     }
-
     return result;
   }
 
@@ -31,6 +31,7 @@ import org.apache.streampipes.connect.adapter.model.generic.Parser;
 import org.apache.streampipes.connect.adapter.model.generic.Protocol;
 import org.apache.streampipes.connect.adapter.model.pipeline.AdapterPipeline;
 import org.apache.streampipes.connect.adapter.sdk.ParameterExtractor;
+import org.apache.streampipes.connect.utils.LocalStateFiles;
 import org.apache.streampipes.model.AdapterType;
 import org.apache.streampipes.model.connect.grounding.ProtocolDescription;
 import org.apache.streampipes.model.connect.guess.GuessSchema;
@@ -41,8 +42,14 @@ import org.apache.streampipes.sdk.helpers.Labels;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -59,6 +66,8 @@ public class HDFSProtocol extends Protocol {
     private static String DATA_PATH_PROPERTY = "dataPathProperty";
     private static String RECURSIVELY_PROPERTY = "recursively";
     private static String OPTIONS = "optionsFile";
+    private static String PARALLEL_DOWNLOADS_PROPERTY = "parallelDownloadsProperty";
+    private static String CURSOR_NAME_PROPERTY = "cursorNameProperty";
 
     private long intervalProperty;
     private String dataPathProperty;
@@ -66,22 +75,29 @@ public class HDFSProtocol extends Protocol {
     private String userProperty;
     private String passwordProperty;
     private boolean recursively;
+    private int parallelDownloads;
+    private String cursorName;
 
     private ScheduledExecutorService scheduler;
+    private ExecutorService downloadPool;
     private Logger logger = LoggerFactory.getLogger(HDFSProtocol.class);
 
-    private long knownNewestFileDate;
+    private HdfsFileCursor cursor;
+    private volatile int backlog;
 
     public HDFSProtocol() {
 
     }
 
-    public HDFSProtocol(Parser parser, Format format, long intervalProperty, String dataPathProperty, String urlProperty, boolean recursively) {
+    public HDFSProtocol(Parser parser, Format format, long intervalProperty, String dataPathProperty, String urlProperty, boolean recursively,
+                        int parallelDownloads, String cursorName) {
         super(parser, format);
         this.intervalProperty = intervalProperty;
         this.dataPathProperty = dataPathProperty;
         this.urlProperty = urlProperty;
         this.recursively = recursively;
+        this.parallelDownloads = parallelDownloads;
+        this.cursorName = cursorName;
     }
 
     @Override
@@ -92,11 +108,14 @@ public class HDFSProtocol extends Protocol {
         //    String userProperty = extractor.singleValue(USER_PROPERTY);
         //    String passwordProperty = extractor.singleValue(PASSWORD_PROPERTY);
         String dataPathProperty = extractor.singleValue(DATA_PATH_PROPERTY);
+        int parallelDownloads = Math.max(1, Integer.parseInt(extractor.singleValue(PARALLEL_DOWNLOADS_PROPERTY)));
+        String cursorName = extractor.singleValue(CURSOR_NAME_PROPERTY);
 
 //        boolean recursively = extractor.selectedMultiValues(RECURSIVELY_PROPERTY).stream()
 //                .anyMatch(o -> o.equals("recursively"));
 
-        return new HDFSProtocol(parser, format, intervalProperty, dataPathProperty, urlProperty, recursively);
+        return new HDFSProtocol(parser, format, intervalProperty, dataPathProperty, urlProperty, recursively,
+                parallelDownloads, cursorName);
 
     }
 
@@ -113,6 +132,11 @@ public class HDFSProtocol extends Protocol {
                 .requiredIntegerParameter(Labels.from(INTERVAL_PROPERTY, "Interval", "Polling interval in seconds"))
                 .requiredTextParameter(Labels.from(DATA_PATH_PROPERTY, "Data Path",
                         "The Data Path to watch"))
+                .requiredIntegerParameter(Labels.from(PARALLEL_DOWNLOADS_PROPERTY, "Parallel Downloads",
+                        "Number of files which are downloaded in parallel"), 4)
+                .requiredTextParameter(Labels.from(CURSOR_NAME_PROPERTY, "Cursor Name",
+                        "Identifies the adapter's position in the data path. Each adapter on the same path needs its "
+                                + "own name, adapters with the same name continue from the same position"))
 //                .requiredTextParameter(Labels.from(USER_PROPERTY, "Username", "The Username to " +
 //                        "login"))
 //                .requiredTextParameter(Labels.from(PASSWORD_PROPERTY, "Password","The Password to" +
@@ -167,51 +191,157 @@ public class HDFSProtocol extends Protocol {
     public void run(AdapterPipeline adapterPipeline) {
         logger.info("Start HDFS Adapter");
 
-        this.knownNewestFileDate = 0;
+        // The protocol does not know the adapter it belongs to, so the adapter is identified by its cursor name
+        this.cursor = new HdfsFileCursor(LocalStateFiles.getPath("hdfs-cursor",
+                cursorName + "@" + urlProperty + dataPathProperty));
+        this.downloadPool = Executors.newFixedThreadPool(parallelDownloads);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
 
-        final Runnable errorThread = () -> {
-            executeProtocolLogic(adapterPipeline);
-        };
+        SendToPipeline stk = new SendToPipeline(format, adapterPipeline);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                ingestPendingFiles(stk);
+            } catch (RuntimeException e) {
+                logger.error("Error while ingesting files from " + dataPathProperty, e);
+            } finally {
+                cursor.flush();
+            }
+        }, 0, this.intervalProperty, TimeUnit.SECONDS);
+    }
 
+    /**
+     * Ingests all files which are new or were modified since they were ingested, oldest first. Files are downloaded
+     * to local temporary files by the download pool, at most twice the pool size ahead of the parser. Parsing and
+     * the hand-off to the pipeline happen on the scheduler thread in modification order. A file which has been
+     * modified within the last interval may still be written and is left for the next run.
+     */
+    private void ingestPendingFiles(SendToPipeline stk) {
+        List<LocatedFileStatus> allFiles = getFiles();
+        if (allFiles.isEmpty()) {
+            // an unreachable server also yields no files, so the cursor is left as it is
+            logger.info("No files found");
+            return;
+        }
+        cursor.retainOnly(allFiles.stream().map(file -> file.getPath().toString()).collect(Collectors.toList()));
+
+        long settledBefore = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(intervalProperty);
+        List<LocatedFileStatus> pendingFiles = allFiles
+                .stream()
+                .filter(file -> cursor.isPending(file.getPath().toString(), file.getModificationTime()))
+                .filter(file -> file.getModificationTime() < settledBefore)
+                .sorted(Comparator.comparingLong(LocatedFileStatus::getModificationTime))
+                .collect(Collectors.toList());
 
-        scheduler = Executors.newScheduledThreadPool(1);
-        scheduler.schedule(errorThread, 0, TimeUnit.MILLISECONDS);
+        this.backlog = pendingFiles.size();
+        if (pendingFiles.isEmpty()) {
+            logger.info("No new files found");
+            return;
+        }
+        logger.info(pendingFiles.size() + " new or modified files found");
+
+        Deque<Future<java.nio.file.Path>> downloads = new ArrayDeque<>();
+        try {
+            int nextDownload = 0;
+            for (LocatedFileStatus file : pendingFiles) {
+                while (nextDownload < pendingFiles.size() && downloads.size() < 2 * parallelDownloads) {
+                    LocatedFileStatus toDownload = pendingFiles.get(nextDownload++);
+                    downloads.add(downloadPool.submit(() -> downloadToLocalFile(toDownload)));
+                }
+                java.nio.file.Path localFile = null;
+                try {
+                    long start = System.currentTimeMillis();
+                    localFile = downloads.poll().get();
+                    long downloaded = System.currentTimeMillis();
+                    try (InputStream inputStream = Files.newInputStream(localFile)) {
+                        parser.parse(inputStream, stk);
+                    }
+                    long parsed = System.currentTimeMillis();
+
+                    String path = file.getPath().toString();
+                    if (cursor.wasIngestedBefore(path)) {
+                        logger.info("File " + path + " was modified after it had been ingested and was ingested again");
+                    }
+                    cursor.markIngested(path, file.getModificationTime());
+                    this.backlog--;
+                    logFileMetrics(path, file.getLen(), downloaded - start, parsed - downloaded);
+                } catch (ExecutionException | IOException | ParseException e) {
+                    logger.error("Could not ingest file " + file.getPath() + ": " + e.getMessage());
+                } catch (RuntimeException e) {
+                    logger.error("Could not ingest file " + file.getPath(), e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    deleteLocalFile(localFile);
+                }
+            }
+        } finally {
+            discardDownloads(downloads);
+        }
     }
 
+    /**
+     * Cancels the downloads which have not been parsed and deletes the files of those which have already completed.
+     */
+    private void discardDownloads(Deque<Future<java.nio.file.Path>> downloads) {
+        for (Future<java.nio.file.Path> download : downloads) {
+            if (!download.cancel(true)) {
+                try {
+                    deleteLocalFile(download.get());
+                } catch (ExecutionException | CancellationException e) {
+                    // the download failed, so there is no file to delete
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        downloads.clear();
+    }
 
-    private void executeProtocolLogic(AdapterPipeline adapterPipeline) {
-        final Runnable task = () -> {
-            SendToPipeline stk = new SendToPipeline(format, adapterPipeline);
+    private java.nio.file.Path downloadToLocalFile(LocatedFileStatus file) throws IOException {
+        java.nio.file.Path localFile = Files.createTempFile("streampipes-hdfs", null);
+        try (FileSystem fs = FileSystem.newInstance(URI.create(this.urlProperty), getConfigutation());
+             InputStream inputStream = fs.open(file.getPath())) {
+            Files.copy(inputStream, localFile, StandardCopyOption.REPLACE_EXISTING);
+            if (Thread.currentThread().isInterrupted()) {
+                // the download was cancelled while copying, nobody will pick up the file
+                throw new InterruptedIOException("Download of " + file.getPath() + " was cancelled");
+            }
+        } catch (IOException e) {
+            deleteLocalFile(localFile);
+            throw e;
+        }
+        return localFile;
+    }
 
-            List<LocatedFileStatus> files = getFiles(this.knownNewestFileDate);
-            if (files.size() > 0) {
-                this.knownNewestFileDate = files.get(files.size() - 1).getModificationTime();
-                logger.info("+++ New files found, newest file Date: " + this.knownNewestFileDate + " (in milliseconds form 1970)");
-            } else
-                logger.info("No new files found");
+    private void deleteLocalFile(java.nio.file.Path localFile) {
+        if (localFile != null) {
             try {
-                files.forEach(file -> parser.parse(getInputStreamFromFile(file), stk));
-            } catch (ParseException e) {
-                logger.error("Error while parsing: " + e.getMessage());
+                Files.deleteIfExists(localFile);
+            } catch (IOException e) {
+                logger.warn("Could not delete temporary file " + localFile + ": " + e.getMessage());
             }
-        };
-
-
-        scheduler = Executors.newScheduledThreadPool(1);
-        ScheduledFuture<?> handle = scheduler.scheduleAtFixedRate(task, 1, this.intervalProperty, TimeUnit.SECONDS);
-        try {
-            handle.get();
-        } catch (ExecutionException e ) {
-            logger.error("Error", e);
-        } catch (InterruptedException e) {
-            logger.error("Error", e);
         }
     }
 
+    private void logFileMetrics(String path, long bytes, long downloadMillis, long parseMillis) {
+        double megabytes = bytes / (1024.0 * 1024.0);
+        logger.info(String.format("Ingested %s (%.1f MB): download %d ms, parsing %d ms (%.1f MB/s), %d files pending",
+                path, megabytes, downloadMillis, parseMillis,
+                parseMillis > 0 ? megabytes * 1000 / parseMillis : 0.0, backlog));
+    }
+
+    /**
+     * @return the number of new or modified files which are waiting to be ingested
+     */
+    public int getBacklog() {
+        return backlog;
+    }
 
     @Override
     public void stop() {
         scheduler.shutdownNow();
+        downloadPool.shutdownNow();
     }
 
     @Override
@@ -220,19 +350,6 @@ public class HDFSProtocol extends Protocol {
     }
 
 
-    private List<LocatedFileStatus> getFiles(long startDate) {
-        List<LocatedFileStatus> files = getFiles();
-
-        files = files
-                .parallelStream()
-                .filter(ftpFile -> ftpFile.getModificationTime() > startDate)
-                .sorted(((o1, o2) -> (((Long) o2.getModificationTime()).compareTo((Long) (o1.getModificationTime())))))
-                .collect(Collectors.toList());
-
-        return files;
-
-    }
-
     public List<LocatedFileStatus> getFiles() {
         List<LocatedFileStatus> files = new ArrayList<>();
 
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.protocol.stream;
+
+import org.apache.streampipes.connect.utils.LocalStateFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Remembers the modification time of every file which has been ingested, so that an adapter only picks up new files
+ * and files which were modified after ingestion. The cursor is stored in a local properties file and survives a
+ * restart of the adapter. Changes are stored every {@value #STORE_INTERVAL_FILES} files and on {@link #flush()}, so
+ * after a crash at most that many files are ingested again.
+ */
+public class HdfsFileCursor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HdfsFileCursor.class);
+
+    private static final int STORE_INTERVAL_FILES = 100;
+
+    private final Path cursorFile;
+    private final Map<String, Long> ingestedFiles;
+    private int unstoredChanges;
+
+    public HdfsFileCursor(Path cursorFile) {
+        this.cursorFile = cursorFile;
+        this.ingestedFiles = new HashMap<>();
+        load();
+    }
+
+    /**
+     * @return true if the file has not been ingested yet or was modified after it was ingested
+     */
+    public synchronized boolean isPending(String path, long modificationTime) {
+        Long ingestedModificationTime = ingestedFiles.get(path);
+        return ingestedModificationTime == null || ingestedModificationTime != modificationTime;
+    }
+
+    public synchronized boolean wasIngestedBefore(String path) {
+        return ingestedFiles.containsKey(path);
+    }
+
+    public synchronized void markIngested(String path, long modificationTime) {
+        ingestedFiles.put(path, modificationTime);
+        if (++unstoredChanges >= STORE_INTERVAL_FILES) {
+            store();
+        }
+    }
+
+    /**
+     * Forgets all files which no longer exist, so the cursor does not grow with deleted files.
+     */
+    public synchronized void retainOnly(Collection<String> existingPaths) {
+        Set<String> existing = new HashSet<>(existingPaths);
+        if (ingestedFiles.keySet().retainAll(existing)) {
+            unstoredChanges++;
+        }
+    }
+
+    /**
+     * Stores all changes which have not been stored yet.
+     */
+    public synchronized void flush() {
+        if (unstoredChanges > 0) {
+            store();
+        }
+    }
+
+    private void load() {
+        try {
+            Properties properties = LocalStateFiles.load(cursorFile);
+            properties.stringPropertyNames().forEach(path ->
+                    ingestedFiles.put(path, Long.parseLong(properties.getProperty(path))));
+        } catch (IOException | NumberFormatException e) {
+            LOG.error("Could not read HDFS cursor " + cursorFile + ", all files will be ingested again", e);
+            ingestedFiles.clear();
+        }
+    }
+
+    private void store() {
+        Properties properties = new Properties();
+        ingestedFiles.forEach((path, modificationTime) -> properties.setProperty(path, String.valueOf(modificationTime)));
+        try {
+            LocalStateFiles.store(cursorFile, properties);
+            unstoredChanges = 0;
+        } catch (IOException e) {
+            LOG.error("Could not write HDFS cursor " + cursorFile, e);
+        }
+    }
+}
@@ -28,15 +28,22 @@ public class KafkaConfig {
     private String authentication;
     private String username;
     private String password;
+    private Integer consumerThreads;
+    private Integer maxPollRecords;
+    private Integer fetchMinBytes;
 
     public KafkaConfig(String kafkaHost, Integer kafkaPort, String topic,
-                       String authentication, String username, String password) {
+                       String authentication, String username, String password,
+                       Integer consumerThreads, Integer maxPollRecords, Integer fetchMinBytes) {
         this.kafkaHost = kafkaHost;
         this.kafkaPort = kafkaPort;
         this.topic = topic;
         this.authentication = authentication;
         this.username = username;
         this.password = password;
+        this.consumerThreads = consumerThreads;
+        this.maxPollRecords = maxPollRecords;
+        this.fetchMinBytes = fetchMinBytes;
     }
 
     public String getKafkaHost() {
@@ -57,4 +64,10 @@ public class KafkaConfig {
 
     public String getAuthentication() { return authentication; }
 
+    public Integer getConsumerThreads() { return consumerThreads; }
+
+    public Integer getMaxPollRecords() { return maxPollRecords; }
+
+    public Integer getFetchMinBytes() { return fetchMinBytes; }
+
 }
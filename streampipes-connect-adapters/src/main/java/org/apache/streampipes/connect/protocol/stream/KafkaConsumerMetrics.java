@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.protocol.stream;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and lag of the consumers of a Kafka adapter. Record counts are updated by all consumer threads, the
+ * lag of a partition by the consumer it is assigned to.
+ */
+public class KafkaConsumerMetrics {
+
+    private final LongAdder records = new LongAdder();
+    private final Map<TopicPartition, Long> lagByPartition = new ConcurrentHashMap<>();
+
+    private long lastRateTimestamp;
+    private long lastRateRecords;
+
+    public KafkaConsumerMetrics(long startTimestamp) {
+        this.lastRateTimestamp = startTimestamp;
+    }
+
+    public void recordsConsumed(int count) {
+        records.add(count);
+    }
+
+    public void updateLag(TopicPartition partition, long endOffset, long position) {
+        lagByPartition.put(partition, Math.max(0, endOffset - position));
+    }
+
+    public void removePartitions(Collection<TopicPartition> partitions) {
+        partitions.forEach(lagByPartition::remove);
+    }
+
+    public long getRecordCount() {
+        return records.sum();
+    }
+
+    /**
+     * @return the last known lag of each assigned partition
+     */
+    public Map<TopicPartition, Long> getLagByPartition() {
+        return new HashMap<>(lagByPartition);
+    }
+
+    /**
+     * Returns the number of records per second since the previous call and starts a new measurement period.
+     */
+    public synchronized double takeRecordsPerSecond(long timestamp) {
+        long currentRecords = records.sum();
+        long elapsed = timestamp - lastRateTimestamp;
+        double rate = elapsed > 0 ? (currentRecords - lastRateRecords) * 1000.0 / elapsed : 0;
+        lastRateTimestamp = timestamp;
+        lastRateRecords = currentRecords;
+        return rate;
+    }
+}
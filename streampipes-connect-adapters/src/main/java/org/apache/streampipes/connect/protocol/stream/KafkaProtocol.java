@@ -18,15 +18,12 @@
 
 package org.apache.streampipes.connect.protocol.stream;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.*;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.kafka.common.security.auth.SecurityProtocol;
-import org.apache.kafka.common.serialization.LongDeserializer;
-import org.apache.kafka.common.serialization.StringDeserializer;
-import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.streampipes.connect.SendToPipeline;
 import org.apache.streampipes.connect.adapter.exception.ParseException;
 import org.apache.streampipes.connect.adapter.model.generic.Format;
@@ -35,12 +32,8 @@ import org.apache.streampipes.connect.adapter.model.generic.Protocol;
 import org.apache.streampipes.connect.adapter.model.pipeline.AdapterPipeline;
 import org.apache.streampipes.connect.utils.KafkaConnectUtils;
 import org.apache.streampipes.container.api.ResolvesContainerProvidedOptions;
-import org.apache.streampipes.messaging.InternalEventProcessor;
-import org.apache.streampipes.messaging.kafka.SpKafkaConsumer;
 import org.apache.streampipes.model.AdapterType;
 import org.apache.streampipes.model.connect.grounding.ProtocolDescription;
-import org.apache.streampipes.model.grounding.KafkaTransportProtocol;
-import org.apache.streampipes.model.grounding.SimpleTopicDefinition;
 import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.adapter.ProtocolDescriptionBuilder;
 import org.apache.streampipes.sdk.extractor.StaticPropertyExtractor;
@@ -50,9 +43,11 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.ByteArrayInputStream;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class KafkaProtocol extends BrokerProtocol implements ResolvesContainerProvidedOptions {
@@ -62,8 +57,16 @@ public class KafkaProtocol extends BrokerProtocol implements ResolvesContainerPr
 
     public static final String ID = "org.apache.streampipes.connect.protocol.stream.kafka";
 
-    private Thread thread;
-    private SpKafkaConsumer kafkaConsumer;
+    private static final long DISPATCH_POLL_TIMEOUT_MS = 500;
+    private static final long METRICS_LOG_INTERVAL_MS = 60000;
+    private static final long STOP_TIMEOUT_MS = 5000;
+
+    private List<KafkaRecordConsumer> consumers;
+    private List<Thread> consumerThreads;
+    private Thread dispatcherThread;
+    private BlockingQueue<List<byte[]>> batches;
+    private KafkaConsumerMetrics metrics;
+    private volatile boolean running;
 
     public KafkaProtocol() {
     }
@@ -96,18 +99,16 @@ public class KafkaProtocol extends BrokerProtocol implements ResolvesContainerPr
                 .requiredSingleValueSelectionFromContainer(KafkaConnectUtils.getTopicLabel(), Arrays.asList(
                         KafkaConnectUtils.getHostKey(),
                         KafkaConnectUtils.getPortKey()))
+                .requiredIntegerParameter(KafkaConnectUtils.getConsumerThreadsLabel(), 1)
+                .requiredIntegerParameter(KafkaConnectUtils.getMaxPollRecordsLabel(), 500)
+                .requiredIntegerParameter(KafkaConnectUtils.getFetchMinBytesLabel(), 1)
                 .build();
     }
 
     @Override
     protected List<byte[]> getNByteElements(int n) throws ParseException {
-        final Consumer<Long, String> consumer;
-        if (authenticationRequired()) {
-            consumer = createConsumer(this.brokerUrl, this.topic, config.getUsername(), config.getPassword());
-        }
-        else {
-            consumer = createConsumer(this.brokerUrl, this.topic);
-        }
+        final Consumer<byte[], byte[]> consumer =
+                new KafkaConsumer<>(consumerProperties("KafkaExampleConsumer" + System.currentTimeMillis()));
 
         consumer.subscribe(Arrays.asList(this.topic), new ConsumerRebalanceListener() {
             @Override
@@ -126,18 +127,12 @@ public class KafkaProtocol extends BrokerProtocol implements ResolvesContainerPr
 
 
         while (true) {
-            final ConsumerRecords<Long, String> consumerRecords =
+            final ConsumerRecords<byte[], byte[]> consumerRecords =
                     consumer.poll(1000);
 
-            consumerRecords.forEach(record -> {
-                try {
-                    InputStream inputStream = IOUtils.toInputStream(record.value(), "UTF-8");
-
-                    nEventsByte.addAll(parser.parseNEvents(inputStream, n));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            });
+            for (ConsumerRecord<byte[], byte[]> record : consumerRecords) {
+                nEventsByte.addAll(parser.parseNEvents(new ByteArrayInputStream(record.value()), n));
+            }
 
             if (nEventsByte.size() > n) {
                 resultEventsByte = nEventsByte.subList(0, n);
@@ -155,88 +150,104 @@ public class KafkaProtocol extends BrokerProtocol implements ResolvesContainerPr
         return resultEventsByte;
     }
 
-    private static Consumer<Long, String> createConsumer(String broker, String topic) {
+    private Properties consumerProperties(String groupId) {
         final Properties props = new Properties();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG,
-                broker);
-
-        props.put(ConsumerConfig.GROUP_ID_CONFIG,
-                "KafkaExampleConsumer" + System.currentTimeMillis());
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
-                LongDeserializer.class.getName());
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-                StringDeserializer.class.getName());
-
-        // Create the consumer using props.
-        final Consumer<Long, String> consumer =
-                new KafkaConsumer<>(props);
-
-        // Subscribe to the topic.
-        consumer.subscribe(Collections.singletonList(topic));
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, this.brokerUrl);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, config.getMaxPollRecords());
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, config.getFetchMinBytes());
 
-        return consumer;
-    }
+        if (authenticationRequired()) {
+            props.put(SaslConfigs.SASL_JAAS_CONFIG, "org.apache.kafka.common.security.plain.PlainLoginModule required username=\"" + config.getUsername() + "\" password=\"" + config.getPassword() + "\";");
+            props.put(SaslConfigs.SASL_MECHANISM, "PLAIN");
+            props.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, SecurityProtocol.SASL_PLAINTEXT.toString());
+        }
 
-    private static Consumer<Long, String> createConsumer(String broker, String topic, String username, String password) {
-        final Properties props = new Properties();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG,
-                broker);
-
-        props.put(ConsumerConfig.GROUP_ID_CONFIG,
-                "KafkaExampleConsumer" + System.currentTimeMillis());
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
-                LongDeserializer.class.getName());
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
-                StringDeserializer.class.getName());
-        props.put(SaslConfigs.SASL_JAAS_CONFIG, "org.apache.kafka.common.security.plain.PlainLoginModule required username=\"" + username + "\" password=\"" + password + "\";");
-        props.put(SaslConfigs.SASL_MECHANISM, "PLAIN");
-        props.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, SecurityProtocol.SASL_PLAINTEXT.toString());
-
-        // Create the consumer using props.
-        final Consumer<Long, String> consumer =
-                new KafkaConsumer<>(props);
-
-        // Subscribe to the topic.
-        consumer.subscribe(Collections.singletonList(topic));
-
-        return consumer;
+        return props;
     }
 
+    /**
+     * Starts the configured number of consumers in one consumer group. They hand the records of each poll as a
+     * batch to a single dispatcher thread, which parses them and feeds the adapter pipeline in order.
+     */
     @Override
     public void run(AdapterPipeline adapterPipeline) {
         SendToPipeline stk = new SendToPipeline(format, adapterPipeline);
-        KafkaTransportProtocol protocol = new KafkaTransportProtocol();
-        protocol.setKafkaPort(config.getKafkaPort());
-        protocol.setBrokerHostname(config.getKafkaHost());
-        protocol.setTopicDefinition(new SimpleTopicDefinition(topic));
-        if (authenticationRequired()) {
-            this.kafkaConsumer = new SpKafkaConsumer(protocol, config.getTopic(), new EventProcessor(stk),
-                    config.getUsername(), config.getPassword());
+        int threads = config.getConsumerThreads();
+        Properties props = consumerProperties("streampipes-connect-" + topic + "-" + UUID.randomUUID());
+
+        this.running = true;
+        this.batches = new ArrayBlockingQueue<>(threads * 2);
+        this.metrics = new KafkaConsumerMetrics(System.currentTimeMillis());
+        this.consumers = new ArrayList<>();
+        this.consumerThreads = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            KafkaRecordConsumer consumer = new KafkaRecordConsumer(props, topic, batches, metrics);
+            Thread thread = new Thread(consumer, "kafka-adapter-" + topic + "-" + i);
+            consumers.add(consumer);
+            consumerThreads.add(thread);
+            thread.start();
         }
-        else {
-            this.kafkaConsumer = new SpKafkaConsumer(protocol, config.getTopic(), new EventProcessor(stk));
+
+        this.dispatcherThread = new Thread(() -> dispatchBatches(stk), "kafka-adapter-" + topic + "-dispatcher");
+        this.dispatcherThread.start();
+    }
+
+    private void dispatchBatches(SendToPipeline stk) {
+        long lastMetricsLog = System.currentTimeMillis();
+        try {
+            while (running) {
+                List<byte[]> batch = batches.poll(DISPATCH_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    for (byte[] payload : batch) {
+                        try {
+                            parser.parse(new ByteArrayInputStream(payload), stk);
+                        } catch (ParseException e) {
+                            logger.error("Error while parsing: " + e.getMessage());
+                        } catch (RuntimeException e) {
+                            // keep dispatching, otherwise the consumers block forever on the full queue
+                            logger.error("Error while processing a record of topic " + topic, e);
+                        }
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastMetricsLog >= METRICS_LOG_INTERVAL_MS) {
+                    logMetrics(now);
+                    lastMetricsLog = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        thread = new Thread(this.kafkaConsumer);
-        thread.start();
+    private void logMetrics(long now) {
+        logger.info(String.format("Kafka adapter for topic %s: %d records, %.1f records/s, lag %s",
+                topic, metrics.getRecordCount(), metrics.takeRecordsPerSecond(now), metrics.getLagByPartition()));
     }
 
     @Override
     public void stop() {
-        try {
-            kafkaConsumer.disconnect();
-        } catch (SpRuntimeException e) {
-            e.printStackTrace();
-        }
+        running = false;
+        consumers.forEach(KafkaRecordConsumer::stop);
 
         try {
-            Thread.sleep(5000);
+            dispatcherThread.join(STOP_TIMEOUT_MS);
+            for (Thread thread : consumerThreads) {
+                // consumers blocked on a full queue are released by the interrupt
+                thread.interrupt();
+                thread.join(STOP_TIMEOUT_MS);
+            }
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
         }
 
+        logMetrics(System.currentTimeMillis());
         logger.info("Kafka Adapter was sucessfully stopped");
-        thread.interrupt();
     }
 
     @Override
@@ -268,25 +279,6 @@ public class KafkaProtocol extends BrokerProtocol implements ResolvesContainerPr
         return topics.stream().map(Option::new).collect(Collectors.toList());
     }
 
-
-    private class EventProcessor implements InternalEventProcessor<byte[]> {
-        private SendToPipeline stk;
-        public EventProcessor(SendToPipeline stk) {
-            this.stk = stk;
-        }
-
-        @Override
-        public void onEvent(byte[] payload) {
-            try {
-                parser.parse(IOUtils.toInputStream(new String(payload), "UTF-8"), stk);
-            } catch (IOException e) {
-                logger.error("Adapter " + ID + " could not read value!",e);
-            } catch (ParseException e) {
-                logger.error("Error while parsing: " + e.getMessage());
-        }
-        }
-    }
-
     @Override
     public String getId() {
         return ID;
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.protocol.stream;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Polls one consumer of the adapter's consumer group and hands the record values of each poll as one batch to the
+ * adapter. The hand-off blocks while the queue is full, so a slow pipeline throttles the consumers.
+ */
+public class KafkaRecordConsumer implements Runnable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaRecordConsumer.class);
+
+    private static final long POLL_TIMEOUT_MS = 500;
+    private static final long LAG_UPDATE_INTERVAL_MS = 10000;
+
+    private final Properties properties;
+    private final String topic;
+    private final BlockingQueue<List<byte[]>> batches;
+    private final KafkaConsumerMetrics metrics;
+
+    private volatile boolean running;
+    private volatile KafkaConsumer<byte[], byte[]> consumer;
+
+    public KafkaRecordConsumer(Properties properties,
+                               String topic,
+                               BlockingQueue<List<byte[]>> batches,
+                               KafkaConsumerMetrics metrics) {
+        this.properties = properties;
+        this.topic = topic;
+        this.batches = batches;
+        this.metrics = metrics;
+        this.running = true;
+    }
+
+    @Override
+    public void run() {
+        try (KafkaConsumer<byte[], byte[]> kafkaConsumer = new KafkaConsumer<>(properties)) {
+            this.consumer = kafkaConsumer;
+            kafkaConsumer.subscribe(Collections.singletonList(topic), new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    metrics.removePartitions(partitions);
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                }
+            });
+
+            long lastLagUpdate = 0;
+            while (running) {
+                ConsumerRecords<byte[], byte[]> records = kafkaConsumer.poll(POLL_TIMEOUT_MS);
+                if (!records.isEmpty()) {
+                    List<byte[]> batch = new ArrayList<>(records.count());
+                    for (ConsumerRecord<byte[], byte[]> record : records) {
+                        batch.add(record.value());
+                    }
+                    batches.put(batch);
+                    metrics.recordsConsumed(batch.size());
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastLagUpdate >= LAG_UPDATE_INTERVAL_MS) {
+                    updateLag(kafkaConsumer);
+                    lastLagUpdate = now;
+                }
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                LOG.error("Kafka consumer of topic " + topic + " was woken up unexpectedly", e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.consumer = null;
+        }
+    }
+
+    /**
+     * Stops polling. Can be called from any thread.
+     */
+    public void stop() {
+        running = false;
+        KafkaConsumer<byte[], byte[]> kafkaConsumer = this.consumer;
+        if (kafkaConsumer != null) {
+            kafkaConsumer.wakeup();
+        }
+    }
+
+    private void updateLag(KafkaConsumer<byte[], byte[]> kafkaConsumer) {
+        Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(kafkaConsumer.assignment());
+        endOffsets.forEach((partition, endOffset) ->
+                metrics.updateLag(partition, endOffset, kafkaConsumer.position(partition)));
+    }
+}
@@ -26,6 +26,8 @@ public class MqttConfig {
   private String username;
   private String password;
 
+  private Integer queueCapacity = 1000;
+
   public MqttConfig(String url, String topic) {
     this.authenticated = false;
     this.url = url;
@@ -58,4 +60,12 @@ public class MqttConfig {
   public String getPassword() {
     return password;
   }
+
+  public Integer getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(Integer queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
 }
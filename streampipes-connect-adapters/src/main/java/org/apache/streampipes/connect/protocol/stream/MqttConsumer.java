@@ -17,15 +17,39 @@
  */
 package org.apache.streampipes.connect.protocol.stream;
 
-import org.fusesource.mqtt.client.*;
 import org.apache.streampipes.messaging.InternalEventProcessor;
+import org.fusesource.hawtbuf.Buffer;
+import org.fusesource.hawtbuf.UTF8Buffer;
+import org.fusesource.mqtt.client.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscribes to an MQTT topic and hands the received payloads to a single worker thread, which processes them in
+ * order. A message is acknowledged after it has been processed. Once the worker's queue reaches its capacity, the
+ * connection stops reading from the broker until the worker has drained the queue to half of its capacity. The
+ * number of processed and waiting messages and the number of suspensions are logged periodically.
+ */
 public class MqttConsumer implements Runnable {
 
+  private static final Logger LOG = LoggerFactory.getLogger(MqttConsumer.class);
+  private static final long STATISTICS_LOG_INTERVAL_MS = 60000;
+
   private InternalEventProcessor<byte[]> consumer;
-  private boolean running;
+  private volatile boolean running;
   private int maxElementsToReceive = -1;
-  private int messageCount = 0;
+  private final AtomicInteger messageCount = new AtomicInteger();
+  private final AtomicInteger suspendCount = new AtomicInteger();
+  private final AtomicBoolean suspended = new AtomicBoolean();
+  private final CountDownLatch closed = new CountDownLatch(1);
+  private volatile ThreadPoolExecutor worker;
 
   private MqttConfig mqttConfig;
 
@@ -40,9 +64,14 @@ public class MqttConsumer implements Runnable {
     this.maxElementsToReceive = maxElementsToReceive;
   }
 
+  /**
+   * Connects to the broker and blocks until {@link #close()} is called.
+   */
   @Override
   public void run() {
     this.running = true;
+    // unbounded, messages which were already read when the connection was suspended must still be accepted
+    this.worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
     MQTT mqtt = new MQTT();
     try {
       mqtt.setHost(mqttConfig.getUrl());
@@ -50,29 +79,125 @@ public class MqttConsumer implements Runnable {
         mqtt.setUserName(mqttConfig.getUsername());
         mqtt.setPassword(mqttConfig.getPassword());
       }
-      BlockingConnection connection = mqtt.blockingConnection();
-      connection.connect();
-      Topic[] topics = {new Topic(mqttConfig.getTopic(), QoS.AT_LEAST_ONCE)};
-      byte[] qoses = connection.subscribe(topics);
-
-      while (running && ((maxElementsToReceive == -1) || (this.messageCount <= maxElementsToReceive))) {
-        Message message = connection.receive();
-        byte[] payload = message.getPayload();
-        consumer.onEvent(payload);
-        message.ack();
-        this.messageCount++;
+      CallbackConnection connection = mqtt.callbackConnection();
+      connection.listener(new Listener() {
+        @Override
+        public void onConnected() {
+        }
+
+        @Override
+        public void onDisconnected() {
+        }
+
+        @Override
+        public void onPublish(UTF8Buffer topic, Buffer body, Runnable ack) {
+          dispatch(connection, body.toByteArray(), ack);
+        }
+
+        @Override
+        public void onFailure(Throwable value) {
+          LOG.error("Connection to MQTT broker " + mqttConfig.getUrl() + " failed", value);
+          close();
+        }
+      });
+
+      connection.connect(new Callback<Void>() {
+        @Override
+        public void onSuccess(Void value) {
+          Topic[] topics = {new Topic(mqttConfig.getTopic(), QoS.AT_LEAST_ONCE)};
+          connection.subscribe(topics, new Callback<byte[]>() {
+            @Override
+            public void onSuccess(byte[] qoses) {
+            }
+
+            @Override
+            public void onFailure(Throwable value) {
+              LOG.error("Could not subscribe to topic " + mqttConfig.getTopic(), value);
+              close();
+            }
+          });
+        }
+
+        @Override
+        public void onFailure(Throwable value) {
+          LOG.error("Could not connect to MQTT broker " + mqttConfig.getUrl(), value);
+          close();
+        }
+      });
+
+      while (!closed.await(STATISTICS_LOG_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+        LOG.info(statistics());
       }
-      connection.disconnect();
+      connection.getDispatchQueue().execute(() -> connection.disconnect(null));
     } catch (Exception e) {
-      e.printStackTrace();
+      LOG.error("MQTT consumer for topic " + mqttConfig.getTopic() + " failed", e);
+    } finally {
+      worker.shutdown();
+      LOG.info("Stopped, " + statistics());
+    }
+  }
+
+  /**
+   * Runs on the connection's dispatch queue.
+   */
+  private void dispatch(CallbackConnection connection, byte[] payload, Runnable ack) {
+    if (!running) {
+      return;
+    }
+    // suspend before handing over the message, so that the worker sees the flag once it has processed it
+    if (worker.getQueue().size() + 1 >= mqttConfig.getQueueCapacity() && suspended.compareAndSet(false, true)) {
+      suspendCount.incrementAndGet();
+      connection.suspend();
+    }
+    // the connection may only be used from its dispatch queue, also for acknowledgements from the worker
+    worker.execute(() -> process(connection, payload, () -> connection.getDispatchQueue().execute(ack)));
+  }
+
+  private void process(CallbackConnection connection, byte[] payload, Runnable ack) {
+    try {
+      if (running) {
+        consumer.onEvent(payload);
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Could not process MQTT message of topic " + mqttConfig.getTopic(), e);
+    } finally {
+      ack.run();
+    }
+    if (worker.getQueue().size() <= mqttConfig.getQueueCapacity() / 2 && suspended.compareAndSet(true, false)) {
+      connection.getDispatchQueue().execute(connection::resume);
+    }
+    int count = messageCount.incrementAndGet();
+    if (maxElementsToReceive != -1 && count > maxElementsToReceive) {
+      close();
     }
   }
 
   public void close() {
     this.running = false;
+    this.closed.countDown();
+  }
+
+  private String statistics() {
+    return String.format("MQTT consumer for topic %s: %d messages processed, %d waiting, suspended %d times",
+            mqttConfig.getTopic(), messageCount.get(), getQueueDepth(), suspendCount.get());
   }
 
   public Integer getMessageCount() {
-    return messageCount;
+    return messageCount.get();
+  }
+
+  /**
+   * @return how often reading from the broker was suspended because the worker's queue was full
+   */
+  public int getSuspendCount() {
+    return suspendCount.get();
+  }
+
+  /**
+   * @return the number of messages waiting for the worker
+   */
+  public int getQueueDepth() {
+    ThreadPoolExecutor executor = worker;
+    return executor == null ? 0 : executor.getQueue().size();
   }
 }
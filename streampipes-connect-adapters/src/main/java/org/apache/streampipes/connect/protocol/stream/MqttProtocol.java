@@ -17,7 +17,6 @@
  */
 package org.apache.streampipes.connect.protocol.stream;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.streampipes.connect.utils.MqttConnectUtils;
 import org.apache.streampipes.connect.SendToPipeline;
 import org.apache.streampipes.connect.adapter.exception.ParseException;
@@ -34,8 +33,9 @@ import org.apache.streampipes.sdk.helpers.AdapterSourceType;
 import org.apache.streampipes.sdk.helpers.Locales;
 import org.apache.streampipes.sdk.utils.Assets;
 
-import java.io.IOException;
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class MqttProtocol extends BrokerProtocol {
@@ -61,6 +61,7 @@ public class MqttProtocol extends BrokerProtocol {
             StaticPropertyExtractor.from(protocolDescription.getConfig(), new ArrayList<>());
 
     mqttConfig = MqttConnectUtils.getMqttConfig(extractor);
+    mqttConfig.setQueueCapacity(extractor.singleValueParameter(MqttConnectUtils.QUEUE_CAPACITY, Integer.class));
 
     return new MqttProtocol(parser, format, mqttConfig);
   }
@@ -75,12 +76,13 @@ public class MqttProtocol extends BrokerProtocol {
             .requiredTextParameter(MqttConnectUtils.getBrokerUrlLabel())
             .requiredAlternatives(MqttConnectUtils.getAccessModeLabel(), MqttConnectUtils.getAlternativesOne(), MqttConnectUtils.getAlternativesTwo())
             .requiredTextParameter(MqttConnectUtils.getTopicLabel())
+            .requiredIntegerParameter(MqttConnectUtils.getQueueCapacityLabel(), 1000)
             .build();
   }
 
   @Override
   protected List<byte[]> getNByteElements(int n) throws ParseException {
-    List<byte[]> elements = new ArrayList<>();
+    List<byte[]> elements = Collections.synchronizedList(new ArrayList<>());
     InternalEventProcessor<byte[]> eventProcessor = elements::add;
 
     MqttConsumer consumer = new MqttConsumer(this.mqttConfig, eventProcessor);
@@ -95,6 +97,7 @@ public class MqttProtocol extends BrokerProtocol {
         e.printStackTrace();
       }
     }
+    consumer.close();
     return elements;
   }
 
@@ -112,6 +115,22 @@ public class MqttProtocol extends BrokerProtocol {
     this.mqttConsumer.close();
   }
 
+  /**
+   * @return the number of received messages waiting to be processed, 0 if the adapter is not running
+   */
+  public int getQueueDepth() {
+    MqttConsumer consumer = this.mqttConsumer;
+    return consumer == null ? 0 : consumer.getQueueDepth();
+  }
+
+  /**
+   * @return how often reading from the broker was suspended, 0 if the adapter is not running
+   */
+  public int getSuspendCount() {
+    MqttConsumer consumer = this.mqttConsumer;
+    return consumer == null ? 0 : consumer.getSuspendCount();
+  }
+
   @Override
   public String getId() {
     return ID;
@@ -127,8 +146,8 @@ public class MqttProtocol extends BrokerProtocol {
     @Override
     public void onEvent(byte[] payload) {
       try {
-        parser.parse(IOUtils.toInputStream(new String(payload), "UTF-8"), stk);
-      } catch (IOException | ParseException e) {
+        parser.parse(new ByteArrayInputStream(payload), stk);
+      } catch (ParseException e) {
         e.printStackTrace();
         //logger.error("Adapter " + ID + " could not read value!",e);
       }
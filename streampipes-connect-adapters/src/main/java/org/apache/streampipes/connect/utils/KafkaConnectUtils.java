@@ -36,6 +36,9 @@ public class KafkaConnectUtils {
     private static final String USERNAME_ACCESS = "username-alternative";
     private static final String USERNAME_GROUP = "username-group";
     private static final String USERNAME_KEY = "username";
+    private static final String CONSUMER_THREADS_KEY = "consumer-threads";
+    private static final String MAX_POLL_RECORDS_KEY = "max-poll-records";
+    private static final String FETCH_MIN_BYTES_KEY = "fetch-min-bytes";
 
     public static String getUsernameKey() {
         return USERNAME_KEY;
@@ -71,6 +74,18 @@ public class KafkaConnectUtils {
         return Labels.withId(PORT_KEY);
     }
 
+    public static Label getConsumerThreadsLabel() {
+        return Labels.withId(CONSUMER_THREADS_KEY);
+    }
+
+    public static Label getMaxPollRecordsLabel() {
+        return Labels.withId(MAX_POLL_RECORDS_KEY);
+    }
+
+    public static Label getFetchMinBytesLabel() {
+        return Labels.withId(FETCH_MIN_BYTES_KEY);
+    }
+
     public static Label getAccessModeLabel() {
         return Labels.withId(ACCESS_MODE);
     }
@@ -99,13 +114,18 @@ public class KafkaConnectUtils {
         String topic = extractor.selectedSingleValue(TOPIC_KEY, String.class);
         Integer port = extractor.singleValueParameter(PORT_KEY, Integer.class);
         String authentication = extractor.selectedAlternativeInternalId(ACCESS_MODE);
+        Integer consumerThreads = Math.max(1, extractor.singleValueParameter(CONSUMER_THREADS_KEY, Integer.class));
+        Integer maxPollRecords = extractor.singleValueParameter(MAX_POLL_RECORDS_KEY, Integer.class);
+        Integer fetchMinBytes = extractor.singleValueParameter(FETCH_MIN_BYTES_KEY, Integer.class);
         if (authentication.equals(USERNAME_ACCESS)) {
             String password = extractor.secretValue(PASSWORD_KEY);
             String username = extractor.singleValueParameter(USERNAME_KEY, String.class);
-            return new KafkaConfig(brokerUrl, port, topic, authentication, username, password);
+            return new KafkaConfig(brokerUrl, port, topic, authentication, username, password,
+                    consumerThreads, maxPollRecords, fetchMinBytes);
         }
         else {
-            return new KafkaConfig(brokerUrl, port, topic, authentication, null, null);
+            return new KafkaConfig(brokerUrl, port, topic, authentication, null, null,
+                    consumerThreads, maxPollRecords, fetchMinBytes);
         }
     }
 }
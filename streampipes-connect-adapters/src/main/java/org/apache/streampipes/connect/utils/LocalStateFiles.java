@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Properties files in which adapters keep their position in a source across restarts.
+ */
+public class LocalStateFiles {
+
+    /**
+     * @param directory the directory for the kind of state below ~/.streampipes
+     * @param source    identifies the source, e.g. its URL and path
+     * @return the state file of the source
+     */
+    public static Path getPath(String directory, String source) {
+        return Paths.get(System.getProperty("user.home"), ".streampipes", directory,
+                UUID.nameUUIDFromBytes(source.getBytes(StandardCharsets.UTF_8)) + ".properties");
+    }
+
+    /**
+     * @return the stored properties, which are empty if the file does not exist
+     */
+    public static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Replaces the file atomically, so that a crash never leaves a partially written file.
+     */
+    public static void store(Path file, Properties properties) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            properties.store(out, null);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -39,6 +39,7 @@ public class MqttConnectUtils {
     public static final String PASSWORD = "password";
     public static final String BROKER_URL = "broker_url";
     public static final String TOPIC = "topic";
+    public static final String QUEUE_CAPACITY = "queue-capacity";
 
     public static Label getAccessModeLabel() {
         return Labels.withId(ACCESS_MODE);
@@ -52,6 +53,10 @@ public class MqttConnectUtils {
         return Labels.withId(TOPIC);
     }
 
+    public static Label getQueueCapacityLabel() {
+        return Labels.withId(QUEUE_CAPACITY);
+    }
+
     public static StaticPropertyAlternative getAlternativesOne() {
         //return Alternatives.from(Labels.from(ANONYMOUS_ACCESS, "Unauthenticated", ""));
         return Alternatives.from(Labels.withId(ANONYMOUS_ACCESS));
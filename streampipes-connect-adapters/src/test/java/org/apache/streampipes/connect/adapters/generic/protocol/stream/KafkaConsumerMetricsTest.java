@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.adapters.generic.protocol.stream;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.streampipes.connect.protocol.stream.KafkaConsumerMetrics;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class KafkaConsumerMetricsTest {
+
+    @Test
+    public void recordsPerSecond() {
+        KafkaConsumerMetrics metrics = new KafkaConsumerMetrics(0);
+        metrics.recordsConsumed(500);
+        metrics.recordsConsumed(1500);
+
+        assertEquals(1000.0, metrics.takeRecordsPerSecond(2000), 0.001);
+        assertEquals(2000, metrics.getRecordCount());
+
+        metrics.recordsConsumed(100);
+        assertEquals(100.0, metrics.takeRecordsPerSecond(3000), 0.001);
+    }
+
+    @Test
+    public void lagByPartition() {
+        KafkaConsumerMetrics metrics = new KafkaConsumerMetrics(0);
+        TopicPartition first = new TopicPartition("topic", 0);
+        TopicPartition second = new TopicPartition("topic", 1);
+
+        metrics.updateLag(first, 120, 100);
+        metrics.updateLag(second, 50, 50);
+        assertEquals(2, metrics.getLagByPartition().size());
+        assertEquals(Long.valueOf(20), metrics.getLagByPartition().get(first));
+        assertEquals(Long.valueOf(0), metrics.getLagByPartition().get(second));
+
+        metrics.removePartitions(Collections.singletonList(first));
+        assertEquals(Collections.singletonMap(second, 0L), metrics.getLagByPartition());
+    }
+}
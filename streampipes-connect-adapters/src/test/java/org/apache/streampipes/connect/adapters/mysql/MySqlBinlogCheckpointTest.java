@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.connect.adapters.mysql;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MySqlBinlogCheckpointTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resumesFromStoredPosition() {
+        Path file = folder.getRoot().toPath().resolve("checkpoints").resolve("table.properties");
+        assertFalse(new MySqlBinlogCheckpoint(file).exists());
+
+        new MySqlBinlogCheckpoint(file).store("mysql-bin.000042", 1234L);
+
+        MySqlBinlogCheckpoint checkpoint = new MySqlBinlogCheckpoint(file);
+        assertTrue(checkpoint.exists());
+        assertEquals("mysql-bin.000042", checkpoint.getBinlogFilename());
+        assertEquals(1234L, checkpoint.getBinlogPosition());
+    }
+
+    @Test
+    public void clearRemovesStoredPosition() {
+        Path file = folder.getRoot().toPath().resolve("table.properties");
+        MySqlBinlogCheckpoint checkpoint = new MySqlBinlogCheckpoint(file);
+        checkpoint.store("mysql-bin.000001", 4L);
+        checkpoint.clear();
+
+        assertFalse(checkpoint.exists());
+        assertFalse(new MySqlBinlogCheckpoint(file).exists());
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Collects items and hands them to a {@link BatchWriter} once {@code batchSize} items are pending or the oldest
+ * pending item has been waiting for {@code maxLingerMs}. Full batches are written by the thread which adds the last
+ * item, lingering batches by a background thread. A batch size of 1 or less disables batching, {@link #add(Object)}
+ * then writes every item on its own.
+ *
+ * By default, a batch is discarded if it could not be written. If failed batches are retained, a batch which failed
+ * with a transient error stays pending and is written again together with the following items. Size-triggered
+ * retries are delayed by {@code maxLingerMs}. If a batch fails with a permanent error, e.g. because of a single item
+ * which cannot be converted, its items are written one at a time and only the items which fail are dropped.
+ *
+ * If batches are written asynchronously, all batches are handed to a single writer thread instead and failed batches
+ * are always discarded.
+ *
+ * @param <T> The type of the collected items
+ * @param <E> The exception thrown by the writer
+ */
+public class BatchBuffer<T, E extends Exception> {
+
+  @FunctionalInterface
+  public interface BatchWriter<T, E extends Exception> {
+    void write(List<T> batch) throws E;
+  }
+
+  private final int batchSize;
+  private final long maxLingerMs;
+  private final BatchWriter<T, E> writer;
+  private final Consumer<Exception> errorHandler;
+
+  private final List<T> pending = new ArrayList<>();
+  private long firstPendingTimestamp;
+  private long retryNotBefore;
+  private int maxRetainedItems;
+  private Predicate<Exception> isTransient;
+  private long droppedItems;
+  private long rejectedItems;
+  private ScheduledExecutorService flushScheduler;
+  private ThreadPoolExecutor writeExecutor;
+
+  private static final long WRITER_TERMINATION_TIMEOUT_MS = 10000;
+
+  /**
+   * @param batchSize          The maximum number of items per batch
+   * @param maxLingerMs        The maximum time in ms an item is kept before its batch gets written
+   * @param writer             Writes a batch, must not keep a reference to the given list
+   * @param errorHandler Is called with the exceptions of batches written by a background thread, of retained
+   *                     batches and of rejected items
+   */
+  public BatchBuffer(int batchSize, long maxLingerMs, BatchWriter<T, E> writer,
+                     Consumer<Exception> errorHandler) {
+    this.batchSize = Math.max(batchSize, 1);
+    this.maxLingerMs = Math.max(maxLingerMs, 1);
+    this.writer = writer;
+    this.errorHandler = errorHandler;
+
+    if (isBatching()) {
+      long flushInterval = Math.max(this.maxLingerMs / 2, 1);
+      this.flushScheduler = Executors.newSingleThreadScheduledExecutor();
+      this.flushScheduler.scheduleAtFixedRate(this::flushIfLingering, flushInterval, flushInterval,
+              TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Keeps batches which could not be written because of a transient error instead of discarding them. If more than
+   * {@code maxRetainedItems} items are pending after a failed write, the oldest ones are dropped. The errors of
+   * retained batches are passed to the error handler instead of being thrown by {@link #add(Object)}.
+   *
+   * If a batch fails with a permanent error, its items are written one at a time. Items which fail with a permanent
+   * error again are dropped and counted as rejected. If an item fails with a transient error, it and the following
+   * items are retained.
+   *
+   * @param maxRetainedItems The maximum number of pending items after a failed write
+   * @param isTransient      Decides whether a write which failed with the given exception can succeed later
+   */
+  public BatchBuffer<T, E> retainFailedBatches(int maxRetainedItems, Predicate<Exception> isTransient) {
+    this.maxRetainedItems = Math.max(maxRetainedItems, batchSize);
+    this.isTransient = isTransient;
+    return this;
+  }
+
+  /**
+   * Hands the batches to a single writer thread instead of writing them while the buffer is locked, so that adding
+   * items does not wait for the write. Batches are written in order. If {@code maxQueuedBatches} batches are waiting
+   * for the writer thread, the next flush blocks until one of them is written.
+   */
+  public BatchBuffer<T, E> writeAsynchronously(int maxQueuedBatches) {
+    this.writeExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(maxQueuedBatches, 1)), (task, executor) -> {
+              if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Batch writer is closed");
+              }
+              try {
+                executor.getQueue().put(task);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(e);
+              }
+            });
+    return this;
+  }
+
+  public boolean isBatching() {
+    return batchSize > 1;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * @return The number of retained items which were dropped because too many items were pending
+   */
+  public synchronized long getDroppedCount() {
+    return droppedItems;
+  }
+
+  /**
+   * @return The number of items which were dropped because they failed with a permanent error
+   */
+  public synchronized long getRejectedCount() {
+    return rejectedItems;
+  }
+
+  /**
+   * Adds the item and writes the pending batch if it is full.
+   *
+   * @throws E If the batch could not be written and failed batches are not retained
+   */
+  public synchronized void add(T item) throws E {
+    long now = System.currentTimeMillis();
+    if (pending.isEmpty()) {
+      firstPendingTimestamp = now;
+    }
+    pending.add(item);
+    if (pending.size() >= batchSize && now >= retryNotBefore) {
+      writePending(false);
+    }
+  }
+
+  /**
+   * Writes all pending items or, if batches are written asynchronously, hands them to the writer thread.
+   *
+   * @throws E If the batch could not be written, also if it is retained
+   */
+  public synchronized void flush() throws E {
+    writePending(true);
+  }
+
+  /**
+   * Stops the background threads and writes all pending items.
+   *
+   * @throws E If the last batch could not be written
+   */
+  public void close() throws E {
+    if (flushScheduler != null) {
+      flushScheduler.shutdown();
+      try {
+        flushScheduler.awaitTermination(maxLingerMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      flushScheduler = null;
+    }
+    flush();
+    if (writeExecutor != null) {
+      writeExecutor.shutdown();
+      try {
+        writeExecutor.awaitTermination(WRITER_TERMINATION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void writePending(boolean throwRetainedFailure) throws E {
+    if (pending.isEmpty()) {
+      return;
+    }
+    if (writeExecutor != null) {
+      List<T> batch = new ArrayList<>(pending);
+      pending.clear();
+      writeExecutor.execute(() -> writeInBackground(batch));
+      return;
+    }
+    if (maxRetainedItems == 0) {
+      try {
+        writer.write(pending);
+      } finally {
+        pending.clear();
+      }
+      return;
+    }
+
+    Exception transientFailure = writeOrIsolateFailures();
+    if (transientFailure == null) {
+      retryNotBefore = 0;
+      return;
+    }
+    retryNotBefore = System.currentTimeMillis() + maxLingerMs;
+    dropOverflow();
+    if (throwRetainedFailure) {
+      rethrow(transientFailure);
+    }
+    errorHandler.accept(transientFailure);
+  }
+
+  /**
+   * Writes the pending items and removes all items which were written or rejected.
+   *
+   * @return The exception if the write failed with a transient error, the remaining items are kept pending
+   */
+  private Exception writeOrIsolateFailures() {
+    try {
+      writer.write(pending);
+      pending.clear();
+      return null;
+    } catch (Exception e) {
+      if (isTransient.test(e)) {
+        return e;
+      }
+      if (pending.size() == 1) {
+        reject(e);
+        pending.clear();
+        return null;
+      }
+    }
+
+    // the batch failed permanently, so write the items one by one to drop only those which cause the failure
+    for (int i = 0; i < pending.size(); i++) {
+      try {
+        writer.write(Collections.singletonList(pending.get(i)));
+      } catch (Exception e) {
+        if (isTransient.test(e)) {
+          pending.subList(0, i).clear();
+          return e;
+        }
+        reject(e);
+      }
+    }
+    pending.clear();
+    return null;
+  }
+
+  private void reject(Exception e) {
+    rejectedItems++;
+    errorHandler.accept(e);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void rethrow(Exception e) throws E {
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    }
+    // the writer only throws E or runtime exceptions
+    throw (E) e;
+  }
+
+  private synchronized void flushIfLingering() {
+    try {
+      if (!pending.isEmpty() && System.currentTimeMillis() - firstPendingTimestamp >= maxLingerMs) {
+        flush();
+      }
+    } catch (Exception e) {
+      errorHandler.accept(e);
+    }
+  }
+
+  private void writeInBackground(List<T> batch) {
+    try {
+      writer.write(batch);
+    } catch (Exception e) {
+      errorHandler.accept(e);
+    }
+  }
+
+  private void dropOverflow() {
+    int overflow = pending.size() - maxRetainedItems;
+    if (overflow > 0) {
+      pending.subList(0, overflow).clear();
+      droppedItems += overflow;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.influxdb;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Encodes events of a fixed schema into InfluxDB line protocol. Sanitized and escaped keys as well as the split
+ * into tags and fields are computed once when the encoder is created, so encoding an event only appends to the
+ * given buffer. Keys which are not part of the schema are resolved on first use and cached, so an encoder must not
+ * be shared between threads.
+ */
+public class LineProtocolEncoder {
+
+  private final String measurement;
+  private final Function<String, String> keySanitizer;
+  private final Predicate<String> isTag;
+
+  private final String[] tagKeys;
+  private final String[] encodedTagKeys;
+  private final String[] fieldKeys;
+  private final String[] encodedFieldKeys;
+  private final Set<String> schemaKeys;
+
+  private final Map<String, String> encodedUnknownKeys = new HashMap<>();
+
+  /**
+   * @param measurement The name of the measurement
+   * @param runtimeNames The top-level runtime names of the event schema
+   * @param keySanitizer Maps a runtime name to the field key which is stored in the database
+   * @param isTag Decides whether a runtime name is stored as a tag instead of a field
+   */
+  public LineProtocolEncoder(String measurement,
+                             List<String> runtimeNames,
+                             Function<String, String> keySanitizer,
+                             Predicate<String> isTag) {
+    this.measurement = escapeMeasurement(measurement);
+    this.keySanitizer = keySanitizer;
+    this.isTag = isTag;
+    this.schemaKeys = new HashSet<>(runtimeNames);
+
+    int tagCount = (int) runtimeNames.stream().filter(isTag).count();
+    this.tagKeys = new String[tagCount];
+    this.encodedTagKeys = new String[tagCount];
+    this.fieldKeys = new String[runtimeNames.size() - tagCount];
+    this.encodedFieldKeys = new String[runtimeNames.size() - tagCount];
+
+    int tagIndex = 0;
+    int fieldIndex = 0;
+    for (String runtimeName : runtimeNames) {
+      if (isTag.test(runtimeName)) {
+        tagKeys[tagIndex] = runtimeName;
+        encodedTagKeys[tagIndex++] = escapeKey(runtimeName);
+      } else {
+        fieldKeys[fieldIndex] = runtimeName;
+        encodedFieldKeys[fieldIndex++] = escapeKey(keySanitizer.apply(runtimeName));
+      }
+    }
+  }
+
+  /**
+   * Appends a single line for the given event to the buffer, including the trailing line break. Nothing is
+   * appended if the event does not contain any field.
+   *
+   * @param event The raw event
+   * @param timestamp The timestamp of the point in milliseconds
+   * @param out The buffer the line is written to
+   */
+  public void encode(Map<String, Object> event, long timestamp, StringBuilder out) {
+    int start = out.length();
+    boolean hasUnknownKeys = event.size() > countSchemaKeys(event);
+
+    out.append(measurement);
+    for (int i = 0; i < tagKeys.length; i++) {
+      Object value = event.get(tagKeys[i]);
+      if (value != null) {
+        appendTag(encodedTagKeys[i], value, out);
+      }
+    }
+
+    if (hasUnknownKeys) {
+      for (Map.Entry<String, Object> entry : event.entrySet()) {
+        if (entry.getValue() != null && isUnknown(entry.getKey()) && isTag.test(entry.getKey())) {
+          appendTag(unknownKey(entry.getKey()), entry.getValue(), out);
+        }
+      }
+    }
+
+    char separator = ' ';
+    for (int i = 0; i < fieldKeys.length; i++) {
+      Object value = event.get(fieldKeys[i]);
+      if (value != null && appendField(separator, encodedFieldKeys[i], value, out)) {
+        separator = ',';
+      }
+    }
+
+    if (hasUnknownKeys) {
+      for (Map.Entry<String, Object> entry : event.entrySet()) {
+        if (entry.getValue() != null && isUnknown(entry.getKey()) && !isTag.test(entry.getKey())
+                && appendField(separator, unknownKey(entry.getKey()), entry.getValue(), out)) {
+          separator = ',';
+        }
+      }
+    }
+
+    if (separator == ' ') {
+      out.setLength(start);
+      return;
+    }
+    out.append(' ').append(timestamp).append('\n');
+  }
+
+  private int countSchemaKeys(Map<String, Object> event) {
+    int present = 0;
+    for (String tagKey : tagKeys) {
+      if (event.containsKey(tagKey)) {
+        present++;
+      }
+    }
+    for (String fieldKey : fieldKeys) {
+      if (event.containsKey(fieldKey)) {
+        present++;
+      }
+    }
+    return present;
+  }
+
+  private boolean isUnknown(String runtimeName) {
+    return !schemaKeys.contains(runtimeName);
+  }
+
+  private String unknownKey(String runtimeName) {
+    return encodedUnknownKeys.computeIfAbsent(runtimeName, name ->
+            escapeKey(isTag.test(name) ? name : keySanitizer.apply(name)));
+  }
+
+  private void appendTag(String encodedKey, Object value, StringBuilder out) {
+    String tagValue = value.toString();
+    if (!tagValue.isEmpty()) {
+      out.append(',').append(encodedKey).append('=');
+      appendEscaped(tagValue, out);
+    }
+  }
+
+  /**
+   * Integer, Long, Double and Boolean values are stored with their type, all other values are stored as strings.
+   * This matches the types used by the point-based implementation so that existing measurements stay compatible.
+   */
+  private boolean appendField(char separator, String encodedKey, Object value, StringBuilder out) {
+    if (value instanceof Double && !Double.isFinite((Double) value)) {
+      return false;
+    }
+    out.append(separator).append(encodedKey).append('=');
+    if (value instanceof Integer || value instanceof Long) {
+      out.append(((Number) value).longValue()).append('i');
+    } else if (value instanceof Double || value instanceof Boolean) {
+      out.append(value);
+    } else {
+      out.append('"');
+      String s = value.toString();
+      for (int i = 0; i < s.length(); i++) {
+        char c = s.charAt(i);
+        if (c == '"' || c == '\\') {
+          out.append('\\');
+        }
+        out.append(c);
+      }
+      out.append('"');
+    }
+    return true;
+  }
+
+  private static String escapeMeasurement(String measurement) {
+    return measurement.replace(",", "\\,").replace(" ", "\\ ");
+  }
+
+  private static String escapeKey(String key) {
+    StringBuilder sb = new StringBuilder(key.length());
+    appendEscaped(key, sb);
+    return sb.toString();
+  }
+
+  private static void appendEscaped(String s, StringBuilder out) {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == ',' || c == '=' || c == ' ') {
+        out.append('\\');
+      }
+      out.append(c);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput counters of a sink which writes items (rows, messages, ...) in one or more write operations, together
+ * with the latency of the writes. The counters can be updated and read from any thread.
+ */
+public class WriteStatistics {
+
+  private final String itemName;
+  private final long startNanos = System.nanoTime();
+
+  private final AtomicLong itemCount = new AtomicLong();
+  private final AtomicLong writeCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong totalLatencyNanos = new AtomicLong();
+  private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+  /**
+   * @param itemName The plural name of the written items used in {@link #toString()}, e.g. "rows"
+   */
+  public WriteStatistics(String itemName) {
+    this.itemName = itemName;
+  }
+
+  /**
+   * Records a successful write operation
+   *
+   * @param items        The number of items written by the operation
+   * @param latencyNanos The time needed for the operation (until it was acknowledged) in nanoseconds
+   */
+  public void recordWrite(int items, long latencyNanos) {
+    itemCount.addAndGet(items);
+    writeCount.incrementAndGet();
+    totalLatencyNanos.addAndGet(latencyNanos);
+    maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+  }
+
+  /**
+   * Records a failed write operation
+   *
+   * @return The number of failed operations so far
+   */
+  public long recordFailed() {
+    return failedCount.incrementAndGet();
+  }
+
+  public long getItemCount() {
+    return itemCount.get();
+  }
+
+  public long getWriteCount() {
+    return writeCount.get();
+  }
+
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  /**
+   * @return The average number of written items per second since this object has been created
+   */
+  public double getItemsPerSecond() {
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    return seconds > 0 ? itemCount.get() / seconds : 0;
+  }
+
+  public double getAverageItemsPerWrite() {
+    long writes = writeCount.get();
+    return writes > 0 ? (double) itemCount.get() / writes : 0;
+  }
+
+  public double getAverageLatencyMillis() {
+    long writes = writeCount.get();
+    return writes > 0 ? totalLatencyNanos.get() / 1e6 / writes : 0;
+  }
+
+  public double getMaxLatencyMillis() {
+    return maxLatencyNanos.get() / 1e6;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d %s in %d writes, %d failed (%.1f %s/s, %.1f %s/write, avg latency %.2f ms, "
+                    + "max latency %.2f ms)", getItemCount(), itemName, getWriteCount(), getFailedCount(),
+            getItemsPerSecond(), itemName, getAverageItemsPerWrite(), itemName, getAverageLatencyMillis(),
+            getMaxLatencyMillis());
+  }
+}
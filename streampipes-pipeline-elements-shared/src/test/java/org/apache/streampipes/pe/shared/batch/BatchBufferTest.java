@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.batch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchBufferTest {
+
+  private static final long LONG_LINGER_MS = 60000;
+
+  private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+  private final List<Exception> errors = new CopyOnWriteArrayList<>();
+  private BatchBuffer<Integer, IOException> buffer;
+
+  @After
+  public void closeBuffer() throws IOException {
+    if (buffer != null) {
+      buffer.close();
+    }
+  }
+
+  @Test
+  public void writesFullBatches() throws IOException {
+    buffer = new BatchBuffer<>(3, LONG_LINGER_MS, this::record, errors::add);
+
+    add(1, 2);
+    assertTrue(batches.isEmpty());
+    assertEquals(2, buffer.getPendingCount());
+
+    add(3, 4);
+    assertEquals(Collections.singletonList(Arrays.asList(1, 2, 3)), batches);
+    assertEquals(1, buffer.getPendingCount());
+  }
+
+  @Test
+  public void writesEveryItemWithoutBatching() throws IOException {
+    buffer = new BatchBuffer<>(1, LONG_LINGER_MS, this::record, errors::add);
+
+    add(1, 2);
+    assertEquals(Arrays.asList(Collections.singletonList(1), Collections.singletonList(2)), batches);
+  }
+
+  @Test
+  public void writesLingeringItems() throws Exception {
+    CountDownLatch written = new CountDownLatch(1);
+    buffer = new BatchBuffer<>(100, 50, batch -> {
+      record(batch);
+      written.countDown();
+    }, errors::add);
+
+    add(1, 2);
+    assertTrue(written.await(5, TimeUnit.SECONDS));
+    assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+    assertEquals(0, buffer.getPendingCount());
+  }
+
+  @Test
+  public void discardsFailedBatchesByDefault() throws IOException {
+    buffer = new BatchBuffer<>(2, LONG_LINGER_MS, batch -> {
+      throw new IOException("unavailable");
+    }, errors::add);
+
+    add(1);
+    try {
+      add(2);
+      fail("Expected the write to fail");
+    } catch (IOException e) {
+      assertEquals("unavailable", e.getMessage());
+    }
+    assertEquals(0, buffer.getPendingCount());
+  }
+
+  @Test
+  public void retainsBatchesAfterTransientFailures() throws IOException {
+    FailingWriter writer = new FailingWriter();
+    writer.failTransiently = true;
+    buffer = new BatchBuffer<>(2, LONG_LINGER_MS, writer, errors::add)
+            .retainFailedBatches(10, e -> e instanceof IOException);
+
+    add(1, 2);
+    assertEquals(2, buffer.getPendingCount());
+    assertEquals(1, errors.size());
+
+    writer.failTransiently = false;
+    buffer.flush();
+    assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+    assertEquals(0, buffer.getPendingCount());
+  }
+
+  @Test
+  public void flushThrowsTransientFailures() throws IOException {
+    FailingWriter writer = new FailingWriter();
+    writer.failTransiently = true;
+    buffer = new BatchBuffer<>(10, LONG_LINGER_MS, writer, errors::add)
+            .retainFailedBatches(10, e -> e instanceof IOException);
+
+    add(1);
+    try {
+      buffer.flush();
+      fail("Expected the write to fail");
+    } catch (IOException e) {
+      assertEquals(1, buffer.getPendingCount());
+    }
+    writer.failTransiently = false;
+  }
+
+  @Test
+  public void dropsOldestItemsIfTooManyAreRetained() throws IOException {
+    FailingWriter writer = new FailingWriter();
+    writer.failTransiently = true;
+    buffer = new BatchBuffer<>(2, LONG_LINGER_MS, writer, errors::add)
+            .retainFailedBatches(4, e -> e instanceof IOException);
+
+    // the failed batch is retried by the next flush, further items are only collected until then
+    add(1, 2, 3, 4, 5, 6);
+    assertEquals(6, buffer.getPendingCount());
+    try {
+      buffer.flush();
+      fail("Expected the write to fail");
+    } catch (IOException e) {
+      assertEquals(4, buffer.getPendingCount());
+      assertEquals(2, buffer.getDroppedCount());
+    }
+
+    writer.failTransiently = false;
+    buffer.flush();
+    assertEquals(Collections.singletonList(Arrays.asList(3, 4, 5, 6)), batches);
+  }
+
+  @Test
+  public void dropsOnlyItemsWhichFailPermanently() throws IOException {
+    FailingWriter writer = new FailingWriter();
+    writer.invalidItem = 2;
+    buffer = new BatchBuffer<>(3, LONG_LINGER_MS, writer, errors::add)
+            .retainFailedBatches(10, e -> e instanceof IOException);
+
+    add(1, 2, 3);
+    assertEquals(Arrays.asList(Collections.singletonList(1), Collections.singletonList(3)), batches);
+    assertEquals(0, buffer.getPendingCount());
+    assertEquals(1, buffer.getRejectedCount());
+    assertEquals(1, errors.size());
+
+    add(4, 5, 6);
+    assertEquals(Arrays.asList(4, 5, 6), batches.get(2));
+  }
+
+  @Test
+  public void retainsRemainingItemsIfIsolationFailsTransiently() throws IOException {
+    FailingWriter writer = new FailingWriter();
+    writer.invalidItem = 1;
+    writer.failTransientlyOnItem = 3;
+    buffer = new BatchBuffer<>(4, LONG_LINGER_MS, writer, errors::add)
+            .retainFailedBatches(10, e -> e instanceof IOException);
+
+    add(1, 2, 3, 4);
+    assertEquals(Collections.singletonList(Collections.singletonList(2)), batches);
+    assertEquals(2, buffer.getPendingCount());
+    assertEquals(1, buffer.getRejectedCount());
+
+    writer.failTransientlyOnItem = -1;
+    buffer.flush();
+    assertEquals(Arrays.asList(3, 4), batches.get(1));
+  }
+
+  @Test
+  public void writesAsynchronouslyInOrder() throws IOException {
+    buffer = new BatchBuffer<Integer, IOException>(2, LONG_LINGER_MS, this::record, errors::add)
+            .writeAsynchronously(1);
+
+    for (int i = 0; i < 100; i++) {
+      buffer.add(i);
+    }
+    buffer.close();
+
+    List<Integer> written = new ArrayList<>();
+    batches.forEach(written::addAll);
+    assertEquals(100, written.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Integer.valueOf(i), written.get(i));
+    }
+    assertEquals(50, batches.size());
+  }
+
+  @Test
+  public void asynchronousFailuresAreReported() throws IOException {
+    buffer = new BatchBuffer<Integer, IOException>(2, LONG_LINGER_MS, batch -> {
+      throw new IOException("unavailable");
+    }, errors::add).writeAsynchronously(1);
+
+    add(1, 2);
+    buffer.close();
+    assertEquals(1, errors.size());
+    assertEquals("unavailable", errors.get(0).getMessage());
+  }
+
+  @Test
+  public void closeWritesPendingItems() throws IOException {
+    buffer = new BatchBuffer<>(10, LONG_LINGER_MS, this::record, errors::add);
+
+    add(1, 2);
+    buffer.close();
+    assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+    assertEquals(0, buffer.getPendingCount());
+  }
+
+  private void add(Integer... items) throws IOException {
+    for (Integer item : items) {
+      buffer.add(item);
+    }
+  }
+
+  private void record(List<Integer> batch) {
+    batches.add(new ArrayList<>(batch));
+  }
+
+  private class FailingWriter implements BatchBuffer.BatchWriter<Integer, IOException> {
+
+    private volatile boolean failTransiently;
+    private volatile int invalidItem = -1;
+    private volatile int failTransientlyOnItem = -1;
+
+    @Override
+    public void write(List<Integer> batch) throws IOException {
+      if (batch.contains(invalidItem)) {
+        throw new IllegalArgumentException("invalid item " + invalidItem);
+      }
+      if (failTransiently || batch.contains(failTransientlyOnItem)) {
+        throw new IOException("unavailable");
+      }
+      record(batch);
+    }
+  }
+}
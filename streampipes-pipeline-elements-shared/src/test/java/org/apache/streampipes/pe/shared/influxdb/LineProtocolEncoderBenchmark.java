@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.influxdb;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to encode an event as a line of InfluxDB line protocol, once into the reused buffer
+ * of the sinks and once into a new buffer per event.
+ *
+ * <p>The benchmark is not run by the build, run its main method with the test classpath of this module instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineProtocolEncoderBenchmark {
+
+  @Param({"5", "20"})
+  private int fields;
+
+  private LineProtocolEncoder encoder;
+  private Map<String, Object> event;
+  private StringBuilder line;
+
+  @Setup
+  public void setup() {
+    List<String> runtimeNames = new ArrayList<>();
+    event = new HashMap<>();
+    for (int i = 0; i < fields; i++) {
+      String runtimeName = "field" + i;
+      runtimeNames.add(runtimeName);
+      switch (i % 4) {
+        case 0:
+          event.put(runtimeName, i);
+          break;
+        case 1:
+          event.put(runtimeName, 20.5 + i);
+          break;
+        case 2:
+          event.put(runtimeName, i % 2 == 0);
+          break;
+        default:
+          event.put(runtimeName, "value " + i);
+      }
+    }
+    encoder = new LineProtocolEncoder("measurement", runtimeNames, String::toLowerCase, key -> false);
+    line = new StringBuilder();
+  }
+
+  @Benchmark
+  public String encodeIntoReusedBuffer() {
+    line.setLength(0);
+    encoder.encode(event, 1600000000000L, line);
+    return line.toString();
+  }
+
+  @Benchmark
+  public String encodeIntoNewBuffer() {
+    StringBuilder out = new StringBuilder();
+    encoder.encode(event, 1600000000000L, out);
+    return out.toString();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(LineProtocolEncoderBenchmark.class.getSimpleName())
+            .build())
+            .run();
+  }
+}
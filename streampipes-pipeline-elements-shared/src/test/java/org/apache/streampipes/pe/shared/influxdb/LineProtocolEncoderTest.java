@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.pe.shared.influxdb;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class LineProtocolEncoderTest {
+
+  @Test
+  public void encodesFieldTypes() {
+    LineProtocolEncoder encoder = new LineProtocolEncoder("sensor",
+            Arrays.asList("count", "total", "temperature", "active", "name"), String::toLowerCase, key -> false);
+
+    Map<String, Object> event = event("count", 3, "total", 4L, "temperature", 20.5, "active", true,
+            "name", "a \"b\" \\c");
+
+    assertEquals("sensor count=3i,total=4i,temperature=20.5,active=true,name=\"a \\\"b\\\" \\\\c\" 1000\n",
+            encode(encoder, event, 1000));
+  }
+
+  @Test
+  public void escapesMeasurementKeysAndTags() {
+    LineProtocolEncoder encoder = new LineProtocolEncoder("my sensor,1",
+            Arrays.asList("location", "the value"), key -> key, "location"::equals);
+
+    Map<String, Object> event = event("location", "hall 1,a=b", "the value", 1);
+
+    assertEquals("my\\ sensor\\,1,location=hall\\ 1\\,a\\=b the\\ value=1i 5\n", encode(encoder, event, 5));
+  }
+
+  @Test
+  public void sanitizesFieldKeysButNotTagKeys() {
+    LineProtocolEncoder encoder = new LineProtocolEncoder("m", Arrays.asList("Tag", "Field"),
+            String::toLowerCase, "Tag"::equals);
+
+    assertEquals("m,Tag=t field=1i 1\n", encode(encoder, event("Tag", "t", "Field", 1), 1));
+  }
+
+  @Test
+  public void skipsMissingEmptyAndNonFiniteValues() {
+    LineProtocolEncoder encoder = new LineProtocolEncoder("m", Arrays.asList("tag", "a", "b", "c"),
+            key -> key, "tag"::equals);
+
+    Map<String, Object> event = event("tag", "", "a", Double.NaN, "b", null, "c", 1.5);
+
+    assertEquals("m c=1.5 1\n", encode(encoder, event, 1));
+  }
+
+  @Test
+  public void appendsNothingWithoutFields() {
+    LineProtocolEncoder encoder = new LineProtocolEncoder("m", Arrays.asList("tag", "a"), key -> key,
+            "tag"::equals);
+    StringBuilder out = new StringBuilder("previous\n");
+
+    encoder.encode(event("tag", "t", "a", Double.POSITIVE_INFINITY), 1, out);
+
+    assertEquals("previous\n", out.toString());
+  }
+
+  @Test
+  public void encodesKeysWhichAreNotPartOfTheSchema() {
+    LineProtocolEncoder encoder = new LineProtocolEncoder("m", Collections.singletonList("a"),
+            String::toLowerCase, "Tag"::equals);
+
+    Map<String, Object> event = event("a", 1, "Extra", "x", "Tag", "t");
+
+    assertEquals("m,Tag=t a=1i,extra=\"x\" 1\n", encode(encoder, event, 1));
+    assertEquals("m,Tag=t a=1i,extra=\"x\" 2\n", encode(encoder, event, 2));
+  }
+
+  @Test
+  public void appendsToTheGivenBuffer() {
+    LineProtocolEncoder encoder = new LineProtocolEncoder("m", Collections.singletonList("a"), key -> key,
+            key -> false);
+    StringBuilder out = new StringBuilder();
+
+    encoder.encode(event("a", 1), 1, out);
+    encoder.encode(event("a", 2), 2, out);
+
+    assertEquals("m a=1i 1\nm a=2i 2\n", out.toString());
+  }
+
+  private String encode(LineProtocolEncoder encoder, Map<String, Object> event, long timestamp) {
+    StringBuilder out = new StringBuilder();
+    encoder.encode(event, timestamp, out);
+    return out.toString();
+  }
+
+  private Map<String, Object> event(Object... keysAndValues) {
+    Map<String, Object> event = new LinkedHashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      event.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return event;
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.streampipes.messaging.jms.SpJmsProtocolFactory;
 import org.apache.streampipes.messaging.kafka.SpKafkaProtocolFactory;
 import org.apache.streampipes.messaging.mqtt.SpMqttProtocolFactory;
 import org.apache.streampipes.processors.filters.jvm.config.FiltersJvmConfig;
+import org.apache.streampipes.processors.filters.jvm.processor.compiledfilter.CompiledFilterController;
 import org.apache.streampipes.processors.filters.jvm.processor.compose.ComposeController;
 import org.apache.streampipes.processors.filters.jvm.processor.enrich.MergeByEnrichController;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.RateLimitController;
@@ -50,7 +51,8 @@ public class FiltersJvmInit extends StandaloneModelSubmitter {
             .add(new MergeByTimeController())
             .add(new ComposeController())
             .add(new NumericalTextFilterController())
-            .add(new RateLimitController());
+            .add(new RateLimitController())
+            .add(new CompiledFilterController());
 
     DeclarersSingleton.getInstance().registerDataFormats(
             new JsonDataFormatFactory(),
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.common;
+
+import org.apache.streampipes.model.constants.PropertySelectorConstants;
+import org.apache.streampipes.model.runtime.Event;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the output event of two joined streams from the selected output fields. The selectors are arranged by
+ * stream and nesting level once, so merging only copies the selected fields into a new event. If only some fields
+ * of a nested property are selected, the output contains the nested property with exactly these fields.
+ */
+public class EventMerger {
+
+  private static final String SELECTOR_SEPARATOR = "::";
+
+  private final SelectedFields firstStreamFields = new SelectedFields(null);
+  private final SelectedFields secondStreamFields = new SelectedFields(null);
+
+  public EventMerger(List<String> outputKeySelectors) {
+    for (String selector : outputKeySelectors) {
+      String[] path = selector.split(SELECTOR_SEPARATOR);
+      SelectedFields fields = path[0].equals(PropertySelectorConstants.FIRST_STREAM_ID_PREFIX)
+              ? firstStreamFields
+              : secondStreamFields;
+      for (int i = 1; i < path.length; i++) {
+        fields = fields.child(path[i], selector, i == path.length - 1);
+      }
+    }
+  }
+
+  /**
+   * @param firstStreamEvent  event of the first input stream
+   * @param secondStreamEvent event of the second input stream
+   * @return a new event with the selected fields of both events
+   */
+  public Event merge(Event firstStreamEvent, Event secondStreamEvent) {
+    Event result = new Event();
+    addFields(result, firstStreamEvent, firstStreamFields);
+    addFields(result, secondStreamEvent, secondStreamFields);
+    return result;
+  }
+
+  private void addFields(Event result, Event event, SelectedFields topLevelFields) {
+    for (Map.Entry<String, SelectedFields> field : topLevelFields.children.entrySet()) {
+      SelectedFields selected = field.getValue();
+      if (selected.isComplete()) {
+        result.addField(event.getFieldBySelector(selected.selector));
+      } else {
+        result.addField(field.getKey(), selectedValues(event, selected));
+      }
+    }
+  }
+
+  private Map<String, Object> selectedValues(Event event, SelectedFields nestedFields) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (Map.Entry<String, SelectedFields> field : nestedFields.children.entrySet()) {
+      SelectedFields selected = field.getValue();
+      values.put(field.getKey(), selected.isComplete()
+              ? event.getFieldBySelector(selected.selector).getRawValue()
+              : selectedValues(event, selected));
+    }
+    return values;
+  }
+
+  /**
+   * A selected field: either selected as a whole (with its selector) or only with some of its nested fields.
+   */
+  private static class SelectedFields {
+    private String selector;
+    private final Map<String, SelectedFields> children = new LinkedHashMap<>();
+
+    SelectedFields(String selector) {
+      this.selector = selector;
+    }
+
+    SelectedFields child(String runtimeName, String selector, boolean complete) {
+      SelectedFields child = children.computeIfAbsent(runtimeName, name -> new SelectedFields(null));
+      if (complete) {
+        child.selector = selector;
+      }
+      return child;
+    }
+
+    boolean isComplete() {
+      return selector != null;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.common;
+
+import org.apache.streampipes.model.runtime.Event;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the latest event per join key. The number of keys is bounded, the key updated least recently is dropped
+ * first. Keys which have not been updated within the time to live are dropped as well.
+ */
+public class KeyedEventBuffer {
+
+  private final int maxKeys;
+  private final long ttlMillis;
+  private final LinkedHashMap<Object, BufferedEvent> events;
+
+  /**
+   * @param maxKeys   maximum number of keys
+   * @param ttlMillis time to live of an event in milliseconds, 0 to keep events until they are replaced
+   */
+  public KeyedEventBuffer(int maxKeys, long ttlMillis) {
+    this.maxKeys = maxKeys;
+    this.ttlMillis = ttlMillis;
+    this.events = new LinkedHashMap<Object, BufferedEvent>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, BufferedEvent> eldest) {
+        return size() > KeyedEventBuffer.this.maxKeys;
+      }
+    };
+  }
+
+  public void put(Object key, Event event) {
+    long now = System.currentTimeMillis();
+    // re-insert to keep the entries ordered by their last update
+    events.remove(key);
+    events.put(key, new BufferedEvent(event, now));
+    evictExpired(now);
+  }
+
+  /**
+   * @return the latest event of the key or null if there is none or it is expired
+   */
+  public Event get(Object key) {
+    BufferedEvent bufferedEvent = events.get(key);
+    if (bufferedEvent == null) {
+      return null;
+    }
+    if (isExpired(bufferedEvent, System.currentTimeMillis())) {
+      events.remove(key);
+      return null;
+    }
+    return bufferedEvent.event;
+  }
+
+  public int size() {
+    return events.size();
+  }
+
+  public void clear() {
+    events.clear();
+  }
+
+  private void evictExpired(long now) {
+    Iterator<BufferedEvent> iterator = events.values().iterator();
+    while (iterator.hasNext() && isExpired(iterator.next(), now)) {
+      iterator.remove();
+    }
+  }
+
+  private boolean isExpired(BufferedEvent bufferedEvent, long now) {
+    return ttlMillis > 0 && now - bufferedEvent.timestamp > ttlMillis;
+  }
+
+  private static class BufferedEvent {
+    private final Event event;
+    private final long timestamp;
+
+    BufferedEvent(Event event, long timestamp) {
+      this.event = event;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.processor.common;
+
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.model.staticproperty.StaticPropertyAlternative;
+import org.apache.streampipes.sdk.StaticProperties;
+import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
+import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
+import org.apache.streampipes.sdk.helpers.Alternatives;
+import org.apache.streampipes.sdk.helpers.CollectedStreamRequirements;
+import org.apache.streampipes.sdk.helpers.EpRequirements;
+import org.apache.streampipes.sdk.helpers.Labels;
+
+/**
+ * Declaration and extracted settings of the join mode shared by the processors which join two streams. Events are
+ * either joined with the latest event of the other stream or with the latest event of the other stream which has
+ * the same value in the mapped key field.
+ */
+public class KeyedJoinSettings {
+
+  public static final String JOIN_MODE = "join-mode";
+  public static final String KEY_FIELD_STREAM_1 = "key-field-stream-1";
+  public static final String KEY_FIELD_STREAM_2 = "key-field-stream-2";
+
+  private static final String LATEST_ALTERNATIVE = "latest-alternative";
+  private static final String KEYED_ALTERNATIVE = "keyed-alternative";
+  private static final String KEYED_GROUP = "keyed-group";
+  private static final String MAX_KEYS = "max-keys";
+  private static final String KEY_TTL = "key-ttl";
+
+  private final String keySelectorStream1;
+  private final String keySelectorStream2;
+  private final Integer maxKeys;
+  private final Long keyTtl;
+
+  private KeyedJoinSettings(String keySelectorStream1, String keySelectorStream2, Integer maxKeys, Long keyTtl) {
+    this.keySelectorStream1 = keySelectorStream1;
+    this.keySelectorStream2 = keySelectorStream2;
+    this.maxKeys = maxKeys;
+    this.keyTtl = keyTtl;
+  }
+
+  /**
+   * @param keyFieldId {@link #KEY_FIELD_STREAM_1} or {@link #KEY_FIELD_STREAM_2}
+   * @return the requirements of an input stream including the mapping of its key field
+   */
+  public static CollectedStreamRequirements getStreamWithKeyField(String keyFieldId) {
+    return StreamRequirementsBuilder
+            .create()
+            .requiredPropertyWithUnaryMapping(EpRequirements.anyProperty(),
+                    Labels.withId(keyFieldId),
+                    PropertyScope.NONE)
+            .build();
+  }
+
+  public static StaticPropertyAlternative getLatestAlternative() {
+    return Alternatives.from(Labels.withId(LATEST_ALTERNATIVE), true);
+  }
+
+  public static StaticPropertyAlternative getKeyedAlternative() {
+    return Alternatives.from(Labels.withId(KEYED_ALTERNATIVE),
+            StaticProperties.group(Labels.withId(KEYED_GROUP),
+                    StaticProperties.integerFreeTextProperty(Labels.withId(MAX_KEYS)),
+                    StaticProperties.integerFreeTextProperty(Labels.withId(KEY_TTL))));
+  }
+
+  public static KeyedJoinSettings from(ProcessingElementParameterExtractor extractor) {
+    if (!extractor.selectedAlternativeInternalId(JOIN_MODE).equals(KEYED_ALTERNATIVE)) {
+      return new KeyedJoinSettings(null, null, 1, 0L);
+    }
+    return new KeyedJoinSettings(
+            extractor.mappingPropertyValue(KEY_FIELD_STREAM_1),
+            extractor.mappingPropertyValue(KEY_FIELD_STREAM_2),
+            Math.max(1, extractor.singleValueParameter(MAX_KEYS, Integer.class)),
+            extractor.singleValueParameter(KEY_TTL, Integer.class).longValue());
+  }
+
+  /**
+   * @return true if events are joined by key fields instead of the latest event of the other stream
+   */
+  public boolean isKeyed() {
+    return keySelectorStream1 != null;
+  }
+
+  /**
+   * @return the selector of the key field of the first stream (including the stream prefix) or null
+   */
+  public String getKeySelectorStream1() {
+    return keySelectorStream1;
+  }
+
+  /**
+   * @return the selector of the key field of the second stream (including the stream prefix) or null
+   */
+  public String getKeySelectorStream2() {
+    return keySelectorStream2;
+  }
+
+  public Integer getMaxKeys() {
+    return maxKeys;
+  }
+
+  public Long getKeyTtl() {
+    return keyTtl;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.compiledfilter;
+
+import org.apache.streampipes.model.runtime.Event;
+
+/**
+ * Leaf of a compiled filter expression which compares one field with a constant. The field selector and the
+ * comparison are resolved when the expression is compiled, the field itself is looked up in every event through a
+ * {@link FieldValue} which is shared with all other comparisons on the same field. Each
+ * comparison counts its evaluations and matches, the evaluation time is measured for every
+ * {@value #TIMING_SAMPLE_INTERVAL}th evaluation only.
+ */
+public class Comparison implements FilterPredicate {
+
+  interface ValueTest {
+    boolean test(Object value);
+  }
+
+  static final int TIMING_SAMPLE_INTERVAL = 64;
+
+  private final String description;
+  private final FieldValue fieldValue;
+  private final ValueTest valueTest;
+
+  private long evaluations;
+  private long matches;
+  private long sampledEvaluations;
+  private long sampledEvaluationNanos;
+
+  Comparison(String description, FieldValue fieldValue, ValueTest valueTest) {
+    this.description = description;
+    this.fieldValue = fieldValue;
+    this.valueTest = valueTest;
+  }
+
+  @Override
+  public boolean test(Event event) {
+    boolean sampled = evaluations % TIMING_SAMPLE_INTERVAL == 0;
+    long start = sampled ? System.nanoTime() : 0;
+    boolean result = valueTest.test(fieldValue.get(event));
+    if (sampled) {
+      sampledEvaluationNanos += System.nanoTime() - start;
+      sampledEvaluations++;
+    }
+    evaluations++;
+    if (result) {
+      matches++;
+    }
+    return result;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public long getEvaluations() {
+    return evaluations;
+  }
+
+  public double getSelectivity() {
+    return evaluations == 0 ? 0 : (double) matches / evaluations;
+  }
+
+  /**
+   * @return the average evaluation time of the sampled evaluations
+   */
+  public double getAverageEvaluationNanos() {
+    return sampledEvaluations == 0 ? 0 : (double) sampledEvaluationNanos / sampledEvaluations;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.compiledfilter;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
+import org.apache.streampipes.wrapper.routing.SpOutputCollector;
+import org.apache.streampipes.wrapper.runtime.EventProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+public class CompiledFilter implements EventProcessor<CompiledFilterParameters> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CompiledFilter.class);
+  private static final long STATISTICS_INTERVAL_MS = 60000;
+
+  private FilterPredicate predicate;
+  private List<Comparison> comparisons;
+  private long lastStatisticsReport;
+
+  @Override
+  public void onInvocation(CompiledFilterParameters compiledFilterParameters, SpOutputCollector spOutputCollector,
+                           EventProcessorRuntimeContext runtimeContext) throws SpRuntimeException {
+    FilterExpressionCompiler compiler = new FilterExpressionCompiler(compiledFilterParameters.getFilterExpression());
+    this.predicate = compiler.compile();
+    this.comparisons = compiler.getComparisons();
+    this.lastStatisticsReport = System.currentTimeMillis();
+  }
+
+  @Override
+  public void onEvent(Event event, SpOutputCollector out) {
+    if (predicate.test(event)) {
+      out.collect(event);
+    }
+
+    long now = System.currentTimeMillis();
+    if (now - lastStatisticsReport >= STATISTICS_INTERVAL_MS) {
+      logStatistics();
+      lastStatisticsReport = now;
+    }
+  }
+
+  @Override
+  public void onDetach() {
+    logStatistics();
+  }
+
+  private void logStatistics() {
+    for (Comparison comparison : comparisons) {
+      LOG.info(String.format("%s: %d evaluations, selectivity %.3f, %.1f ns per evaluation",
+              comparison.getDescription(),
+              comparison.getEvaluations(),
+              comparison.getSelectivity(),
+              comparison.getAverageEvaluationNanos()));
+    }
+  }
+}
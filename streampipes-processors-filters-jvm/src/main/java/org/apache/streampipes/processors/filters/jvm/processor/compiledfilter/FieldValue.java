@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.compiledfilter;
+
+import org.apache.streampipes.model.runtime.Event;
+
+/**
+ * Value of one field of the current event. All comparisons on the same field share one field value, so the field is
+ * looked up at most once per event, and only if a comparison on it is evaluated.
+ */
+class FieldValue {
+
+  private final String selector;
+
+  private boolean resolved;
+  private Object value;
+
+  FieldValue(String selector) {
+    this.selector = selector;
+  }
+
+  Object get(Event event) {
+    if (!resolved) {
+      value = event.getFieldBySelector(selector).getRawValue();
+      resolved = true;
+    }
+    return value;
+  }
+
+  /**
+   * Forgets the value, must be called before the next event is evaluated.
+   */
+  void reset() {
+    resolved = false;
+    value = null;
+  }
+}
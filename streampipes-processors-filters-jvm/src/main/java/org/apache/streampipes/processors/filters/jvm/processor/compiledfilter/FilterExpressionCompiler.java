@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.compiledfilter;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a filter expression such as {@code temperature > 20 AND (status == "running" OR NOT pressure <= 3)} into a
+ * tree of {@link FilterPredicate}s. AND binds stronger than OR, both are evaluated from left to right and stop as
+ * soon as the result is known. Comparisons on the same field share
+ * the field's value, so each field is read at most once per event.
+ */
+public class FilterExpressionCompiler {
+
+  private static final String STREAM_PREFIX = "s0::";
+  private static final double EPSILON = 0.000001;
+
+  private final String expression;
+  private final List<Comparison> comparisons;
+  private final Map<String, FieldValue> fieldValues;
+  private List<String> tokens;
+  private int position;
+
+  public FilterExpressionCompiler(String expression) {
+    this.expression = expression;
+    this.comparisons = new ArrayList<>();
+    this.fieldValues = new HashMap<>();
+  }
+
+  public FilterPredicate compile() throws SpRuntimeException {
+    this.tokens = tokenize(expression);
+    this.position = 0;
+    if (tokens.isEmpty()) {
+      throw new SpRuntimeException("Filter expression is empty");
+    }
+    FilterPredicate predicate = parseOr();
+    if (position < tokens.size()) {
+      throw error("Unexpected '" + tokens.get(position) + "'");
+    }
+    FieldValue[] values = fieldValues.values().toArray(new FieldValue[0]);
+    return event -> {
+      for (FieldValue value : values) {
+        value.reset();
+      }
+      return predicate.test(event);
+    };
+  }
+
+  /**
+   * @return the comparisons of the compiled expression in the order they appear in the expression
+   */
+  public List<Comparison> getComparisons() {
+    return comparisons;
+  }
+
+  private FilterPredicate parseOr() throws SpRuntimeException {
+    FilterPredicate left = parseAnd();
+    while (acceptKeyword("OR", "||")) {
+      FilterPredicate first = left;
+      FilterPredicate second = parseAnd();
+      left = event -> first.test(event) || second.test(event);
+    }
+    return left;
+  }
+
+  private FilterPredicate parseAnd() throws SpRuntimeException {
+    FilterPredicate left = parseUnary();
+    while (acceptKeyword("AND", "&&")) {
+      FilterPredicate first = left;
+      FilterPredicate second = parseUnary();
+      left = event -> first.test(event) && second.test(event);
+    }
+    return left;
+  }
+
+  private FilterPredicate parseUnary() throws SpRuntimeException {
+    if (acceptKeyword("NOT", "!")) {
+      FilterPredicate negated = parseUnary();
+      return event -> !negated.test(event);
+    }
+    if (acceptKeyword("(", "(")) {
+      FilterPredicate inner = parseOr();
+      if (!acceptKeyword(")", ")")) {
+        throw error("Missing ')'");
+      }
+      return inner;
+    }
+    return parseComparison();
+  }
+
+  private FilterPredicate parseComparison() throws SpRuntimeException {
+    String field = next("field name");
+    String operator = next("operator");
+    String operand = next("value");
+    String description = field + " " + operator + " " + operand;
+
+    Comparison.ValueTest valueTest;
+    if (isQuoted(operand)) {
+      valueTest = textTest(operator, operand.substring(1, operand.length() - 1));
+    } else if (operand.equalsIgnoreCase("true") || operand.equalsIgnoreCase("false")) {
+      valueTest = booleanTest(operator, Boolean.parseBoolean(operand));
+    } else {
+      try {
+        valueTest = numericTest(operator, Double.parseDouble(operand));
+      } catch (NumberFormatException e) {
+        throw error("'" + operand + "' is neither a number, a boolean nor a quoted text");
+      }
+    }
+    if (valueTest == null) {
+      throw error("Operator '" + operator + "' is not supported for " + description);
+    }
+
+    FieldValue fieldValue = fieldValues.computeIfAbsent(STREAM_PREFIX + field, FieldValue::new);
+    Comparison comparison = new Comparison(description, fieldValue, valueTest);
+    comparisons.add(comparison);
+    return comparison;
+  }
+
+  private Comparison.ValueTest numericTest(String operator, double threshold) {
+    switch (operator) {
+      case "<":
+        return value -> toDouble(value) < threshold;
+      case "<=":
+        return value -> toDouble(value) <= threshold;
+      case ">":
+        return value -> toDouble(value) > threshold;
+      case ">=":
+        return value -> toDouble(value) >= threshold;
+      case "==":
+        return value -> Math.abs(toDouble(value) - threshold) < EPSILON;
+      case "!=":
+        return value -> Math.abs(toDouble(value) - threshold) > EPSILON;
+      default:
+        return null;
+    }
+  }
+
+  private Comparison.ValueTest textTest(String operator, String text) {
+    switch (operator.toLowerCase()) {
+      case "==":
+        return value -> value != null && text.equals(value.toString());
+      case "!=":
+        return value -> value == null || !text.equals(value.toString());
+      case "contains":
+        return value -> value != null && value.toString().contains(text);
+      default:
+        return null;
+    }
+  }
+
+  private Comparison.ValueTest booleanTest(String operator, boolean expected) {
+    switch (operator) {
+      case "==":
+        return value -> value != null && Boolean.parseBoolean(value.toString()) == expected;
+      case "!=":
+        return value -> value == null || Boolean.parseBoolean(value.toString()) != expected;
+      default:
+        return null;
+    }
+  }
+
+  private static double toDouble(Object value) {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    } else if (value instanceof String) {
+      try {
+        return Double.parseDouble((String) value);
+      } catch (NumberFormatException e) {
+        return Double.NaN;
+      }
+    }
+    return Double.NaN;
+  }
+
+  private boolean acceptKeyword(String keyword, String symbol) {
+    if (position < tokens.size()) {
+      String token = tokens.get(position);
+      if (token.equalsIgnoreCase(keyword) || token.equals(symbol)) {
+        position++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String next(String expected) throws SpRuntimeException {
+    if (position >= tokens.size()) {
+      throw error("Expected " + expected + " at the end of the expression");
+    }
+    return tokens.get(position++);
+  }
+
+  private boolean isQuoted(String token) {
+    return token.length() >= 2 && (token.charAt(0) == '"' || token.charAt(0) == '\'');
+  }
+
+  private SpRuntimeException error(String message) {
+    return new SpRuntimeException("Invalid filter expression '" + expression + "': " + message);
+  }
+
+  private List<String> tokenize(String expression) throws SpRuntimeException {
+    List<String> result = new ArrayList<>();
+    int i = 0;
+    while (i < expression.length()) {
+      char c = expression.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '(' || c == ')') {
+        result.add(String.valueOf(c));
+        i++;
+      } else if (c == '"' || c == '\'') {
+        int end = expression.indexOf(c, i + 1);
+        if (end < 0) {
+          throw error("Unterminated text starting at position " + i);
+        }
+        result.add(expression.substring(i, end + 1));
+        i = end + 1;
+      } else if ("<>=!&|".indexOf(c) >= 0) {
+        int end = i + 1;
+        if (end < expression.length() && "=&|".indexOf(expression.charAt(end)) >= 0) {
+          end++;
+        }
+        result.add(expression.substring(i, end));
+        i = end;
+      } else {
+        int end = i;
+        while (end < expression.length() && !Character.isWhitespace(expression.charAt(end))
+                && "()<>=!&|\"'".indexOf(expression.charAt(end)) < 0) {
+          end++;
+        }
+        result.add(expression.substring(i, end));
+        i = end;
+      }
+    }
+    return result;
+  }
+}
@@ -15,19 +15,16 @@
  * limitations under the License.
  *
  */
-package org.apache.streampipes.processors.filters.jvm.processor.limit.util;
 
-import org.apache.streampipes.processors.filters.jvm.processor.limit.window.Window;
-import org.quartz.Job;
-import org.quartz.JobDataMap;
-import org.quartz.JobExecutionContext;
+package org.apache.streampipes.processors.filters.jvm.processor.compiledfilter;
 
-public class ProcessJob implements Job {
+import org.apache.streampipes.model.runtime.Event;
 
-    public void execute(JobExecutionContext context) {
-        JobDataMap dataMap = context.getJobDetail().getJobDataMap();
-        Window window = (Window) dataMap.get(SchedulerUtil.WINDOW_KEY);
-        window.onTrigger();
-    }
+/**
+ * Node of a compiled filter expression.
+ */
+public interface FilterPredicate {
+
+  boolean test(Event event);
 
 }
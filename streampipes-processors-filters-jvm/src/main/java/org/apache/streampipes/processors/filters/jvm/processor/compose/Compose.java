@@ -19,52 +19,68 @@ package org.apache.streampipes.processors.filters.jvm.processor.compose;
 
 import org.apache.streampipes.model.constants.PropertySelectorConstants;
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.model.runtime.EventFactory;
-import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.processors.filters.jvm.processor.common.EventMerger;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedEventBuffer;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedJoinSettings;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 public class Compose implements EventProcessor<ComposeParameters> {
 
-  private Map<String, Event> lastEvents;
-  private EventSchema outputSchema;
-  private List<String> outputKeySelectors;
+  private static final String DEFAULT_KEY = "default";
+
+  private KeyedEventBuffer lastEventsStream1;
+  private KeyedEventBuffer lastEventsStream2;
+  private EventMerger eventMerger;
+  private String keySelectorStream1;
+  private String keySelectorStream2;
 
 
   @Override
   public void onInvocation(ComposeParameters composeParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) {
-    this.outputSchema = composeParameters.getGraph().getOutputStream().getEventSchema();
-    this.outputKeySelectors = composeParameters.getOutputKeySelectors();
-    this.lastEvents = new HashMap<>();
+    this.eventMerger = new EventMerger(composeParameters.getOutputKeySelectors());
+    KeyedJoinSettings joinSettings = composeParameters.getJoinSettings();
+    this.keySelectorStream1 = joinSettings.getKeySelectorStream1();
+    this.keySelectorStream2 = joinSettings.getKeySelectorStream2();
+    this.lastEventsStream1 = new KeyedEventBuffer(joinSettings.getMaxKeys(), joinSettings.getKeyTtl());
+    this.lastEventsStream2 = new KeyedEventBuffer(joinSettings.getMaxKeys(), joinSettings.getKeyTtl());
   }
 
   @Override
   public void onDetach() {
-    this.lastEvents.clear();
+    this.lastEventsStream1.clear();
+    this.lastEventsStream2.clear();
   }
 
   @Override
   public void onEvent(Event event, SpOutputCollector spOutputCollector) {
-    this.lastEvents.put(event.getSourceInfo().getSelectorPrefix(), event);
-    if (lastEvents.size() == 2) {
-      spOutputCollector.collect(buildOutEvent(event.getSourceInfo().getSelectorPrefix()));
-    }
-  }
+    boolean firstStream = event.getSourceInfo().getSelectorPrefix()
+            .equals(PropertySelectorConstants.FIRST_STREAM_ID_PREFIX);
+    Object key = getKey(event, firstStream);
 
-  private Event buildOutEvent(String currentSelectorPrefix) {
-    return EventFactory.fromEvents(lastEvents.get(currentSelectorPrefix), lastEvents.get
-            (getOtherSelectorPrefix(currentSelectorPrefix)), outputSchema).getSubset(outputKeySelectors);
+    if (firstStream) {
+      lastEventsStream1.put(key, event);
+      Event other = lastEventsStream2.get(key);
+      if (other != null) {
+        spOutputCollector.collect(eventMerger.merge(event, other));
+      }
+    } else {
+      lastEventsStream2.put(key, event);
+      Event other = lastEventsStream1.get(key);
+      if (other != null) {
+        spOutputCollector.collect(eventMerger.merge(other, event));
+      }
+    }
   }
 
-  private String getOtherSelectorPrefix(String currentSelectorPrefix) {
-    return currentSelectorPrefix.equals(PropertySelectorConstants.FIRST_STREAM_ID_PREFIX) ?
-            PropertySelectorConstants.SECOND_STREAM_ID_PREFIX : PropertySelectorConstants
-            .FIRST_STREAM_ID_PREFIX;
+  private Object getKey(Event event, boolean firstStream) {
+    if (keySelectorStream1 == null) {
+      return DEFAULT_KEY;
+    }
+    String keySelector = firstStream ? keySelectorStream1 : keySelectorStream2;
+    // compare keys by their string representation, so that e.g. integer and long ids match
+    return String.valueOf(event.getFieldBySelector(keySelector).getRawValue());
   }
 
 }
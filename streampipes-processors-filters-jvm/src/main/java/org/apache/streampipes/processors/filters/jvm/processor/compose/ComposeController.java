@@ -21,10 +21,10 @@ import org.apache.streampipes.model.DataProcessorType;
 import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
 import org.apache.streampipes.processors.filters.jvm.config.FiltersJvmConfig;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedJoinSettings;
 import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
-import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
-import org.apache.streampipes.sdk.helpers.EpRequirements;
+import org.apache.streampipes.sdk.helpers.Labels;
 import org.apache.streampipes.sdk.helpers.Locales;
 import org.apache.streampipes.sdk.helpers.OutputStrategies;
 import org.apache.streampipes.sdk.utils.Assets;
@@ -41,14 +41,11 @@ public class ComposeController extends StandaloneEventProcessingDeclarer<Compose
             .category(DataProcessorType.TRANSFORM)
             .withAssets(Assets.DOCUMENTATION, Assets.ICON)
             .withLocales(Locales.EN)
-            .requiredStream(StreamRequirementsBuilder
-                    .create()
-                    .requiredProperty(EpRequirements.anyProperty())
-                    .build())
-            .requiredStream(StreamRequirementsBuilder
-                    .create()
-                    .requiredProperty(EpRequirements.anyProperty())
-                    .build())
+            .requiredStream(KeyedJoinSettings.getStreamWithKeyField(KeyedJoinSettings.KEY_FIELD_STREAM_1))
+            .requiredStream(KeyedJoinSettings.getStreamWithKeyField(KeyedJoinSettings.KEY_FIELD_STREAM_2))
+            .requiredAlternatives(Labels.withId(KeyedJoinSettings.JOIN_MODE),
+                    KeyedJoinSettings.getLatestAlternative(),
+                    KeyedJoinSettings.getKeyedAlternative())
             .outputStrategy(OutputStrategies.custom(true))
             .build();
   }
@@ -60,7 +57,7 @@ public class ComposeController extends StandaloneEventProcessingDeclarer<Compose
     List<String> outputKeySelectors = extractor.outputKeySelectors();
 
     ComposeParameters staticParam = new ComposeParameters(
-            graph, outputKeySelectors);
+            graph, outputKeySelectors, KeyedJoinSettings.from(extractor));
 
     return new ConfiguredEventProcessor<>(staticParam, Compose::new);
   }
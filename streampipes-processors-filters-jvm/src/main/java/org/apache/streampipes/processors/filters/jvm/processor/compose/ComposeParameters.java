@@ -18,6 +18,7 @@
 package org.apache.streampipes.processors.filters.jvm.processor.compose;
 
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedJoinSettings;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
 import java.util.List;
@@ -25,13 +26,20 @@ import java.util.List;
 public class ComposeParameters extends EventProcessorBindingParams {
 
   private List<String> outputKeySelectors;
+  private KeyedJoinSettings joinSettings;
 
-  public ComposeParameters(DataProcessorInvocation graph, List<String> outputKeySelectors) {
+  public ComposeParameters(DataProcessorInvocation graph, List<String> outputKeySelectors,
+                           KeyedJoinSettings joinSettings) {
     super(graph);
     this.outputKeySelectors = outputKeySelectors;
+    this.joinSettings = joinSettings;
   }
 
   public List<String> getOutputKeySelectors() {
     return outputKeySelectors;
   }
+
+  public KeyedJoinSettings getJoinSettings() {
+    return joinSettings;
+  }
 }
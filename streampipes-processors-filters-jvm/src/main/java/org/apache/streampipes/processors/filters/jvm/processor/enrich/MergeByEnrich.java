@@ -18,26 +18,27 @@
 package org.apache.streampipes.processors.filters.jvm.processor.enrich;
 
 import org.apache.streampipes.model.runtime.Event;
-import org.apache.streampipes.model.runtime.EventFactory;
-import org.apache.streampipes.model.schema.EventSchema;
+import org.apache.streampipes.processors.filters.jvm.processor.common.EventMerger;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedEventBuffer;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedJoinSettings;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import org.apache.streampipes.wrapper.runtime.EventProcessor;
 
-import java.util.List;
-
 public class MergeByEnrich implements EventProcessor<MergeByEnrichParameters> {
 
-  private EventSchema outputSchema;
-  private List<String> outputKeySelectors;
+  private static final String DEFAULT_KEY = "default";
+
+  private EventMerger eventMerger;
   private String selectedStream;
+  private String keySelectorStream1;
+  private String keySelectorStream2;
 
-  private Event eventBuffer;
+  private KeyedEventBuffer eventBuffer;
 
   @Override
   public void onInvocation(MergeByEnrichParameters composeParameters, SpOutputCollector spOutputCollector, EventProcessorRuntimeContext runtimeContext) {
-    this.outputSchema = composeParameters.getGraph().getOutputStream().getEventSchema();
-    this.outputKeySelectors = composeParameters.getOutputKeySelectors();
+    this.eventMerger = new EventMerger(composeParameters.getOutputKeySelectors());
 
     if (composeParameters.getSelectedStream().equals("Stream 1")) {
       this.selectedStream = "s0";
@@ -45,33 +46,45 @@ public class MergeByEnrich implements EventProcessor<MergeByEnrichParameters> {
       this.selectedStream = "s1";
     }
 
-    this.eventBuffer = null;
+    KeyedJoinSettings joinSettings = composeParameters.getJoinSettings();
+    this.keySelectorStream1 = joinSettings.getKeySelectorStream1();
+    this.keySelectorStream2 = joinSettings.getKeySelectorStream2();
+    this.eventBuffer = new KeyedEventBuffer(joinSettings.getMaxKeys(), joinSettings.getKeyTtl());
   }
 
 
   @Override
   public void onEvent(Event event, SpOutputCollector spOutputCollector) {
     String streamId = event.getSourceInfo().getSelectorPrefix();
+    Object key = getKey(event, streamId);
 
-    // Enrich the selected stream and store last event of other stream
+    // Enrich the selected stream and store last event of other stream per key
     if (this.selectedStream.equals(streamId)) {
-      if (this.eventBuffer != null) {
-        Event result = mergeEvents(event, this.eventBuffer);
+      Event enrichment = this.eventBuffer.get(key);
+      if (enrichment != null) {
+        Event result = "s0".equals(streamId)
+                ? eventMerger.merge(event, enrichment)
+                : eventMerger.merge(enrichment, event);
         spOutputCollector.collect(result);
       }
     } else {
-      this.eventBuffer = event;
+      this.eventBuffer.put(key, event);
     }
 
   }
 
   @Override
   public void onDetach() {
-    this.eventBuffer = null;
+    this.eventBuffer.clear();
   }
 
-  private Event mergeEvents(Event e1, Event e2) {
-    return EventFactory.fromEvents(e1, e2, outputSchema).getSubset(outputKeySelectors);
+  private Object getKey(Event event, String streamId) {
+    if (keySelectorStream1 == null) {
+      return DEFAULT_KEY;
+    }
+    String keySelector = "s0".equals(streamId) ? keySelectorStream1 : keySelectorStream2;
+    // compare keys by their string representation, so that e.g. integer and long ids match
+    return String.valueOf(event.getFieldBySelector(keySelector).getRawValue());
   }
 
 }
@@ -21,8 +21,8 @@ import org.apache.streampipes.model.DataProcessorType;
 import org.apache.streampipes.model.graph.DataProcessorDescription;
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
 import org.apache.streampipes.processors.filters.jvm.config.FiltersJvmConfig;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedJoinSettings;
 import org.apache.streampipes.sdk.builder.ProcessingElementBuilder;
-import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.ProcessingElementParameterExtractor;
 import org.apache.streampipes.sdk.helpers.*;
 import org.apache.streampipes.sdk.utils.Assets;
@@ -41,16 +41,13 @@ public class MergeByEnrichController extends StandaloneEventProcessingDeclarer<M
             .category(DataProcessorType.TRANSFORM)
             .withAssets(Assets.DOCUMENTATION, Assets.ICON)
             .withLocales(Locales.EN)
-            .requiredStream(StreamRequirementsBuilder
-                    .create()
-                    .requiredProperty(EpRequirements.anyProperty())
-                    .build())
-            .requiredStream(StreamRequirementsBuilder
-                    .create()
-                    .requiredProperty(EpRequirements.anyProperty())
-                    .build())
+            .requiredStream(KeyedJoinSettings.getStreamWithKeyField(KeyedJoinSettings.KEY_FIELD_STREAM_1))
+            .requiredStream(KeyedJoinSettings.getStreamWithKeyField(KeyedJoinSettings.KEY_FIELD_STREAM_2))
             .requiredSingleValueSelection(Labels.withId(SELECT_STREAM),
                     Options.from("Stream 1", "Stream 2"))
+            .requiredAlternatives(Labels.withId(KeyedJoinSettings.JOIN_MODE),
+                    KeyedJoinSettings.getLatestAlternative(),
+                    KeyedJoinSettings.getKeyedAlternative())
             .outputStrategy(OutputStrategies.custom(true))
             .build();
   }
@@ -64,7 +61,7 @@ public class MergeByEnrichController extends StandaloneEventProcessingDeclarer<M
     String selectedStream = extractor.selectedSingleValue(SELECT_STREAM, String.class);
 
     MergeByEnrichParameters staticParam = new MergeByEnrichParameters(
-            graph, outputKeySelectors, selectedStream);
+            graph, outputKeySelectors, selectedStream, KeyedJoinSettings.from(extractor));
 
     return new ConfiguredEventProcessor<>(staticParam, MergeByEnrich::new);
   }
@@ -18,6 +18,7 @@
 package org.apache.streampipes.processors.filters.jvm.processor.enrich;
 
 import org.apache.streampipes.model.graph.DataProcessorInvocation;
+import org.apache.streampipes.processors.filters.jvm.processor.common.KeyedJoinSettings;
 import org.apache.streampipes.wrapper.params.binding.EventProcessorBindingParams;
 
 import java.util.List;
@@ -26,11 +27,14 @@ public class MergeByEnrichParameters extends EventProcessorBindingParams {
 
   private List<String> outputKeySelectors;
   private String selectedStream;
+  private KeyedJoinSettings joinSettings;
 
-  public MergeByEnrichParameters(DataProcessorInvocation graph, List<String> outputKeySelectors, String selectedStream) {
+  public MergeByEnrichParameters(DataProcessorInvocation graph, List<String> outputKeySelectors, String selectedStream,
+                                 KeyedJoinSettings joinSettings) {
     super(graph);
     this.outputKeySelectors = outputKeySelectors;
     this.selectedStream = selectedStream;
+    this.joinSettings = joinSettings;
   }
 
   public List<String> getOutputKeySelectors() {
@@ -40,4 +44,8 @@ public class MergeByEnrichParameters extends EventProcessorBindingParams {
   public String getSelectedStream() {
     return selectedStream;
   }
+
+  public KeyedJoinSettings getJoinSettings() {
+    return joinSettings;
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.streampipes.processors.filters.jvm.processor.limit;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowFactory;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowScheduler;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.window.Window;
 import org.apache.streampipes.wrapper.context.EventProcessorRuntimeContext;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
@@ -30,10 +31,12 @@ import java.util.concurrent.ConcurrentMap;
 
 public class RateLimit implements EventProcessor<RateLimitParameters> {
     private final static String DEFAULT_GROUP = "default";
+    private final static long IDLE_GROUP_TIMEOUT_MS = 10 * 60 * 1000;
     private Boolean groupingEnabled;
     private String groupingField;
     private ConcurrentMap<Object, Window> windows;
     private WindowFactory factory;
+    private WindowScheduler scheduler;
 
     @Override
     public void onInvocation(RateLimitParameters parameters,
@@ -42,23 +45,30 @@ public class RateLimit implements EventProcessor<RateLimitParameters> {
         this.groupingEnabled = parameters.getGroupingEnabled();
         this.groupingField = parameters.getGroupingField();
         this.windows = new ConcurrentHashMap<>();
+        this.scheduler = new WindowScheduler();
         this.factory = new WindowFactory(
                 parameters.getWindowType(),
                 parameters.getWindowExpression(),
                 parameters.getEventSelection(),
-                outputCollector);
+                outputCollector,
+                scheduler);
+        if (groupingEnabled) {
+            scheduler.scheduleAtFixedRate(this::evictIdleGroups, IDLE_GROUP_TIMEOUT_MS);
+        }
     }
 
     @Override
     public void onEvent(Event event, SpOutputCollector spOutputCollector) throws SpRuntimeException {
         Object group = groupingEnabled ? getGroupKey(event) : DEFAULT_GROUP;
-        Window window = windows.get(group);
-        if (window == null) {
-            window = factory.create();
-            window.init();
-            windows.put(group, window);
-        }
-        window.onEvent(event);
+        // the event is added while holding the map entry, so that the window cannot be evicted in between
+        windows.compute(group, (key, window) -> {
+            if (window == null) {
+                window = factory.create();
+                window.init();
+            }
+            window.onEvent(event);
+            return window;
+        });
     }
 
     @Override
@@ -66,6 +76,24 @@ public class RateLimit implements EventProcessor<RateLimitParameters> {
         for (Window window : this.windows.values()) {
             window.destroy();
         }
+        scheduler.shutdown();
+    }
+
+    /**
+     * Removes the windows of groups which did not receive an event within the idle timeout and have nothing left
+     * to emit. A window is created again with the next event of its group.
+     */
+    private void evictIdleGroups() {
+        long idleSince = System.currentTimeMillis() - IDLE_GROUP_TIMEOUT_MS;
+        for (Object group : windows.keySet()) {
+            windows.computeIfPresent(group, (key, window) -> {
+                if (window.isIdleSince(idleSince)) {
+                    window.destroy();
+                    return null;
+                }
+                return window;
+            });
+        }
     }
 
     private Object getGroupKey(Event event) {
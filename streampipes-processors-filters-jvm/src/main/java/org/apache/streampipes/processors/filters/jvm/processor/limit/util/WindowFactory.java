@@ -28,24 +28,27 @@ public class WindowFactory {
     private final Object windowExpression;
     private final EventSelection eventSelection;
     private final SpOutputCollector outputCollector;
+    private final WindowScheduler scheduler;
 
     public WindowFactory(WindowType windowType,
                          Object windowExpression,
                          EventSelection eventSelection,
-                         SpOutputCollector outputCollector) {
+                         SpOutputCollector outputCollector,
+                         WindowScheduler scheduler) {
         this.windowType = windowType;
         this.windowExpression = windowExpression;
         this.eventSelection = eventSelection;
         this.outputCollector = outputCollector;
+        this.scheduler = scheduler;
     }
 
     public Window create() {
         if (WindowType.TIME == windowType) {
-            return new TimeWindow((Integer) windowExpression, eventSelection, outputCollector);
+            return new TimeWindow((Integer) windowExpression, eventSelection, outputCollector, scheduler);
         } else if (WindowType.LENGTH == windowType) {
             return new LengthWindow((Integer) windowExpression, eventSelection, outputCollector);
         } else if (WindowType.CRON == windowType) {
-            return new CronWindow((String) windowExpression, eventSelection, outputCollector);
+            return new CronWindow((String) windowExpression, eventSelection, outputCollector, scheduler);
         } else {
             return null;
         }
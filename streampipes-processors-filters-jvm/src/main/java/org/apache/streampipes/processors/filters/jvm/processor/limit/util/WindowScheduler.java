@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.streampipes.processors.filters.jvm.processor.limit.util;
+
+import org.quartz.CronExpression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the triggers of all windows of a processor instance on one shared executor, which is created when the
+ * first task is scheduled. Cron expressions are evaluated with Quartz, but each firing is a one-shot task on the
+ * shared executor instead of a job in a separate Quartz scheduler.
+ */
+public class WindowScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WindowScheduler.class);
+
+    private static final int THREAD_COUNT = 2;
+
+    private ScheduledThreadPoolExecutor executor;
+    private boolean stopped;
+
+    public interface Cancellable {
+        void cancel();
+    }
+
+    public Cancellable scheduleAtFixedRate(Runnable task, long periodInMilliseconds) {
+        ScheduledFuture<?> future = getExecutor().scheduleAtFixedRate(() -> runSafely(task),
+                periodInMilliseconds, periodInMilliseconds, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    public Cancellable scheduleCron(Runnable task, CronExpression cronExpression) {
+        CronTask cronTask = new CronTask(task, cronExpression);
+        cronTask.scheduleNext();
+        return cronTask;
+    }
+
+    public synchronized void shutdown() {
+        stopped = true;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private synchronized ScheduledThreadPoolExecutor getExecutor() {
+        if (stopped) {
+            throw new RejectedExecutionException("Window scheduler has been shut down");
+        }
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(THREAD_COUNT);
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        return executor;
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOG.error("Window trigger failed", e);
+        }
+    }
+
+    private class CronTask implements Runnable, Cancellable {
+        private final Runnable task;
+        private final CronExpression cronExpression;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> next;
+
+        CronTask(Runnable task, CronExpression cronExpression) {
+            this.task = task;
+            this.cronExpression = cronExpression;
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled) {
+                runSafely(task);
+                scheduleNext();
+            }
+        }
+
+        void scheduleNext() {
+            Date nextFireTime = cronExpression.getNextValidTimeAfter(new Date());
+            if (nextFireTime != null && !cancelled) {
+                long delay = Math.max(nextFireTime.getTime() - System.currentTimeMillis(), 0);
+                try {
+                    next = getExecutor().schedule(this, delay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // the processor is being detached
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+    }
+}
@@ -17,30 +17,32 @@
  */
 package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
 
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
-import org.apache.streampipes.processors.filters.jvm.processor.limit.util.SchedulerUtil;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowScheduler;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
-import org.quartz.JobDetail;
-import org.quartz.Trigger;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
 
 public class CronWindow extends ScheduleWindow {
     private String cronExpression;
 
     public CronWindow(String cronExpression,
                       EventSelection eventSelection,
-                      SpOutputCollector outputCollector) {
-        super(eventSelection, outputCollector);
+                      SpOutputCollector outputCollector,
+                      WindowScheduler scheduler) {
+        super(eventSelection, outputCollector, scheduler);
         this.cronExpression = cronExpression;
     }
 
     @Override
-    JobDetail getJob() {
-        return SchedulerUtil.createJob(this);
-    }
-
-    @Override
-    Trigger getTrigger() {
-        return SchedulerUtil.getCronTrigger(cronExpression);
+    WindowScheduler.Cancellable schedule(WindowScheduler scheduler) throws SpRuntimeException {
+        try {
+            return scheduler.scheduleCron(this::onTrigger, new CronExpression(cronExpression));
+        } catch (ParseException e) {
+            throw new SpRuntimeException("Invalid cron expression: " + cronExpression, e);
+        }
     }
 
 }
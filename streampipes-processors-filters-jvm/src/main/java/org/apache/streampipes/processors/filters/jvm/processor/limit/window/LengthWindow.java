@@ -24,11 +24,18 @@ import org.apache.streampipes.wrapper.routing.SpOutputCollector;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Window which is emitted after a fixed number of events. It is triggered by the event thread only, so FIRST and
+ * LAST just count the events and keep at most one of them; only ALL needs to buffer the whole window.
+ */
 public class LengthWindow implements Window {
     private Integer windowSize;
     private EventSelection eventSelection;
     private SpOutputCollector outputCollector;
     private List<Event> events;
+    private Event lastEvent;
+    private int eventCount;
+    private long lastEventTimestamp;
 
     public LengthWindow(Integer windowSize,
                         EventSelection eventSelection,
@@ -36,7 +43,7 @@ public class LengthWindow implements Window {
         this.windowSize = windowSize;
         this.eventSelection = eventSelection;
         this.outputCollector = outputCollector;
-        this.events = new ArrayList<>();
+        this.events = eventSelection == EventSelection.ALL ? new ArrayList<>(windowSize) : null;
     }
 
     @Override
@@ -46,27 +53,44 @@ public class LengthWindow implements Window {
 
     @Override
     public void onEvent(Event event) {
-        events.add(event);
+        lastEventTimestamp = System.currentTimeMillis();
+        eventCount++;
+        if (eventSelection == EventSelection.ALL) {
+            events.add(event);
+        } else if (eventSelection == EventSelection.LAST) {
+            lastEvent = event;
+        } else if (eventCount == 1) {
+            emit(event);
+        }
         onTrigger();
     }
 
     @Override
     public void destroy() {
-        events.clear();
+        reset();
     }
 
     @Override
     public void onTrigger() {
-        if (events.size() == 1) {
-            if (eventSelection == EventSelection.FIRST) {
-                emit(events.get(0));
-            }
-        } else if (events.size() == windowSize) {
+        if (eventCount >= windowSize) {
             if (eventSelection == EventSelection.LAST) {
-                emit(events.get(windowSize - 1));
+                emit(lastEvent);
             } else if (eventSelection == EventSelection.ALL) {
                 events.forEach(this::emit);
             }
+            reset();
+        }
+    }
+
+    @Override
+    public boolean isIdleSince(long timestamp) {
+        return eventCount == 0 && lastEventTimestamp < timestamp;
+    }
+
+    private void reset() {
+        eventCount = 0;
+        lastEvent = null;
+        if (events != null) {
             events.clear();
         }
     }
@@ -20,80 +20,105 @@ package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowScheduler;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
-import org.quartz.JobDetail;
-import org.quartz.Scheduler;
-import org.quartz.SchedulerException;
-import org.quartz.Trigger;
-import org.quartz.impl.StdSchedulerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Base class for windows which are emitted by a scheduled trigger. Events arrive on the event thread while the
+ * trigger runs on a scheduler thread, so the window state is handed over without locks: FIRST and LAST keep a
+ * single event in an atomic slot, ALL collects the events in a linked chain which the trigger takes over as a whole.
+ */
 public abstract class ScheduleWindow implements Window {
     private EventSelection eventSelection;
     private SpOutputCollector outputCollector;
-    private List<Event> events;
-    private Scheduler scheduler;
-    private static int schedulerCount = 0;
+    private WindowScheduler scheduler;
+    private WindowScheduler.Cancellable trigger;
+    private volatile long lastEventTimestamp;
+
+    // FIRST / LAST
+    private final AtomicReference<Event> slot = new AtomicReference<>();
+    // ALL, most recent event first
+    private final AtomicReference<EventNode> chain = new AtomicReference<>();
 
     ScheduleWindow(EventSelection eventSelection,
-                   SpOutputCollector outputCollector) {
+                   SpOutputCollector outputCollector,
+                   WindowScheduler scheduler) {
         this.eventSelection = eventSelection;
         this.outputCollector = outputCollector;
-        this.events = new ArrayList<>();
+        this.scheduler = scheduler;
     }
 
-    abstract JobDetail getJob();
-
-    abstract Trigger getTrigger();
+    abstract WindowScheduler.Cancellable schedule(WindowScheduler scheduler) throws SpRuntimeException;
 
     @Override
     public void init() throws SpRuntimeException {
-        try {
-            scheduler = new StdSchedulerFactory(getSchedulerProps()).getScheduler();
-            scheduler.start();
-            scheduler.scheduleJob(getJob(), getTrigger());
-        } catch (SchedulerException e) {
-            throw new SpRuntimeException("Unable to initialize time window scheduler.", e);
-        }
+        trigger = schedule(scheduler);
     }
 
     @Override
     public void onEvent(Event event) {
-        events.add(event);
+        lastEventTimestamp = System.currentTimeMillis();
+        switch (eventSelection) {
+            case FIRST:
+                slot.compareAndSet(null, event);
+                break;
+            case LAST:
+                slot.set(event);
+                break;
+            case ALL:
+                EventNode head;
+                EventNode node = new EventNode(event);
+                do {
+                    head = chain.get();
+                    node.next = head;
+                } while (!chain.compareAndSet(head, node));
+                break;
+        }
     }
 
     @Override
     public void onTrigger() {
-        if (!events.isEmpty()) {
-            switch (eventSelection) {
-                case FIRST:
-                    emit(events.get(0));
-                    break;
-                case LAST:
-                    emit(events.get(events.size() - 1));
-                    break;
-                case ALL:
-                    events.forEach(this::emit);
-                    break;
+        if (eventSelection == EventSelection.ALL) {
+            EventNode head = chain.getAndSet(null);
+            if (head != null) {
+                emitInArrivalOrder(head);
+            }
+        } else {
+            Event event = slot.getAndSet(null);
+            if (event != null) {
+                emit(event);
             }
-            events.clear();
         }
     }
 
     @Override
     public void destroy() throws SpRuntimeException {
-        events.clear();
-        if (scheduler != null) {
-            try {
-                scheduler.clear();
-                scheduler.shutdown();
-                scheduler = null;
-            } catch (SchedulerException e) {
-                throw new SpRuntimeException("Unable to shutdown time window scheduler.", e);
-            }
+        if (trigger != null) {
+            trigger.cancel();
+            trigger = null;
+        }
+        slot.set(null);
+        chain.set(null);
+    }
+
+    @Override
+    public boolean isIdleSince(long timestamp) {
+        return slot.get() == null && chain.get() == null && lastEventTimestamp < timestamp;
+    }
+
+    private void emitInArrivalOrder(EventNode head) {
+        EventNode previous = null;
+        EventNode current = head;
+        while (current != null) {
+            EventNode next = current.next;
+            current.next = previous;
+            previous = current;
+            current = next;
+        }
+        for (EventNode node = previous; node != null; node = node.next) {
+            emit(node.event);
         }
     }
 
@@ -101,14 +126,13 @@ public abstract class ScheduleWindow implements Window {
         outputCollector.collect(e);
     }
 
-    private Properties getSchedulerProps() {
-        Properties properties = new Properties();
-        properties.setProperty("org.quartz.scheduler.instanceName", "WindowSchedulerName:" + (++schedulerCount));
-        properties.setProperty("org.quartz.scheduler.instanceId", "WindowSchedulerID:" + schedulerCount);
-        properties.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
-        properties.setProperty("org.quartz.threadPool.threadCount", "3");
-        properties.setProperty("org.quartz.threadPool.threadPriority", "5");
-        return properties;
+    private static class EventNode {
+        private final Event event;
+        private EventNode next;
+
+        EventNode(Event event) {
+            this.event = event;
+        }
     }
 
 }
@@ -17,30 +17,25 @@
  */
 package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
 
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
-import org.apache.streampipes.processors.filters.jvm.processor.limit.util.SchedulerUtil;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowScheduler;
 import org.apache.streampipes.wrapper.routing.SpOutputCollector;
-import org.quartz.JobDetail;
-import org.quartz.Trigger;
 
 public class TimeWindow extends ScheduleWindow {
     private Integer windowSize;
 
     public TimeWindow(Integer windowSize,
                       EventSelection eventSelection,
-                      SpOutputCollector outputCollector) {
-        super(eventSelection, outputCollector);
+                      SpOutputCollector outputCollector,
+                      WindowScheduler scheduler) {
+        super(eventSelection, outputCollector, scheduler);
         this.windowSize = windowSize;
     }
 
     @Override
-    JobDetail getJob() {
-        return SchedulerUtil.createJob(this);
-    }
-
-    @Override
-    Trigger getTrigger() {
-        return SchedulerUtil.getFixedRateTrigger(windowSize);
+    WindowScheduler.Cancellable schedule(WindowScheduler scheduler) throws SpRuntimeException {
+        return scheduler.scheduleAtFixedRate(this::onTrigger, windowSize);
     }
 
 }
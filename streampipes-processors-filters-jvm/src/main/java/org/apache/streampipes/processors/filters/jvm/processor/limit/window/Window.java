@@ -30,4 +30,9 @@ public interface Window {
 
     void destroy() throws SpRuntimeException;
 
+    /**
+     * @return true if the window holds no events and has not received an event since the given timestamp
+     */
+    boolean isIdleSince(long timestamp);
+
 }
@@ -46,54 +46,28 @@ public class MergeByTime implements EventProcessor<MergeByTimeParameters> {
     this.timestampFieldStream1 = composeParameters.getTimestampFieldStream2();
     this.timeInterval = composeParameters.getTimeInterval();
 
-    this.streamBufferS0 = new StreamBuffer(this.timestampFieldStream0);
-    this.streamBufferS1 = new StreamBuffer(this.timestampFieldStream1);
+    this.streamBufferS0 = new StreamBuffer(composeParameters.getMaxBufferSize());
+    this.streamBufferS1 = new StreamBuffer(composeParameters.getMaxBufferSize());
   }
 
 
   @Override
   public void onEvent(Event event, SpOutputCollector spOutputCollector) {
-    String streamId = event.getSourceInfo().getSelectorPrefix();
-
-    // Decide to which buffer the event should be added
-    if ("s0".equals(streamId)) {
-      this.streamBufferS0.add(event);
-    } else {
-      this.streamBufferS1.add(event);
-    }
-
-    // Calculate matching events between data streams
-    for (Event e0 : this.streamBufferS0.getList()) {
-      long time0 = e0.getFieldBySelector(timestampFieldStream0).getAsPrimitive().getAsLong();
-      for (Event e1 : this.streamBufferS1.getList()) {
-        long time1 = e1.getFieldBySelector(timestampFieldStream1).getAsPrimitive().getAsLong();
-
-        if (time0 + timeInterval > time1 && time1 > time0 - timeInterval) {
-          Event resultingEvent = mergeEvents(e0, e1);
-          spOutputCollector.collect(resultingEvent);
-          this.streamBufferS0.removeOldEvents(time0);
-          this.streamBufferS1.removeOldEvents(time1);
-        }
-      }
-    }
-
-    // Clean up buffer if events do not match to avoid buffer overflow
-    if (this.streamBufferS0.getLength() > 0 && this.streamBufferS1.getLength() > 0) {
-      Event e0 = this.streamBufferS0.get(0);
-      Event e1 = this.streamBufferS1.get(0);
-
-      long time0 = e0.getFieldBySelector(this.timestampFieldStream0).getAsPrimitive().getAsLong();
-      long time1 = e1.getFieldBySelector(this.timestampFieldStream1).getAsPrimitive().getAsLong();
-
-      if (time0 > time1) {
-        this.streamBufferS0.removeOldEvents(time0);
-        this.streamBufferS1.removeOldEvents(time0);
-      } else {
-        this.streamBufferS0.removeOldEvents(time1);
-        this.streamBufferS1.removeOldEvents(time1);
-      }
-    }
+    boolean firstStream = "s0".equals(event.getSourceInfo().getSelectorPrefix());
 
+    StreamBuffer ownBuffer = firstStream ? this.streamBufferS0 : this.streamBufferS1;
+    StreamBuffer otherBuffer = firstStream ? this.streamBufferS1 : this.streamBufferS0;
+    String timestampField = firstStream ? this.timestampFieldStream0 : this.timestampFieldStream1;
+    long timestamp = event.getFieldBySelector(timestampField).getAsPrimitive().getAsLong();
+
+    // Merge the event with all events of the other stream within the time interval
+    otherBuffer.forEachBetween(timestamp - timeInterval, timestamp + timeInterval, match ->
+            spOutputCollector.collect(firstStream ? mergeEvents(event, match) : mergeEvents(match, event)));
+
+    ownBuffer.add(event, timestamp);
+
+    // Events of the other stream which are too old for the latest event of this stream cannot match anymore
+    otherBuffer.removeOldEvents(ownBuffer.getWatermark() - timeInterval);
   }
 
   @Override
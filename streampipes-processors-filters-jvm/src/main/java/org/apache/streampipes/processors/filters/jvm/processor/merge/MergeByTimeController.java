@@ -41,6 +41,7 @@ public class MergeByTimeController extends StandaloneEventProcessingDeclarer<Mer
   private static final String TIMESTAMP_MAPPING_STREAM_2_KEY = "timestamp_mapping_stream_2";
   private static final String NUMBER_MAPPING = "number_mapping";
   private static final String TIME_INTERVAL = "time-interval";
+  private static final String MAX_BUFFER_SIZE = "max-buffer-size";
 
   @Override
   public DataProcessorDescription declareModel() {
@@ -57,6 +58,7 @@ public class MergeByTimeController extends StandaloneEventProcessingDeclarer<Mer
                     Labels.withId(TIMESTAMP_MAPPING_STREAM_2_KEY),
                     PropertyScope.NONE).build())
             .requiredIntegerParameter(Labels.withId(TIME_INTERVAL), NUMBER_MAPPING)
+            .requiredIntegerParameter(Labels.withId(MAX_BUFFER_SIZE), 10000)
             .outputStrategy(OutputStrategies.custom(true))
             .build();
   }
@@ -70,9 +72,10 @@ public class MergeByTimeController extends StandaloneEventProcessingDeclarer<Mer
     String timestampFieldStream1 = extractor.mappingPropertyValue(TIMESTAMP_MAPPING_STREAM_1_KEY);
     String timestampFieldStream2 = extractor.mappingPropertyValue(TIMESTAMP_MAPPING_STREAM_2_KEY);
     Integer timeInterval = extractor.singleValueParameter(TIME_INTERVAL, Integer.class);
+    Integer maxBufferSize = Math.max(1, extractor.singleValueParameter(MAX_BUFFER_SIZE, Integer.class));
 
     MergeByTimeParameters staticParam = new MergeByTimeParameters(
-            graph, outputKeySelectors, timestampFieldStream1, timestampFieldStream2, timeInterval);
+            graph, outputKeySelectors, timestampFieldStream1, timestampFieldStream2, timeInterval, maxBufferSize);
 
     return new ConfiguredEventProcessor<>(staticParam, MergeByTime::new);
   }
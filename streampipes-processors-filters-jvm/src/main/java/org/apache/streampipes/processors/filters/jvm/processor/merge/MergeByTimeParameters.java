@@ -28,14 +28,17 @@ public class MergeByTimeParameters extends EventProcessorBindingParams {
   private String timestampFieldStream1;
   private String timestampFieldStream2;
   private Integer timeInterval;
+  private Integer maxBufferSize;
 
   public MergeByTimeParameters(DataProcessorInvocation graph, List<String> outputKeySelectors,
-                               String timestampFieldStream1, String timestampFieldStream2, Integer timeInterval) {
+                               String timestampFieldStream1, String timestampFieldStream2, Integer timeInterval,
+                               Integer maxBufferSize) {
     super(graph);
     this.outputKeySelectors = outputKeySelectors;
     this.timestampFieldStream1 = timestampFieldStream1;
     this.timestampFieldStream2 = timestampFieldStream2;
     this.timeInterval = timeInterval;
+    this.maxBufferSize = maxBufferSize;
   }
 
   public List<String> getOutputKeySelectors() {
@@ -53,4 +56,8 @@ public class MergeByTimeParameters extends EventProcessorBindingParams {
   public Integer getTimeInterval() {
     return timeInterval;
   }
+
+  public Integer getMaxBufferSize() {
+    return maxBufferSize;
+  }
 }
@@ -20,46 +20,121 @@ package org.apache.streampipes.processors.filters.jvm.processor.merge;
 
 import org.apache.streampipes.model.runtime.Event;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Ring buffer which keeps the events of one stream ordered by their timestamp. The timestamp is extracted once when
+ * the event is added, so range lookups and eviction only compare primitive values.
+ */
 public class StreamBuffer {
-    private String timestampProperty;
-    private List<Event> buffer;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxSize;
+    private Event[] events;
+    private long[] timestamps;
+    private int head;
+    private int size;
+    private long watermark;
 
-    public StreamBuffer(String timestampProperty) {
-        buffer = new LinkedList<>();
-        this.timestampProperty = timestampProperty;
+    public StreamBuffer(int maxSize) {
+        this.maxSize = maxSize;
+        reset();
     }
 
-    public void add(Event event) {
-        buffer.add(event);
+    /**
+     * Adds an event at its position in timestamp order. Events mostly arrive in order, so the position is searched
+     * from the newest event backwards. If the buffer is full, the oldest event is dropped.
+     */
+    public void add(Event event, long timestamp) {
+        if (size == maxSize) {
+            removeFirst();
+        }
+        if (size == events.length) {
+            grow();
+        }
+        int position = size;
+        while (position > 0 && timestamps[index(position - 1)] > timestamp) {
+            events[index(position)] = events[index(position - 1)];
+            timestamps[index(position)] = timestamps[index(position - 1)];
+            position--;
+        }
+        events[index(position)] = event;
+        timestamps[index(position)] = timestamp;
+        size++;
+        watermark = Math.max(watermark, timestamp);
     }
 
-    public int getLength(){
-        return buffer.size();
+    /**
+     * Passes all events with from < timestamp < to to the consumer, in timestamp order.
+     */
+    public void forEachBetween(long from, long to, Consumer<Event> consumer) {
+        for (int i = firstAfter(from); i < size && timestamps[index(i)] < to; i++) {
+            consumer.accept(events[index(i)]);
+        }
     }
 
-    public List<Event> getList() {
-        return this.buffer;
+    /**
+     * Removes all events with a timestamp less than or equal to the given timestamp.
+     */
+    public void removeOldEvents(long timestamp) {
+        while (size > 0 && timestamps[head] <= timestamp) {
+            removeFirst();
+        }
     }
 
-    public Event get(int i) {
-        return this.buffer.get(i);
+    /**
+     * @return the highest timestamp added to this buffer so far
+     */
+    public long getWatermark() {
+        return watermark;
     }
 
-    public void removeOldEvents(long timestamp) {
-        Iterator itr = this.buffer.iterator();
-        while (itr.hasNext())
-        {
-            Event e = (Event) itr.next();
-            if (e.getFieldBySelector(timestampProperty).getAsPrimitive().getAsLong() <= timestamp)
-                itr.remove();
-        }
+    public int getLength() {
+        return size;
     }
 
     public void reset() {
-        this.buffer = new LinkedList<>();
+        this.events = new Event[Math.min(INITIAL_CAPACITY, maxSize)];
+        this.timestamps = new long[events.length];
+        this.head = 0;
+        this.size = 0;
+        this.watermark = Long.MIN_VALUE;
+    }
+
+    private int firstAfter(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[index(mid)] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void removeFirst() {
+        events[head] = null;
+        head = (head + 1) % events.length;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = Math.min(events.length * 2, maxSize);
+        Event[] newEvents = new Event[capacity];
+        long[] newTimestamps = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            newEvents[i] = events[index(i)];
+            newTimestamps[i] = timestamps[index(i)];
+        }
+        this.events = newEvents;
+        this.timestamps = newTimestamps;
+        this.head = 0;
+    }
+
+    private int index(int position) {
+        return (head + position) % events.length;
     }
 }
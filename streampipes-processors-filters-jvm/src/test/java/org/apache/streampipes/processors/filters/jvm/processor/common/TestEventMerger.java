@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.common;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestEventMerger {
+
+  @Test
+  public void testMergesTopLevelFieldsOfBothStreams() {
+    EventMerger merger = new EventMerger(Arrays.asList("s0::temperature", "s1::pressure"));
+
+    Event result = merger.merge(
+            makeEvent("s0", map("temperature", 20.5, "humidity", 40)),
+            makeEvent("s1", map("pressure", 1000, "id", "sensor")));
+
+    assertEquals(map("temperature", 20.5, "pressure", 1000), result.getRaw());
+  }
+
+  @Test
+  public void testCopiesOnlyTheSelectedNestedFields() {
+    EventMerger merger = new EventMerger(Arrays.asList("s0::location::latitude", "s1::id"));
+
+    Event result = merger.merge(
+            makeEvent("s0", map("location", map("latitude", 49.0, "longitude", 8.4), "temperature", 20.5)),
+            makeEvent("s1", map("id", "sensor")));
+
+    assertEquals(map("location", map("latitude", 49.0), "id", "sensor"), result.getRaw());
+  }
+
+  @Test
+  public void testCopiesCompletelySelectedNestedProperties() {
+    EventMerger merger = new EventMerger(Arrays.asList("s0::location", "s1::id"));
+
+    Event result = merger.merge(
+            makeEvent("s0", map("location", map("latitude", 49.0, "longitude", 8.4))),
+            makeEvent("s1", map("id", "sensor")));
+
+    assertEquals(map("location", map("latitude", 49.0, "longitude", 8.4), "id", "sensor"), result.getRaw());
+  }
+
+  @Test
+  public void testSelectingTheParentIncludesAllNestedFields() {
+    EventMerger merger = new EventMerger(Arrays.asList("s0::location::latitude", "s0::location"));
+
+    Event result = merger.merge(
+            makeEvent("s0", map("location", map("latitude", 49.0, "longitude", 8.4))),
+            makeEvent("s1", map("id", "sensor")));
+
+    assertEquals(map("location", map("latitude", 49.0, "longitude", 8.4)), result.getRaw());
+  }
+
+  @Test
+  public void testCopiesSelectedFieldsOnSeveralNestingLevels() {
+    EventMerger merger = new EventMerger(Arrays.asList("s1::machine::motor::speed", "s1::machine::id",
+            "s0::timestamp"));
+
+    Event result = merger.merge(
+            makeEvent("s0", map("timestamp", 1000L)),
+            makeEvent("s1", map("machine", map(
+                    "motor", map("speed", 1500, "temperature", 60.5),
+                    "id", "m1",
+                    "location", "hall"))));
+
+    assertEquals(map("timestamp", 1000L, "machine", map("motor", map("speed", 1500), "id", "m1")),
+            result.getRaw());
+  }
+
+  private Event makeEvent(String selectorPrefix, Map<String, Object> values) {
+    return EventFactory.fromMap(values, new SourceInfo("test-topic", selectorPrefix),
+            new SchemaInfo(null, new ArrayList<>()));
+  }
+
+  private Map<String, Object> map(Object... keysAndValues) {
+    Map<String, Object> map = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return map;
+  }
+}
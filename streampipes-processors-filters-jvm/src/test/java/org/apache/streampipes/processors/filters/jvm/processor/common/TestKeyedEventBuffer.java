@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.common;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestKeyedEventBuffer {
+
+  @Test
+  public void testKeepsTheLatestEventPerKey() {
+    KeyedEventBuffer buffer = new KeyedEventBuffer(10, 0);
+    Event first = makeEvent(1);
+    Event second = makeEvent(2);
+    Event other = makeEvent(3);
+
+    buffer.put("a", first);
+    buffer.put("b", other);
+    buffer.put("a", second);
+
+    assertEquals(2, buffer.size());
+    assertSame(second, buffer.get("a"));
+    assertSame(other, buffer.get("b"));
+    assertNull(buffer.get("c"));
+  }
+
+  @Test
+  public void testDropsTheLeastRecentlyUpdatedKey() {
+    KeyedEventBuffer buffer = new KeyedEventBuffer(2, 0);
+    Event a = makeEvent(1);
+    Event b = makeEvent(2);
+    Event c = makeEvent(3);
+
+    buffer.put("a", a);
+    buffer.put("b", b);
+    // updating a makes b the least recently updated key
+    buffer.put("a", a);
+    buffer.put("c", c);
+
+    assertEquals(2, buffer.size());
+    assertSame(a, buffer.get("a"));
+    assertNull(buffer.get("b"));
+    assertSame(c, buffer.get("c"));
+  }
+
+  @Test
+  public void testReadingDoesNotRefreshAKey() {
+    KeyedEventBuffer buffer = new KeyedEventBuffer(2, 0);
+
+    buffer.put("a", makeEvent(1));
+    buffer.put("b", makeEvent(2));
+    buffer.get("a");
+    buffer.put("c", makeEvent(3));
+
+    assertNull(buffer.get("a"));
+    assertEquals(2, buffer.size());
+  }
+
+  @Test
+  public void testExpiredEventsAreNotReturned() throws InterruptedException {
+    KeyedEventBuffer buffer = new KeyedEventBuffer(10, 50);
+
+    buffer.put("a", makeEvent(1));
+    Thread.sleep(100);
+
+    assertNull(buffer.get("a"));
+    assertEquals(0, buffer.size());
+  }
+
+  @Test
+  public void testExpiredEventsAreEvictedOnPut() throws InterruptedException {
+    KeyedEventBuffer buffer = new KeyedEventBuffer(10, 50);
+
+    buffer.put("a", makeEvent(1));
+    buffer.put("b", makeEvent(2));
+    Thread.sleep(100);
+    Event c = makeEvent(3);
+    buffer.put("c", c);
+
+    assertEquals(1, buffer.size());
+    assertSame(c, buffer.get("c"));
+  }
+
+  @Test
+  public void testEventsWithoutTtlDoNotExpire() throws InterruptedException {
+    KeyedEventBuffer buffer = new KeyedEventBuffer(10, 0);
+    Event a = makeEvent(1);
+
+    buffer.put("a", a);
+    Thread.sleep(20);
+
+    assertSame(a, buffer.get("a"));
+  }
+
+  @Test
+  public void testClear() {
+    KeyedEventBuffer buffer = new KeyedEventBuffer(10, 0);
+    buffer.put("a", makeEvent(1));
+
+    buffer.clear();
+
+    assertEquals(0, buffer.size());
+    assertNull(buffer.get("a"));
+  }
+
+  private Event makeEvent(int value) {
+    return EventFactory.fromMap(Collections.singletonMap("value", value), new SourceInfo("test-topic", "s0"),
+            new SchemaInfo(null, new ArrayList<>()));
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.compiledfilter;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestFilterExpressionCompiler {
+
+  @Test
+  public void testNumericOperators() throws SpRuntimeException {
+    Event event = makeEvent("temperature", 25);
+
+    assertTrue(matches("temperature > 20", event));
+    assertFalse(matches("temperature > 25", event));
+    assertTrue(matches("temperature >= 25", event));
+    assertTrue(matches("temperature < 25.5", event));
+    assertFalse(matches("temperature < 25", event));
+    assertTrue(matches("temperature <= 25", event));
+    assertTrue(matches("temperature == 25", event));
+    assertFalse(matches("temperature != 25", event));
+    assertTrue(matches("temperature != -3", event));
+  }
+
+  @Test
+  public void testNumericOperatorsWithTextValues() throws SpRuntimeException {
+    assertTrue(matches("temperature > 20", makeEvent("temperature", "21.5")));
+    assertFalse(matches("temperature > 20", makeEvent("temperature", "warm")));
+  }
+
+  @Test
+  public void testTextOperators() throws SpRuntimeException {
+    Event event = makeEvent("status", "running");
+
+    assertTrue(matches("status == \"running\"", event));
+    assertTrue(matches("status == 'running'", event));
+    assertFalse(matches("status != 'running'", event));
+    assertTrue(matches("status != 'stopped'", event));
+    assertTrue(matches("status contains 'run'", event));
+    assertTrue(matches("status CONTAINS 'run'", event));
+    assertFalse(matches("status contains 'stop'", event));
+  }
+
+  @Test
+  public void testQuotedTextWithKeywordsAndOperators() throws SpRuntimeException {
+    Event event = makeEvent("message", "a AND (b >= c)");
+
+    assertTrue(matches("message == 'a AND (b >= c)'", event));
+    assertTrue(matches("message contains \"(b >= c)\"", event));
+  }
+
+  @Test
+  public void testBooleanOperators() throws SpRuntimeException {
+    Event event = makeEvent("active", true);
+
+    assertTrue(matches("active == true", event));
+    assertTrue(matches("active == TRUE", event));
+    assertFalse(matches("active == false", event));
+    assertTrue(matches("active != false", event));
+  }
+
+  @Test
+  public void testAndBindsStrongerThanOr() throws SpRuntimeException {
+    Event event = makeEvent("a", 1, "b", 0, "c", 0);
+
+    assertTrue(matches("a == 1 OR b == 1 AND c == 1", event));
+    assertTrue(matches("b == 1 AND c == 1 OR a == 1", event));
+    assertFalse(matches("(a == 1 OR b == 1) AND c == 1", event));
+  }
+
+  @Test
+  public void testSymbolsAndLowerCaseKeywords() throws SpRuntimeException {
+    Event event = makeEvent("a", 1, "b", 0, "c", 0);
+
+    assertTrue(matches("a == 1 || b == 1 && c == 1", event));
+    assertFalse(matches("(a == 1 or b == 1) and c == 1", event));
+  }
+
+  @Test
+  public void testNot() throws SpRuntimeException {
+    Event event = makeEvent("a", 1, "b", 0, "c", 0);
+
+    assertFalse(matches("NOT a == 1", event));
+    assertFalse(matches("!a == 1", event));
+    assertTrue(matches("NOT NOT a == 1", event));
+    assertFalse(matches("NOT (a == 1 OR b == 1)", event));
+    assertTrue(matches("NOT a == 1 OR b == 0", event));
+    assertFalse(matches("NOT (a == 1 AND b == 0) AND c == 0", event));
+  }
+
+  @Test
+  public void testEvaluationStopsOnceTheResultIsKnown() throws SpRuntimeException {
+    FilterExpressionCompiler compiler = new FilterExpressionCompiler("a == 1 OR b == 1 OR c == 1");
+    FilterPredicate predicate = compiler.compile();
+
+    assertTrue(predicate.test(makeEvent("a", 1, "b", 0, "c", 0)));
+
+    List<Comparison> comparisons = compiler.getComparisons();
+    assertEquals(3, comparisons.size());
+    assertEquals("a == 1", comparisons.get(0).getDescription());
+    assertEquals(1, comparisons.get(0).getEvaluations());
+    assertEquals(0, comparisons.get(1).getEvaluations());
+    assertEquals(0, comparisons.get(2).getEvaluations());
+  }
+
+  @Test
+  public void testSelectivity() throws SpRuntimeException {
+    FilterExpressionCompiler compiler = new FilterExpressionCompiler("a > 1");
+    FilterPredicate predicate = compiler.compile();
+    for (int i = 0; i < 4; i++) {
+      predicate.test(makeEvent("a", i));
+    }
+
+    Comparison comparison = compiler.getComparisons().get(0);
+    assertEquals(4, comparison.getEvaluations());
+    assertEquals(0.5, comparison.getSelectivity(), 0.0001);
+  }
+
+  @Test
+  public void testSharedFieldIsReadForEachEvent() throws SpRuntimeException {
+    FilterExpressionCompiler compiler = new FilterExpressionCompiler("a > 1 AND a < 5 AND NOT a == 3");
+    FilterPredicate predicate = compiler.compile();
+
+    assertTrue(predicate.test(makeEvent("a", 2)));
+    assertFalse(predicate.test(makeEvent("a", 3)));
+    assertFalse(predicate.test(makeEvent("a", 7)));
+    assertTrue(predicate.test(makeEvent("a", 4)));
+    assertEquals(4, compiler.getComparisons().get(0).getEvaluations());
+  }
+
+  @Test
+  public void testErrorMessages() {
+    assertError("", "Filter expression is empty");
+    assertError("a >", "Invalid filter expression 'a >': Expected value at the end of the expression");
+    assertError("a", "Invalid filter expression 'a': Expected operator at the end of the expression");
+    assertError("a > warm", "Invalid filter expression 'a > warm': 'warm' is neither a number, a boolean nor a "
+            + "quoted text");
+    assertError("(a > 1", "Invalid filter expression '(a > 1': Missing ')'");
+    assertError("a > 1 b", "Invalid filter expression 'a > 1 b': Unexpected 'b'");
+    assertError("a == 'abc", "Invalid filter expression 'a == 'abc': Unterminated text starting at position 5");
+    assertError("a contains 3", "Invalid filter expression 'a contains 3': Operator 'contains' is not supported "
+            + "for a contains 3");
+    assertError("a > true", "Invalid filter expression 'a > true': Operator '>' is not supported for a > true");
+  }
+
+  private boolean matches(String expression, Event event) throws SpRuntimeException {
+    return new FilterExpressionCompiler(expression).compile().test(event);
+  }
+
+  private void assertError(String expression, String expectedMessage) {
+    try {
+      new FilterExpressionCompiler(expression).compile();
+      fail("Expected an error for expression '" + expression + "'");
+    } catch (SpRuntimeException e) {
+      assertEquals(expectedMessage, e.getMessage());
+    }
+  }
+
+  private Event makeEvent(Object... keysAndValues) {
+    Map<String, Object> map = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return EventFactory.fromMap(map, new SourceInfo("test-topic", "s0"),
+            new SchemaInfo(null, new ArrayList<>()));
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.limit.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestWindowScheduler {
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private final WindowScheduler scheduler = new WindowScheduler();
+
+  @After
+  public void shutdown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  public void testFixedRateTaskRunsRepeatedly() throws InterruptedException {
+    CountDownLatch runs = new CountDownLatch(3);
+
+    scheduler.scheduleAtFixedRate(runs::countDown, 10);
+
+    assertTrue(runs.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testCancelledTaskDoesNotRunAnymore() throws InterruptedException {
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch firstRun = new CountDownLatch(1);
+
+    WindowScheduler.Cancellable trigger = scheduler.scheduleAtFixedRate(() -> {
+      runs.incrementAndGet();
+      firstRun.countDown();
+    }, 10);
+    assertTrue(firstRun.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    trigger.cancel();
+    // a run which had already started when the task was cancelled may still finish
+    Thread.sleep(20);
+    int runsAfterCancel = runs.get();
+
+    Thread.sleep(100);
+    assertEquals(runsAfterCancel, runs.get());
+  }
+
+  @Test
+  public void testFailingTaskIsRunAgain() throws InterruptedException {
+    CountDownLatch runs = new CountDownLatch(3);
+
+    scheduler.scheduleAtFixedRate(() -> {
+      runs.countDown();
+      throw new IllegalStateException("trigger failed");
+    }, 10);
+
+    assertTrue(runs.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testAllTasksShareTheThreadsOfOneExecutor() throws InterruptedException {
+    int taskCount = 20;
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    CountDownLatch runs = new CountDownLatch(taskCount);
+
+    for (int i = 0; i < taskCount; i++) {
+      CountDownLatch firstRun = new CountDownLatch(1);
+      scheduler.scheduleAtFixedRate(() -> {
+        threads.add(Thread.currentThread());
+        if (firstRun.getCount() > 0) {
+          firstRun.countDown();
+          runs.countDown();
+        }
+      }, 10);
+    }
+
+    assertTrue(runs.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertTrue("Tasks ran on " + threads.size() + " threads", threads.size() <= 2);
+  }
+
+  @Test
+  public void testCronTaskRunsAtTheNextFireTimes() throws ParseException, InterruptedException {
+    CountDownLatch runs = new CountDownLatch(2);
+
+    scheduler.scheduleCron(runs::countDown, new CronExpression("* * * * * ?"));
+
+    assertTrue(runs.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testCancelledCronTaskDoesNotRunAnymore() throws ParseException, InterruptedException {
+    AtomicInteger runs = new AtomicInteger();
+    AtomicReference<WindowScheduler.Cancellable> trigger = new AtomicReference<>();
+    CountDownLatch scheduled = new CountDownLatch(1);
+
+    trigger.set(scheduler.scheduleCron(() -> {
+      awaitQuietly(scheduled);
+      runs.incrementAndGet();
+      trigger.get().cancel();
+    }, new CronExpression("* * * * * ?")));
+    scheduled.countDown();
+
+    Thread.sleep(2500);
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  public void testNoTasksAreAcceptedAfterShutdown() throws ParseException {
+    scheduler.shutdown();
+
+    try {
+      scheduler.scheduleAtFixedRate(() -> { }, 10);
+      fail("Expected the task to be rejected");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+    // cron windows may still be created while the processor is being detached
+    scheduler.scheduleCron(() -> { }, new CronExpression("* * * * * ?"));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowScheduler;
+import org.apache.streampipes.wrapper.routing.SpOutputCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the event thread of a time window while a second thread triggers the window continuously, which is the
+ * worst case for the state shared between both threads. The output collector discards the emitted events.
+ *
+ * <p>The benchmark is not run by the build, run its main method with the test classpath of this module instead.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleWindowBenchmark {
+
+  @Param({"FIRST", "LAST", "ALL"})
+  private EventSelection eventSelection;
+
+  private TimeWindow window;
+  private Event event;
+
+  @Setup
+  public void setup() {
+    SpOutputCollector collector = (SpOutputCollector) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{SpOutputCollector.class}, (proxy, method, args) -> null);
+    // the window is not initialized, so it is only triggered by the benchmark
+    window = new TimeWindow(60000, eventSelection, collector, new WindowScheduler());
+    event = EventFactory.fromMap(Collections.singletonMap("value", 1), new SourceInfo("test-topic", "s0"),
+            new SchemaInfo(null, new ArrayList<>()));
+  }
+
+  @Benchmark
+  @Group("window")
+  @GroupThreads(1)
+  public void onEvent() {
+    window.onEvent(event);
+  }
+
+  @Benchmark
+  @Group("window")
+  @GroupThreads(1)
+  public void onTrigger() {
+    window.onTrigger();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(ScheduleWindowBenchmark.class.getSimpleName())
+            .build())
+            .run();
+  }
+}
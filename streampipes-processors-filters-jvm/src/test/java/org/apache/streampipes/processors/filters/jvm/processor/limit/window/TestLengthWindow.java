@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
+import org.apache.streampipes.wrapper.routing.SpOutputCollector;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestLengthWindow {
+
+  private final Map<Event, Integer> ids = new IdentityHashMap<>();
+  private final List<Event> emitted = new ArrayList<>();
+
+  @Test
+  public void testFirstEmitsTheFirstEventOfEachWindow() {
+    LengthWindow window = makeWindow(3, EventSelection.FIRST);
+
+    add(window, 1, 2, 3, 4, 5, 6, 7);
+
+    assertEquals(Arrays.asList(1, 4, 7), emittedIds());
+  }
+
+  @Test
+  public void testLastEmitsTheLastEventOfEachWindow() {
+    LengthWindow window = makeWindow(3, EventSelection.LAST);
+
+    add(window, 1, 2, 3, 4, 5, 6, 7);
+
+    assertEquals(Arrays.asList(3, 6), emittedIds());
+  }
+
+  @Test
+  public void testAllEmitsEachCompleteWindow() {
+    LengthWindow window = makeWindow(3, EventSelection.ALL);
+
+    add(window, 1, 2, 3, 4, 5, 6, 7);
+
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), emittedIds());
+  }
+
+  @Test
+  public void testWindowOfSizeOneEmitsEveryEvent() {
+    for (EventSelection eventSelection : EventSelection.values()) {
+      emitted.clear();
+      LengthWindow window = makeWindow(1, eventSelection);
+
+      add(window, 1, 2, 3);
+
+      assertEquals(Arrays.asList(1, 2, 3), emittedIds());
+    }
+  }
+
+  @Test
+  public void testIdleOnlyWithoutPendingEvents() {
+    LengthWindow window = makeWindow(2, EventSelection.ALL);
+
+    add(window, 1);
+    assertFalse(window.isIdleSince(Long.MAX_VALUE));
+
+    add(window, 2);
+    assertTrue(window.isIdleSince(Long.MAX_VALUE));
+    assertFalse(window.isIdleSince(Long.MIN_VALUE));
+  }
+
+  @Test
+  public void testDestroyDiscardsThePendingWindow() {
+    LengthWindow window = makeWindow(3, EventSelection.ALL);
+
+    add(window, 1, 2);
+    window.destroy();
+    add(window, 3, 4, 5);
+
+    assertEquals(Arrays.asList(3, 4, 5), emittedIds());
+  }
+
+  private LengthWindow makeWindow(int windowSize, EventSelection eventSelection) {
+    SpOutputCollector collector = (SpOutputCollector) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{SpOutputCollector.class}, (proxy, method, args) -> {
+              if (method.getName().equals("collect")) {
+                emitted.add((Event) args[0]);
+              }
+              return null;
+            });
+    return new LengthWindow(windowSize, eventSelection, collector);
+  }
+
+  private void add(LengthWindow window, int... eventIds) {
+    for (int id : eventIds) {
+      Event event = EventFactory.fromMap(Collections.singletonMap("id", id), new SourceInfo("test-topic", "s0"),
+              new SchemaInfo(null, new ArrayList<>()));
+      ids.put(event, id);
+      window.onEvent(event);
+    }
+  }
+
+  private List<Integer> emittedIds() {
+    List<Integer> result = new ArrayList<>();
+    for (Event event : emitted) {
+      result.add(ids.get(event));
+    }
+    return result;
+  }
+}
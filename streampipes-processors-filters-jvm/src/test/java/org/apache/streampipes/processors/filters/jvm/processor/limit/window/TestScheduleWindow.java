@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.limit.window;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.EventSelection;
+import org.apache.streampipes.processors.filters.jvm.processor.limit.util.WindowScheduler;
+import org.apache.streampipes.wrapper.routing.SpOutputCollector;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestScheduleWindow {
+
+  private static final int CONCURRENT_EVENTS = 100000;
+
+  private final Map<Event, Integer> ids = Collections.synchronizedMap(new IdentityHashMap<>());
+  private final List<Event> emitted = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void testFirstEmitsTheFirstEventOfEachWindow() {
+    ScheduleWindow window = makeWindow(EventSelection.FIRST);
+
+    add(window, 1, 2, 3);
+    window.onTrigger();
+    add(window, 4, 5);
+    window.onTrigger();
+
+    assertEquals(Arrays.asList(1, 4), emittedIds());
+  }
+
+  @Test
+  public void testLastEmitsTheLastEventOfEachWindow() {
+    ScheduleWindow window = makeWindow(EventSelection.LAST);
+
+    add(window, 1, 2, 3);
+    window.onTrigger();
+    add(window, 4, 5);
+    window.onTrigger();
+
+    assertEquals(Arrays.asList(3, 5), emittedIds());
+  }
+
+  @Test
+  public void testAllEmitsTheEventsInArrivalOrder() {
+    ScheduleWindow window = makeWindow(EventSelection.ALL);
+
+    add(window, 1, 2, 3);
+    window.onTrigger();
+    add(window, 4, 5);
+    window.onTrigger();
+
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5), emittedIds());
+  }
+
+  @Test
+  public void testEmptyWindowEmitsNothing() {
+    for (EventSelection eventSelection : EventSelection.values()) {
+      ScheduleWindow window = makeWindow(eventSelection);
+
+      window.onTrigger();
+      add(window, 1);
+      window.onTrigger();
+      window.onTrigger();
+    }
+
+    assertEquals(Arrays.asList(1, 1, 1), emittedIds());
+  }
+
+  @Test
+  public void testIdleOnlyWithoutPendingEvents() {
+    ScheduleWindow window = makeWindow(EventSelection.ALL);
+    assertTrue(window.isIdleSince(System.currentTimeMillis()));
+
+    add(window, 1);
+    assertFalse(window.isIdleSince(Long.MAX_VALUE));
+
+    window.onTrigger();
+    assertTrue(window.isIdleSince(Long.MAX_VALUE));
+    assertFalse(window.isIdleSince(Long.MIN_VALUE));
+  }
+
+  @Test
+  public void testDestroyDiscardsPendingEvents() throws Exception {
+    ScheduleWindow window = makeWindow(EventSelection.ALL);
+    add(window, 1, 2);
+
+    window.destroy();
+    window.onTrigger();
+
+    assertEquals(Collections.emptyList(), emittedIds());
+  }
+
+  @Test
+  public void testAllEmitsEveryEventExactlyOnceWhileTriggeredConcurrently() throws InterruptedException {
+    ScheduleWindow window = makeWindow(EventSelection.ALL);
+
+    addWhileTriggering(window);
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < CONCURRENT_EVENTS; i++) {
+      expected.add(i);
+    }
+    assertEquals(expected, emittedIds());
+  }
+
+  @Test
+  public void testFirstAndLastEmitEachEventAtMostOnceWhileTriggeredConcurrently() throws InterruptedException {
+    for (EventSelection eventSelection : Arrays.asList(EventSelection.FIRST, EventSelection.LAST)) {
+      emitted.clear();
+      ScheduleWindow window = makeWindow(eventSelection);
+
+      addWhileTriggering(window);
+
+      List<Integer> emittedIds = emittedIds();
+      assertFalse(emittedIds.isEmpty());
+      assertEquals(emittedIds.size(), new HashSet<>(emittedIds).size());
+      for (int i = 1; i < emittedIds.size(); i++) {
+        assertTrue(emittedIds.get(i - 1) < emittedIds.get(i));
+      }
+      if (eventSelection == EventSelection.LAST) {
+        assertEquals(CONCURRENT_EVENTS - 1, (int) emittedIds.get(emittedIds.size() - 1));
+      }
+    }
+  }
+
+  private void addWhileTriggering(ScheduleWindow window) throws InterruptedException {
+    AtomicBoolean done = new AtomicBoolean();
+    Thread trigger = new Thread(() -> {
+      while (!done.get()) {
+        window.onTrigger();
+      }
+    });
+    trigger.start();
+    for (int i = 0; i < CONCURRENT_EVENTS; i++) {
+      add(window, i);
+    }
+    done.set(true);
+    trigger.join();
+    window.onTrigger();
+  }
+
+  private ScheduleWindow makeWindow(EventSelection eventSelection) {
+    SpOutputCollector collector = (SpOutputCollector) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{SpOutputCollector.class}, (proxy, method, args) -> {
+              if (method.getName().equals("collect")) {
+                emitted.add((Event) args[0]);
+              }
+              return null;
+            });
+    // the window is not initialized, so it is only triggered by the test
+    return new TimeWindow(60000, eventSelection, collector, new WindowScheduler());
+  }
+
+  private void add(ScheduleWindow window, int... eventIds) {
+    for (int id : eventIds) {
+      Event event = EventFactory.fromMap(Collections.singletonMap("id", id), new SourceInfo("test-topic", "s0"),
+              new SchemaInfo(null, new ArrayList<>()));
+      ids.put(event, id);
+      window.onEvent(event);
+    }
+  }
+
+  private List<Integer> emittedIds() {
+    List<Integer> result = new ArrayList<>();
+    for (Event event : emitted) {
+      result.add(ids.get(event));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.processors.filters.jvm.processor.merge;
+
+import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.runtime.EventFactory;
+import org.apache.streampipes.model.runtime.SchemaInfo;
+import org.apache.streampipes.model.runtime.SourceInfo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestStreamBuffer {
+
+  private final Map<Event, Long> timestamps = new IdentityHashMap<>();
+
+  @Test
+  public void testInOrderEvents() {
+    StreamBuffer buffer = new StreamBuffer(100);
+    add(buffer, 1, 2, 3);
+
+    assertEquals(3, buffer.getLength());
+    assertEquals(Arrays.asList(1L, 2L, 3L), between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testOutOfOrderEventsAreSorted() {
+    StreamBuffer buffer = new StreamBuffer(100);
+    add(buffer, 5, 1, 3, 4, 2, 3);
+
+    assertEquals(Arrays.asList(1L, 2L, 3L, 3L, 4L, 5L), between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+    assertEquals(5, buffer.getWatermark());
+  }
+
+  @Test
+  public void testForEachBetweenExcludesBothBounds() {
+    StreamBuffer buffer = new StreamBuffer(100);
+    add(buffer, 10, 20, 20, 30, 40);
+
+    assertEquals(Arrays.asList(20L, 20L, 30L), between(buffer, 10, 40));
+    assertEquals(Collections.singletonList(30L), between(buffer, 20, 40));
+    assertEquals(Arrays.asList(10L, 20L, 20L), between(buffer, 9, 21));
+    assertEquals(Collections.emptyList(), between(buffer, 20, 30));
+    assertEquals(Collections.emptyList(), between(buffer, 40, 100));
+    assertEquals(Collections.emptyList(), between(buffer, 0, 10));
+  }
+
+  @Test
+  public void testGrowsBeyondTheInitialCapacity() {
+    StreamBuffer buffer = new StreamBuffer(1000);
+    List<Long> expected = new ArrayList<>();
+    for (long t = 0; t < 100; t++) {
+      add(buffer, t);
+      expected.add(t);
+    }
+
+    assertEquals(100, buffer.getLength());
+    assertEquals(expected, between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testGrowsWhileWrappedAround() {
+    StreamBuffer buffer = new StreamBuffer(1000);
+    for (long t = 0; t < 16; t++) {
+      add(buffer, t);
+    }
+    buffer.removeOldEvents(9);
+    // the next events wrap around the end of the array before it grows
+    for (long t = 16; t < 40; t++) {
+      add(buffer, t);
+    }
+
+    List<Long> expected = new ArrayList<>();
+    for (long t = 10; t < 40; t++) {
+      expected.add(t);
+    }
+    assertEquals(expected, between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testOutOfOrderEventWhileWrappedAround() {
+    StreamBuffer buffer = new StreamBuffer(4);
+    add(buffer, 1, 2, 3, 4);
+    buffer.removeOldEvents(2);
+    add(buffer, 6, 5);
+
+    assertEquals(Arrays.asList(3L, 4L, 5L, 6L), between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testDropsTheOldestEventWhenFull() {
+    StreamBuffer buffer = new StreamBuffer(3);
+    add(buffer, 1, 2, 3, 4, 5);
+
+    assertEquals(3, buffer.getLength());
+    assertEquals(Arrays.asList(3L, 4L, 5L), between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testRemovesEventsUpToTheWatermarkMinusTheInterval() {
+    StreamBuffer buffer = new StreamBuffer(100);
+    add(buffer, 100, 110, 120, 130);
+    long interval = 15;
+
+    buffer.removeOldEvents(buffer.getWatermark() - interval);
+
+    assertEquals(Arrays.asList(120L, 130L), between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+
+    buffer.removeOldEvents(130);
+    assertEquals(0, buffer.getLength());
+    assertEquals(130, buffer.getWatermark());
+  }
+
+  @Test
+  public void testReset() {
+    StreamBuffer buffer = new StreamBuffer(100);
+    add(buffer, 1, 2, 3);
+
+    buffer.reset();
+
+    assertEquals(0, buffer.getLength());
+    assertEquals(Long.MIN_VALUE, buffer.getWatermark());
+    assertEquals(Collections.emptyList(), between(buffer, Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  private void add(StreamBuffer buffer, long... eventTimestamps) {
+    for (long timestamp : eventTimestamps) {
+      Event event = EventFactory.fromMap(Collections.singletonMap("timestamp", timestamp),
+              new SourceInfo("test-topic", "s0"), new SchemaInfo(null, new ArrayList<>()));
+      timestamps.put(event, timestamp);
+      buffer.add(event, timestamp);
+    }
+  }
+
+  private List<Long> between(StreamBuffer buffer, long from, long to) {
+    List<Long> result = new ArrayList<>();
+    buffer.forEachBetween(from, to, event -> result.add(timestamps.get(event)));
+    return result;
+  }
+}
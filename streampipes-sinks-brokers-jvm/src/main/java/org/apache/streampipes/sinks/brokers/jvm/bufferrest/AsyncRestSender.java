@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.brokers.jvm.bufferrest;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Posts serialized batches to a REST endpoint from a pool of background threads. Batches wait in a bounded queue;
+ * if the queue is full, the caller either blocks until a slot becomes free or the batch is dropped.
+ */
+public class AsyncRestSender {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncRestSender.class);
+
+  private static final ContentType CONTENT_TYPE = ContentType.create("text/plain", StandardCharsets.UTF_8);
+  private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+  private final String restEndpointURI;
+  private final ThreadPoolExecutor executor;
+  private final AtomicLong droppedBatches = new AtomicLong();
+
+  public AsyncRestSender(String restEndpointURI, int concurrency, int maxPendingBatches, boolean blockWhenFull) {
+    this.restEndpointURI = restEndpointURI;
+    this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxPendingBatches));
+    this.executor.setRejectedExecutionHandler(blockWhenFull ? this::waitForFreeSlot : this::dropBatch);
+  }
+
+  public void send(byte[] batch) {
+    executor.execute(() -> post(batch));
+  }
+
+  /**
+   * Sends all batches which are still queued and stops the background threads.
+   */
+  public void shutdown() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        LOG.warn("Pending batches could not be sent within {} ms", SHUTDOWN_TIMEOUT_MS);
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    if (droppedBatches.get() > 0) {
+      LOG.warn("{} batches were dropped because the send queue was full", droppedBatches.get());
+    }
+  }
+
+  private void post(byte[] batch) {
+    try {
+      HttpResponse response = Request.Post(restEndpointURI)
+              .bodyByteArray(batch, CONTENT_TYPE)
+              .execute()
+              .returnResponse();
+      int statusCode = response.getStatusLine().getStatusCode();
+      if (statusCode >= 300) {
+        LOG.error("Endpoint at {} responded with status {}", restEndpointURI, statusCode);
+      }
+    } catch (IOException e) {
+      LOG.error("Could not reach endpoint at {}", restEndpointURI);
+    }
+  }
+
+  private void waitForFreeSlot(Runnable task, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("Sender has been shut down");
+    }
+    try {
+      executor.getQueue().put(task);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException(e);
+    }
+  }
+
+  private void dropBatch(Runnable task, ThreadPoolExecutor executor) {
+    if (droppedBatches.incrementAndGet() % 100 == 1) {
+      LOG.warn("Send queue is full, {} batches dropped so far", droppedBatches.get());
+    }
+  }
+}
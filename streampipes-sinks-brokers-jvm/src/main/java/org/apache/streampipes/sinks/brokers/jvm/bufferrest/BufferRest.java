@@ -19,10 +19,8 @@
 
 package org.apache.streampipes.sinks.brokers.jvm.bufferrest;
 
-import org.apache.commons.io.Charsets;
-import org.apache.http.client.fluent.Request;
-import org.apache.http.entity.StringEntity;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.dataformat.SpDataFormatDefinition;
 import org.apache.streampipes.dataformat.json.JsonDataFormatDefinition;
@@ -32,18 +30,21 @@ import org.apache.streampipes.sinks.brokers.jvm.bufferrest.buffer.MessageBuffer;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 
 public class BufferRest implements EventSink<BufferRestParameters>, BufferListener {
 
-  private static Logger LOG;
+  private static final Logger LOG = LoggerFactory.getLogger(BufferRest.class);
   private List<String> fieldsToSend;
   private SpDataFormatDefinition dataFormatDefinition;
-  private String restEndpointURI;
   private MessageBuffer buffer;
+  private AsyncRestSender sender;
+  private ScheduledExecutorService flushScheduler;
 
   public BufferRest() {
     this.dataFormatDefinition = new JsonDataFormatDefinition();
@@ -52,17 +53,23 @@ public class BufferRest implements EventSink<BufferRestParameters>, BufferListen
   @Override
   public void onInvocation(BufferRestParameters parameters, EventSinkRuntimeContext runtimeContext) {
     this.fieldsToSend = parameters.getFieldsToSend();
-    this.restEndpointURI = parameters.getRestEndpointURI();
+    this.sender = new AsyncRestSender(parameters.getRestEndpointURI(), parameters.getConcurrency(),
+            parameters.getMaxPendingBatches(), parameters.isBlockWhenFull());
     this.buffer = new MessageBuffer(parameters.getBufferSize());
     this.buffer.addListener(this);
+
+    if (parameters.getFlushInterval() > 0) {
+      this.flushScheduler = Executors.newSingleThreadScheduledExecutor();
+      this.flushScheduler.scheduleAtFixedRate(buffer::flush, parameters.getFlushInterval(),
+              parameters.getFlushInterval(), TimeUnit.MILLISECONDS);
+    }
   }
 
   @Override
   public void onEvent(Event event) {
     Map<String, Object> outEventMap = event.getSubset(fieldsToSend).getRaw();
     try {
-      String json = new String(dataFormatDefinition.fromMap(outEventMap));
-      this.buffer.addMessage(json);
+      this.buffer.addMessage(dataFormatDefinition.fromMap(outEventMap));
     } catch (SpRuntimeException e) {
       LOG.error("Could not parse incoming event");
     }
@@ -70,15 +77,16 @@ public class BufferRest implements EventSink<BufferRestParameters>, BufferListen
 
   @Override
   public void onDetach() {
+    if (flushScheduler != null) {
+      flushScheduler.shutdown();
+    }
+    buffer.flush();
     buffer.removeListener(this);
+    sender.shutdown();
   }
 
   @Override
-  public void bufferFull(String messagesJsonArray) {
-    try {
-      Request.Post(restEndpointURI).body(new StringEntity(messagesJsonArray, Charsets.UTF_8)).execute();
-    } catch (IOException e) {
-      LOG.error("Could not reach endpoint at {}", restEndpointURI);
-    }
+  public void bufferFull(byte[] messagesJsonArray) {
+    sender.send(messagesJsonArray);
   }
 }
@@ -22,6 +22,7 @@ import org.apache.streampipes.model.DataSinkType;
 import org.apache.streampipes.model.graph.DataSinkDescription;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
 import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.DataSinkBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.DataSinkParameterExtractor;
@@ -29,6 +30,7 @@ import org.apache.streampipes.sdk.helpers.*;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventSink;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventSinkDeclarer;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class BufferRestController extends StandaloneEventSinkDeclarer<BufferRestParameters> {
@@ -37,6 +39,13 @@ public class BufferRestController extends StandaloneEventSinkDeclarer<BufferRest
 	private static final String URI = ".uri";
 	private static final String COUNT = ".count";
 	private static final String FIELDS = ".fields-to-send";
+	private static final String FLUSH_INTERVAL = ".flush-interval";
+	private static final String CONCURRENCY = ".concurrency";
+	private static final String MAX_PENDING = ".max-pending";
+	private static final String BACKPRESSURE = ".backpressure";
+
+	private static final String BACKPRESSURE_BLOCK = "Block";
+	private static final String BACKPRESSURE_DROP = "Drop";
 
 	@Override
 	public DataSinkDescription declareModel() {
@@ -52,6 +61,11 @@ public class BufferRestController extends StandaloneEventSinkDeclarer<BufferRest
 						.requiredIntegerParameter(Labels.from(KEY + COUNT, "Buffered Event Count",
 								"Number (1 <= x <= 1000000) of incoming events before sending data on to the given REST endpoint"),
 								1, 1000000, 1)
+						.requiredIntegerParameter(Labels.withId(KEY + FLUSH_INTERVAL), 1000)
+						.requiredIntegerParameter(Labels.withId(KEY + CONCURRENCY), 1, 16, 1)
+						.requiredIntegerParameter(Labels.withId(KEY + MAX_PENDING), 100)
+						.requiredSingleValueSelection(Labels.withId(KEY + BACKPRESSURE),
+								Arrays.asList(new Option(BACKPRESSURE_BLOCK, true), new Option(BACKPRESSURE_DROP, false)))
 						.build();
 	}
 
@@ -61,8 +75,14 @@ public class BufferRestController extends StandaloneEventSinkDeclarer<BufferRest
 		List<String> fieldsToSend = extractor.mappingPropertyValues(KEY + FIELDS);
 		String restEndpointURI = extractor.singleValueParameter(KEY + URI, String.class);
 		int bufferSize = Integer.parseInt(extractor.singleValueParameter(KEY + COUNT, String.class));
+		int flushInterval = extractor.singleValueParameter(KEY + FLUSH_INTERVAL, Integer.class);
+		int concurrency = Math.max(extractor.singleValueParameter(KEY + CONCURRENCY, Integer.class), 1);
+		int maxPending = Math.max(extractor.singleValueParameter(KEY + MAX_PENDING, Integer.class), 1);
+		boolean blockWhenFull = extractor.selectedSingleValue(KEY + BACKPRESSURE, String.class)
+						.equals(BACKPRESSURE_BLOCK);
 
-		BufferRestParameters params = new BufferRestParameters(graph, fieldsToSend, restEndpointURI, bufferSize);
+		BufferRestParameters params = new BufferRestParameters(graph, fieldsToSend, restEndpointURI, bufferSize,
+						flushInterval, concurrency, maxPending, blockWhenFull);
 
 		return new ConfiguredEventSink<>(params, BufferRest::new);
 	}
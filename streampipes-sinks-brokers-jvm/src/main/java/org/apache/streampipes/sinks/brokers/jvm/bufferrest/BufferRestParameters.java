@@ -28,12 +28,21 @@ public class BufferRestParameters extends EventSinkBindingParams {
   private String restEndpointURI;
   private List<String> fieldsToSend;
   private int bufferSize;
+  private int flushInterval;
+  private int concurrency;
+  private int maxPendingBatches;
+  private boolean blockWhenFull;
 
-  public BufferRestParameters(DataSinkInvocation graph, List<String> fieldsToSend, String restEndpointURI, int bufferSize) {
+  public BufferRestParameters(DataSinkInvocation graph, List<String> fieldsToSend, String restEndpointURI, int bufferSize,
+                              int flushInterval, int concurrency, int maxPendingBatches, boolean blockWhenFull) {
     super(graph);
     this.fieldsToSend = fieldsToSend;
     this.restEndpointURI = restEndpointURI;
     this.bufferSize = bufferSize;
+    this.flushInterval = flushInterval;
+    this.concurrency = concurrency;
+    this.maxPendingBatches = maxPendingBatches;
+    this.blockWhenFull = blockWhenFull;
   }
 
   public List<String> getFieldsToSend() {
@@ -47,4 +56,20 @@ public class BufferRestParameters extends EventSinkBindingParams {
   public int getBufferSize() {
     return bufferSize;
   }
+
+  public int getFlushInterval() {
+    return flushInterval;
+  }
+
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  public int getMaxPendingBatches() {
+    return maxPendingBatches;
+  }
+
+  public boolean isBlockWhenFull() {
+    return blockWhenFull;
+  }
 }
@@ -18,61 +18,68 @@
 
 package org.apache.streampipes.sinks.brokers.jvm.bufferrest.buffer;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Collects serialized JSON messages in a single growable byte buffer. Once the configured number of messages is
+ * reached (or {@link #flush()} is called), the messages are handed to the listeners as one JSON array. With a buffer
+ * size of 1, the single message is passed on as is.
+ */
 public class MessageBuffer {
     private int bufferSize;
     private List<BufferListener> listeners;
-    private List<String> messages;
+    private ByteArrayOutputStream messages;
+    private int messageCount;
 
     public MessageBuffer(int bufferSize) {
         this.bufferSize = bufferSize;
-        this.messages = new ArrayList<String>();
+        this.messages = new ByteArrayOutputStream();
         this.listeners = new ArrayList<BufferListener>();
     }
 
-    public void addMessage(String message) {
-        messages.add(message);
+    public synchronized void addMessage(byte[] message) {
+        if (bufferSize > 1) {
+            messages.write(messageCount == 0 ? '[' : ',');
+        }
+        messages.write(message, 0, message.length);
+        messageCount++;
 
-        if (bufferSize <= messages.size()) {
-            notifyListeners();
-            clearBuffer();
+        if (bufferSize <= messageCount) {
+            flush();
         }
     }
 
+    /**
+     * Passes all buffered messages to the listeners, even if the buffer is not full yet.
+     */
+    public synchronized void flush() {
+        if (messageCount == 0) {
+            return;
+        }
+        if (bufferSize > 1) {
+            messages.write(']');
+        }
+        byte[] messagesJsonArray = messages.toByteArray();
+        clearBuffer();
+        notifyListeners(messagesJsonArray);
+    }
+
     private void clearBuffer() {
-        this.messages = new ArrayList<String>();
+        this.messages.reset();
+        this.messageCount = 0;
     }
 
-    public void addListener(BufferListener listener){
+    public synchronized void addListener(BufferListener listener){
         listeners.add(listener);
     }
 
-    public void removeListener(BufferListener listener){
+    public synchronized void removeListener(BufferListener listener){
         listeners.remove(listener);
     }
 
-    private String getMessagesAsJsonString() {
-        String messagesAsJson;
-        if (bufferSize > 1) {
-            messagesAsJson = "[";
-            int i = 1;
-            for (String message : messages) {
-                messagesAsJson += message;
-                if (i < messages.size()) {
-                    messagesAsJson += ",";
-                }
-                i++;
-            }
-            messagesAsJson += "]";
-        } else {
-            messagesAsJson = messages.get(0);
-        }
-        return messagesAsJson;
-    }
-    private void notifyListeners(){
-        String messagesJsonArray = getMessagesAsJsonString();
+    private void notifyListeners(byte[] messagesJsonArray){
         for(BufferListener listener : listeners) {
             listener.bufferFull(messagesJsonArray);
         }
@@ -20,6 +20,8 @@ package org.apache.streampipes.sinks.brokers.jvm.kafka;
 
 import org.apache.streampipes.model.graph.DataSinkDescription;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
+import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.model.staticproperty.StaticPropertyAlternative;
 import org.apache.streampipes.sdk.StaticProperties;
 import org.apache.streampipes.sdk.builder.DataSinkBuilder;
@@ -33,6 +35,8 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventSink;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventSinkDeclarer;
 
+import java.util.Arrays;
+
 public class KafkaController extends StandaloneEventSinkDeclarer<KafkaParameters> {
 
 //  private static final String KAFKA_BROKER_SETTINGS_KEY = "broker-settings";
@@ -45,6 +49,14 @@ public class KafkaController extends StandaloneEventSinkDeclarer<KafkaParameters
   private static final String USERNAME_GROUP = "username-group";
   private static final String USERNAME_KEY = "username";
   private static final String PASSWORD_KEY = "password";
+  private static final String ROUTING_MODE = "routing-mode";
+  private static final String FIXED_TOPIC = "fixed-topic-alternative";
+  private static final String TOPIC_FROM_FIELD = "topic-field-alternative";
+  private static final String KEY_FROM_FIELD = "key-field-alternative";
+  private static final String ROUTING_FIELD_KEY = "routing-field";
+  private static final String LINGER_MS_KEY = "linger-ms";
+  private static final String BATCH_SIZE_KEY = "batch-size";
+  private static final String COMPRESSION_KEY = "compression";
 
 //  private static final String KAFKA_HOST_URI = "http://schema.org/kafkaHost";
 //  private static final String KAFKA_PORT_URI = "http://schema.org/kafkaPort";
@@ -56,12 +68,22 @@ public class KafkaController extends StandaloneEventSinkDeclarer<KafkaParameters
             .withAssets(Assets.DOCUMENTATION, Assets.ICON)
             .requiredStream(StreamRequirementsBuilder
                     .create()
-                    .requiredProperty(EpRequirements.anyProperty())
+                    .requiredPropertyWithUnaryMapping(EpRequirements.anyProperty(),
+                            Labels.withId(ROUTING_FIELD_KEY),
+                            PropertyScope.NONE)
                     .build())
             .requiredTextParameter(Labels.withId(TOPIC_KEY), false, false)
             .requiredTextParameter(Labels.withId(HOST_KEY), false, false)
             .requiredIntegerParameter(Labels.withId(PORT_KEY), 9092)
             .requiredAlternatives(Labels.withId(ACCESS_MODE), getAlternativesOne(), getAlternativesTwo())
+            .requiredAlternatives(Labels.withId(ROUTING_MODE),
+                    Alternatives.from(Labels.withId(FIXED_TOPIC), true),
+                    Alternatives.from(Labels.withId(TOPIC_FROM_FIELD)),
+                    Alternatives.from(Labels.withId(KEY_FROM_FIELD)))
+            .requiredIntegerParameter(Labels.withId(LINGER_MS_KEY), 20)
+            .requiredIntegerParameter(Labels.withId(BATCH_SIZE_KEY), 16384)
+            .requiredSingleValueSelection(Labels.withId(COMPRESSION_KEY),
+                    Arrays.asList(new Option("none", true), new Option("lz4", false), new Option("zstd", false)))
             .build();
   }
 
@@ -73,15 +95,29 @@ public class KafkaController extends StandaloneEventSinkDeclarer<KafkaParameters
     String kafkaHost = extractor.singleValueParameter(HOST_KEY, String.class);
     Integer kafkaPort = extractor.singleValueParameter(PORT_KEY, Integer.class);
     String authentication = extractor.selectedAlternativeInternalId(ACCESS_MODE);
+    Integer lingerMs = extractor.singleValueParameter(LINGER_MS_KEY, Integer.class);
+    Integer batchSize = extractor.singleValueParameter(BATCH_SIZE_KEY, Integer.class);
+    String compressionType = extractor.selectedSingleValue(COMPRESSION_KEY, String.class);
+
+    String routingMode = extractor.selectedAlternativeInternalId(ROUTING_MODE);
+    KafkaParameters.Routing routing = KafkaParameters.Routing.FIXED_TOPIC;
+    if (routingMode.equals(TOPIC_FROM_FIELD)) {
+      routing = KafkaParameters.Routing.TOPIC_FROM_FIELD;
+    } else if (routingMode.equals(KEY_FROM_FIELD)) {
+      routing = KafkaParameters.Routing.KEY_FROM_FIELD;
+    }
+    String routingFieldSelector = extractor.mappingPropertyValue(ROUTING_FIELD_KEY);
 
     KafkaParameters params;
     if (authentication.equals(ANONYMOUS_ACCESS)) {
-      params = new KafkaParameters(graph, kafkaHost, kafkaPort, topic, authentication, null, null);
+      params = new KafkaParameters(graph, kafkaHost, kafkaPort, topic, authentication, null, null, routing,
+              routingFieldSelector, lingerMs, batchSize, compressionType);
     }
     else {
       String username = extractor.singleValueParameter(USERNAME_KEY, String.class);
       String password = extractor.secretValue(PASSWORD_KEY);
-      params = new KafkaParameters(graph, kafkaHost, kafkaPort, topic, authentication, username, password);
+      params = new KafkaParameters(graph, kafkaHost, kafkaPort, topic, authentication, username, password, routing,
+              routingFieldSelector, lingerMs, batchSize, compressionType);
     }
 
     return new ConfiguredEventSink<>(params, KafkaPublisher::new);
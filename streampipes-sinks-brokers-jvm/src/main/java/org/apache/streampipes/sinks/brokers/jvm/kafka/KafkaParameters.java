@@ -18,21 +18,30 @@
 
 package org.apache.streampipes.sinks.brokers.jvm.kafka;
 
-import com.fasterxml.jackson.databind.JsonSerializer;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
 import org.apache.streampipes.wrapper.params.binding.EventSinkBindingParams;
 
 public class KafkaParameters extends EventSinkBindingParams {
 
+  public enum Routing {
+    FIXED_TOPIC, TOPIC_FROM_FIELD, KEY_FROM_FIELD
+  }
+
   private String kafkaHost;
   private Integer kafkaPort;
   private String topic;
   private String authentication;
   private String username;
   private String password;
+  private Routing routing;
+  private String routingFieldSelector;
+  private Integer lingerMs;
+  private Integer batchSize;
+  private String compressionType;
 
   public KafkaParameters(DataSinkInvocation graph, String kafkaHost, Integer kafkaPort, String topic,
-                         String authentication, String username, String password) {
+                         String authentication, String username, String password, Routing routing,
+                         String routingFieldSelector, Integer lingerMs, Integer batchSize, String compressionType) {
     super(graph);
     this.kafkaHost = kafkaHost;
     this.kafkaPort = kafkaPort;
@@ -40,6 +49,11 @@ public class KafkaParameters extends EventSinkBindingParams {
     this.authentication = authentication;
     this.username = username;
     this.password = password;
+    this.routing = routing;
+    this.routingFieldSelector = routingFieldSelector;
+    this.lingerMs = lingerMs;
+    this.batchSize = batchSize;
+    this.compressionType = compressionType;
   }
 
   public String getKafkaHost() {
@@ -59,4 +73,27 @@ public class KafkaParameters extends EventSinkBindingParams {
   public String getPassword() { return password; }
 
   public String getAuthentication() { return authentication; }
+
+  public Routing getRouting() {
+    return routing;
+  }
+
+  /**
+   * @return the selector of the mapped field which contains the topic or the record key, depending on the routing
+   */
+  public String getRoutingFieldSelector() {
+    return routingFieldSelector;
+  }
+
+  public Integer getLingerMs() {
+    return lingerMs;
+  }
+
+  public Integer getBatchSize() {
+    return batchSize;
+  }
+
+  public String getCompressionType() {
+    return compressionType;
+  }
 }
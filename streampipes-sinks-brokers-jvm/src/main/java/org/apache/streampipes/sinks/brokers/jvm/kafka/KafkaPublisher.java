@@ -18,51 +18,105 @@
 
 package org.apache.streampipes.sinks.brokers.jvm.kafka;
 
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.apache.kafka.common.security.auth.SecurityProtocol;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.dataformat.json.JsonDataFormatDefinition;
-import org.apache.streampipes.messaging.kafka.SpKafkaProducer;
+import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class KafkaPublisher implements EventSink<KafkaParameters> {
 
-  private SpKafkaProducer producer;
+  private static Logger LOG;
+
+  private KafkaProducer<String, byte[]> producer;
   private JsonDataFormatDefinition dataFormatDefinition;
 
+  private String topic;
+  private KafkaParameters.Routing routing;
+  private String routingFieldSelector;
+  private final AtomicLong failedDeliveries = new AtomicLong();
+
   public KafkaPublisher() {
     this.dataFormatDefinition = new JsonDataFormatDefinition();
   }
 
   @Override
   public void onInvocation(KafkaParameters parameters, EventSinkRuntimeContext runtimeContext) throws SpRuntimeException {
-    boolean useAuthentication = parameters.getAuthentication().equals(KafkaController.getSaslAccessKey());
-    if (useAuthentication) {
-      this.producer = new SpKafkaProducer(parameters.getKafkaHost() + ":" + parameters.getKafkaPort(),
-              parameters.getTopic(),
-              parameters.getUsername(),
-              parameters.getPassword());
-    }
-    else {
-      this.producer = new SpKafkaProducer(parameters.getKafkaHost() + ":" + parameters.getKafkaPort(),
-              parameters.getTopic());
-    }
+    LOG = parameters.getGraph().getLogger(KafkaPublisher.class);
+    this.topic = parameters.getTopic();
+    this.routing = parameters.getRouting();
+    this.routingFieldSelector = parameters.getRoutingFieldSelector();
+    this.producer = new KafkaProducer<>(makeProperties(parameters));
   }
 
   @Override
   public void onEvent(Event inputEvent) {
+    Map<String, Object> event = inputEvent.getRaw();
+    byte[] payload;
     try {
-      Map<String, Object> event = inputEvent.getRaw();
-      producer.publish(dataFormatDefinition.fromMap(event));
+      payload = dataFormatDefinition.fromMap(event);
     } catch (SpRuntimeException e) {
-      e.printStackTrace();
+      LOG.error("Could not serialize event: " + e.getMessage());
+      return;
+    }
+
+    String targetTopic = topic;
+    String key = null;
+    if (routing != KafkaParameters.Routing.FIXED_TOPIC) {
+      Object routingValue = inputEvent.getFieldBySelector(routingFieldSelector).getRawValue();
+      if (routingValue != null) {
+        if (routing == KafkaParameters.Routing.TOPIC_FROM_FIELD) {
+          targetTopic = routingValue.toString();
+        } else {
+          key = routingValue.toString();
+        }
+      }
     }
+
+    producer.send(new ProducerRecord<>(targetTopic, key, payload), (metadata, exception) -> {
+      if (exception != null && failedDeliveries.incrementAndGet() % 100 == 1) {
+        LOG.error("Could not deliver event to topic " + targetTopic + " (" + failedDeliveries.get()
+                + " failed deliveries so far): " + exception.getMessage());
+      }
+    });
   }
 
   @Override
   public void onDetach() throws SpRuntimeException {
-    this.producer.disconnect();
+    this.producer.close();
+    if (failedDeliveries.get() > 0) {
+      LOG.warn(failedDeliveries.get() + " events could not be delivered to Kafka");
+    }
+  }
+
+  private Properties makeProperties(KafkaParameters parameters) {
+    Properties props = new Properties();
+    props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, parameters.getKafkaHost() + ":" + parameters.getKafkaPort());
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+    props.put(ProducerConfig.LINGER_MS_CONFIG, parameters.getLingerMs());
+    props.put(ProducerConfig.BATCH_SIZE_CONFIG, parameters.getBatchSize());
+    props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, parameters.getCompressionType());
+
+    if (parameters.getAuthentication().equals(KafkaController.getSaslAccessKey())) {
+      props.put(SaslConfigs.SASL_JAAS_CONFIG, "org.apache.kafka.common.security.plain.PlainLoginModule required " +
+              "username=\"" + parameters.getUsername() + "\" password=\"" + parameters.getPassword() + "\";");
+      props.put(SaslConfigs.SASL_MECHANISM, "PLAIN");
+      props.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, SecurityProtocol.SASL_PLAINTEXT.toString());
+    }
+    return props;
   }
 }
@@ -19,24 +19,41 @@ package org.apache.streampipes.sinks.brokers.jvm.mqtt;
 
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.dataformat.json.JsonDataFormatDefinition;
+import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.statistics.WriteStatistics;
 import org.apache.streampipes.sinks.brokers.jvm.mqtt.common.MqttOptions;
 import org.apache.streampipes.sinks.brokers.jvm.mqtt.common.MqttUtils;
 import org.apache.streampipes.wrapper.standalone.SinkParams;
-import org.fusesource.mqtt.client.BlockingConnection;
+import org.fusesource.mqtt.client.Callback;
+import org.fusesource.mqtt.client.FutureConnection;
 import org.fusesource.mqtt.client.MQTT;
 
 import java.net.URI;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class MqttClient {
 
+    private static final long STATISTICS_LOG_INTERVAL_MS = 60000;
+    private static final long DISCONNECT_TIMEOUT_MS = 5000;
+
     private final MqttOptions options;
+    private final Logger logger;
+    private final JsonDataFormatDefinition dataFormatDefinition;
+    private final Semaphore inFlightWindow;
+    private final WriteStatistics statistics;
+    private long lastStatisticsLog;
     private URI uri;
     private MQTT mqtt;
-    private BlockingConnection conn;
+    private FutureConnection conn;
 
     public MqttClient(SinkParams params) {
         this.options = new MqttOptions(params);
+        this.logger = params.getGraph().getLogger(MqttClient.class);
+        this.dataFormatDefinition = new JsonDataFormatDefinition();
+        this.inFlightWindow = new Semaphore(options.getMaxInFlight());
+        this.statistics = new WriteStatistics("messages");
         this.createMqttClient();
     }
 
@@ -121,12 +138,13 @@ public class MqttClient {
     }
 
     /**
-     * Start blocking connection to MQTT broker.
+     * Start non-blocking connection to MQTT broker and wait until it is established.
      */
     public void connect() {
         try {
-            this.conn = mqtt.blockingConnection();
-            this.conn.connect();
+            this.conn = mqtt.futureConnection();
+            this.conn.connect().await();
+            this.lastStatisticsLog = System.currentTimeMillis();
         } catch (Exception e) {
             throw new SpRuntimeException("Could not connect to MQTT broker: "
                     + uri.toString() + ", " + e.getMessage(), e);
@@ -134,26 +152,58 @@ public class MqttClient {
     }
 
     /**
-     * Publish received event to MQTT broker.
+     * Publish received event to MQTT broker. The call returns as soon as the message is handed to the connection;
+     * it only blocks if the configured number of messages is still waiting for an acknowledgement.
      * @param event event to be published
      */
     public void publish(Event event) {
-        JsonDataFormatDefinition dataFormatDefinition = new JsonDataFormatDefinition();
-        byte[] payload = new String(dataFormatDefinition.fromMap(event.getRaw())).getBytes();
+        byte[] payload = dataFormatDefinition.fromMap(event.getRaw());
         try {
-            this.conn.publish(options.getTopic(), payload, options.getQos(), options.isRetain());
-        } catch (Exception e) {
-            throw new SpRuntimeException("Could not publish to MQTT broker: "
-                    + uri.toString() + ", " + e.getMessage(), e);
+            inFlightWindow.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SpRuntimeException("Interrupted while waiting to publish to MQTT broker: " + uri.toString(), e);
+        }
+
+        long sendTimestamp = System.nanoTime();
+        this.conn.publish(options.getTopic(), payload, options.getQos(), options.isRetain()).then(
+                new Callback<Void>() {
+                    @Override
+                    public void onSuccess(Void value) {
+                        inFlightWindow.release();
+                        statistics.recordWrite(1, System.nanoTime() - sendTimestamp);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable value) {
+                        inFlightWindow.release();
+                        if (statistics.recordFailed() == 1) {
+                            logger.error("Could not publish to MQTT broker: " + uri.toString() + ", "
+                                    + value.getMessage());
+                        }
+                    }
+                });
+
+        if (System.currentTimeMillis() - lastStatisticsLog >= STATISTICS_LOG_INTERVAL_MS) {
+            lastStatisticsLog = System.currentTimeMillis();
+            logger.info("Publish statistics of topic " + options.getTopic() + ": " + statistics);
         }
     }
 
+    public WriteStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
-     * Disconnect from MQTT broker.
+     * Wait for outstanding acknowledgements and disconnect from MQTT broker.
      */
     public void disconnect() {
         try {
-            this.conn.disconnect();
+            if (!inFlightWindow.tryAcquire(options.getMaxInFlight(), DISCONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                logger.warn("Not all messages were acknowledged by the MQTT broker before disconnecting");
+            }
+            logger.info("Publish statistics of topic " + options.getTopic() + ": " + statistics);
+            this.conn.disconnect().await(DISCONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
         } catch (Exception e) {
             throw new SpRuntimeException("Could not disconnect from MQTT broker: "
                     + uri.toString() + ", " + e.getMessage(), e);
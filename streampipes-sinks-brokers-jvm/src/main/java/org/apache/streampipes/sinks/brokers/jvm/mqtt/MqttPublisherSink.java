@@ -37,6 +37,7 @@ public class MqttPublisherSink extends StreamPipesDataSink {
     private static final int DEFAULT_MQTT_PORT = 1883;
     private static final int DEFAULT_RECONNECT_PERIOD = 30;
     private static final int DEFAULT_KEEP_ALIVE = 30;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 32;
 
     public static final String TOPIC = "topic";
     public static final String HOST = "host";
@@ -62,6 +63,7 @@ public class MqttPublisherSink extends StreamPipesDataSink {
     public static final String RETAIN = "retain";
     public static final String KEEP_ALIVE_IN_SEC = "keep-alive";
     public static final String MQTT_COMPLIANT = "mqtt-version-compliant";
+    public static final String MAX_IN_FLIGHT = "max-in-flight";
 
     private MqttClient mqttClient;
 
@@ -105,6 +107,7 @@ public class MqttPublisherSink extends StreamPipesDataSink {
                                 new Option("No", false)))
                 .requiredIntegerParameter(Labels.withId(RECONNECT_PERIOD_IN_SEC), DEFAULT_RECONNECT_PERIOD)
                 .requiredIntegerParameter(Labels.withId(KEEP_ALIVE_IN_SEC), DEFAULT_KEEP_ALIVE)
+                .requiredIntegerParameter(Labels.withId(MAX_IN_FLIGHT), DEFAULT_MAX_IN_FLIGHT)
                 .requiredSingleValueSelection(
                         Labels.withId(MQTT_COMPLIANT),
                         Arrays.asList(
@@ -35,6 +35,7 @@ public class MqttOptions {
     private final boolean cleanSession;
     private final boolean retain;
     private final short keepAliveInSec;
+    private final int maxInFlight;
 
     private String username = "";
     private String password = "";
@@ -61,6 +62,7 @@ public class MqttOptions {
         this.keepAliveInSec = extract.singleValueParameter(KEEP_ALIVE_IN_SEC, Short.class);
         this.cleanSession = MqttUtils.extractBoolean(extract.selectedSingleValue(CLEAN_SESSION_KEY, String.class));
         this.retain = MqttUtils.extractBoolean(extract.selectedSingleValue(RETAIN, String.class));
+        this.maxInFlight = Math.max(extract.singleValueParameter(MAX_IN_FLIGHT, Integer.class), 1);
 
         boolean isCompliant = MqttUtils.extractBoolean(extract.selectedSingleValue(MQTT_COMPLIANT, String.class));
         if (isCompliant) {
@@ -124,6 +126,10 @@ public class MqttOptions {
         return keepAliveInSec;
     }
 
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.brokers.jvm.rabbitmq;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.ShutdownSignalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A channel which publishes to a single routing key. With publisher confirms enabled, unconfirmed messages are kept
+ * until the broker acknowledges them; nacked messages are queued and published again by the next call of
+ * {@link #publish(byte[])}. The number of unconfirmed messages is bounded by a window which is shared by all channels
+ * of a publisher. If the channel is shut down, the permits of its unconfirmed messages are returned to the window.
+ */
+public class PublisherChannel implements ConfirmListener {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PublisherChannel.class);
+
+  private static final long CONFIRM_WINDOW_TIMEOUT_MS = 10000;
+
+  private final Channel channel;
+  private final String exchangeName;
+  private final String topic;
+  private final Semaphore confirmWindow;
+  private final ConcurrentNavigableMap<Long, byte[]> unconfirmed = new ConcurrentSkipListMap<>();
+  // nacked messages which still hold their permit of the confirm window
+  private final Queue<byte[]> retries = new ConcurrentLinkedQueue<>();
+
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong confirmed = new AtomicLong();
+  private final AtomicLong nacked = new AtomicLong();
+
+  /**
+   * @param confirmWindow   The window which bounds unconfirmed messages, or null to publish without confirms
+   * @param shutdownHandler Is called once the channel has been shut down (e.g. to remove it from a cache)
+   */
+  public PublisherChannel(Channel channel, String exchangeName, String topic, Semaphore confirmWindow,
+                          Consumer<PublisherChannel> shutdownHandler) throws IOException {
+    this.channel = channel;
+    this.exchangeName = exchangeName;
+    this.topic = topic;
+    this.confirmWindow = confirmWindow;
+
+    if (confirmWindow != null) {
+      channel.confirmSelect();
+      channel.addConfirmListener(this);
+    }
+    channel.addShutdownListener(cause -> {
+      onShutdown(cause);
+      shutdownHandler.accept(this);
+    });
+  }
+
+  /**
+   * Publishes the nacked messages again and then the given message. Waits at most
+   * {@link PublisherChannel#CONFIRM_WINDOW_TIMEOUT_MS} for a permit of the confirm window.
+   *
+   * @throws IOException If the message could not be published or no permit was available in time
+   */
+  public void publish(byte[] event) throws IOException {
+    publishRetries();
+    if (confirmWindow != null) {
+      try {
+        if (!confirmWindow.tryAcquire(CONFIRM_WINDOW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          throw new IOException("Too many unconfirmed messages, no confirmation within "
+                  + CONFIRM_WINDOW_TIMEOUT_MS + " ms");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the confirm window");
+      }
+    }
+    send(event);
+  }
+
+  /**
+   * Sends a message which already holds a permit of the confirm window. The permit is released if the message
+   * could not be sent, for whatever reason.
+   */
+  private synchronized void send(byte[] event) throws IOException {
+    long sequenceNumber = channel.getNextPublishSeqNo();
+    if (confirmWindow != null) {
+      unconfirmed.put(sequenceNumber, event);
+    }
+    boolean sent = false;
+    try {
+      channel.basicPublish(exchangeName, topic, null, event);
+      published.incrementAndGet();
+      sent = true;
+    } finally {
+      if (!sent && confirmWindow != null && unconfirmed.remove(sequenceNumber) != null) {
+        confirmWindow.release();
+      }
+    }
+  }
+
+  private void publishRetries() {
+    byte[] event;
+    while ((event = retries.poll()) != null) {
+      try {
+        // the permit of the nacked message is passed on to the new attempt
+        send(event);
+      } catch (IOException | RuntimeException e) {
+        LOG.error("Could not publish nacked message to topic {} again: {}", topic, e.getMessage());
+      }
+    }
+  }
+
+  @Override
+  public void handleAck(long deliveryTag, boolean multiple) {
+    int count = removeUnconfirmed(deliveryTag, multiple).size();
+    confirmed.addAndGet(count);
+    confirmWindow.release(count);
+  }
+
+  /**
+   * Called on the connection thread, so the nacked messages are only queued for the publishing thread.
+   */
+  @Override
+  public void handleNack(long deliveryTag, boolean multiple) {
+    List<byte[]> events = removeUnconfirmed(deliveryTag, multiple);
+    nacked.addAndGet(events.size());
+    retries.addAll(events);
+  }
+
+  private List<byte[]> removeUnconfirmed(long deliveryTag, boolean multiple) {
+    List<byte[]> events = new ArrayList<>();
+    if (multiple) {
+      Map<Long, byte[]> confirmedEvents = unconfirmed.headMap(deliveryTag, true);
+      events.addAll(confirmedEvents.values());
+      confirmedEvents.clear();
+    } else {
+      byte[] event = unconfirmed.remove(deliveryTag);
+      if (event != null) {
+        events.add(event);
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Returns the permits of all messages which will never be confirmed, since the channel is closed.
+   */
+  private void onShutdown(ShutdownSignalException cause) {
+    if (confirmWindow == null) {
+      return;
+    }
+    int lost = 0;
+    for (Long sequenceNumber : unconfirmed.keySet()) {
+      if (unconfirmed.remove(sequenceNumber) != null) {
+        lost++;
+      }
+    }
+    while (retries.poll() != null) {
+      lost++;
+    }
+    confirmWindow.release(lost);
+    if (lost > 0 || !cause.isInitiatedByApplication()) {
+      LOG.warn("Channel for topic {} was shut down, {} unconfirmed messages are lost: {}", topic, lost,
+              cause.getMessage());
+    }
+  }
+
+  /**
+   * Waits until all published messages are confirmed (if confirms are enabled) and closes the channel.
+   */
+  public void close(long confirmTimeoutMs) {
+    if (!channel.isOpen()) {
+      return;
+    }
+    publishRetries();
+    try {
+      if (confirmWindow != null && !channel.waitForConfirms(confirmTimeoutMs)) {
+        LOG.warn("Some messages to topic {} were nacked by the broker", topic);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (TimeoutException e) {
+      LOG.warn("{} messages to topic {} were not confirmed before closing", unconfirmed.size(), topic);
+    }
+    try {
+      channel.close();
+    } catch (IOException | TimeoutException | ShutdownSignalException e) {
+      LOG.error("Could not close channel for topic {}", topic);
+    }
+  }
+
+  public long getPublished() {
+    return published.get();
+  }
+
+  public long getConfirmed() {
+    return confirmed.get();
+  }
+
+  public long getNacked() {
+    return nacked.get();
+  }
+}
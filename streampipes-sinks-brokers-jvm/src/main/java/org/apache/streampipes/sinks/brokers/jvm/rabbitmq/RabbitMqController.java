@@ -20,6 +20,7 @@ package org.apache.streampipes.sinks.brokers.jvm.rabbitmq;
 
 import org.apache.streampipes.model.graph.DataSinkDescription;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
+import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.DataSinkBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.DataSinkParameterExtractor;
@@ -31,6 +32,8 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventSink;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventSinkDeclarer;
 
+import java.util.Arrays;
+
 public class RabbitMqController extends StandaloneEventSinkDeclarer<RabbitMqParameters> {
 
   private static final String RABBITMQ_BROKER_SETTINGS_KEY = "broker-settings";
@@ -41,6 +44,8 @@ public class RabbitMqController extends StandaloneEventSinkDeclarer<RabbitMqPara
   private static final String USER_KEY = "user";
   private static final String PASSWORD_KEY = "password";
   private static final String EXCHANGE_NAME_KEY = "exchange-name";
+  private static final String PUBLISHER_CONFIRMS_KEY = "publisher-confirms";
+  private static final String MAX_UNCONFIRMED_KEY = "max-unconfirmed";
 
 
 //  private static final String RABBITMQ_HOST_URI = "http://schema.org/rabbitMqHost";
@@ -63,6 +68,9 @@ public class RabbitMqController extends StandaloneEventSinkDeclarer<RabbitMqPara
             .requiredIntegerParameter(Labels.withId(PORT_KEY), 5672)
             .requiredTextParameter(Labels.withId(USER_KEY), false, false)
             .requiredSecret(Labels.withId(PASSWORD_KEY))
+            .requiredSingleValueSelection(Labels.withId(PUBLISHER_CONFIRMS_KEY),
+                    Arrays.asList(new Option("Yes", false), new Option("No", true)))
+            .requiredIntegerParameter(Labels.withId(MAX_UNCONFIRMED_KEY), 1000)
 //            .requiredTextParameter(Labels.withId(EXCHANGE_NAME_KEY), false, false)
 //            .requiredOntologyConcept(Labels.withId(RABBITMQ_BROKER_SETTINGS_KEY),
 //                    OntologyProperties.mandatory(RABBITMQ_HOST_URI),
@@ -96,9 +104,11 @@ public class RabbitMqController extends StandaloneEventSinkDeclarer<RabbitMqPara
     String rabbitMqPassword = extractor.secretValue(PASSWORD_KEY);
 //    String exchangeName = extractor.singleValueParameter(EXCHANGE_NAME_KEY, String.class);
     String exchangeName = "logs";
+    boolean publisherConfirms = extractor.selectedSingleValue(PUBLISHER_CONFIRMS_KEY, String.class).equals("Yes");
+    Integer maxUnconfirmed = Math.max(extractor.singleValueParameter(MAX_UNCONFIRMED_KEY, Integer.class), 1);
 
     RabbitMqParameters params = new RabbitMqParameters(graph, rabbitMqHost, rabbitMqPort, publisherTopic,
-            rabbitMqUser, rabbitMqPassword, exchangeName);
+            rabbitMqUser, rabbitMqPassword, exchangeName, publisherConfirms, maxUnconfirmed);
 
     return new ConfiguredEventSink<>(params, RabbitMqConsumer::new);
 
@@ -29,9 +29,12 @@ public class RabbitMqParameters extends EventSinkBindingParams {
   private String rabbitMqUser;
   private String rabbitMqPassword;
   private String exchangeName;
+  private boolean publisherConfirms;
+  private Integer maxUnconfirmed;
 
   public RabbitMqParameters(DataSinkInvocation graph, String rabbitMqHost, Integer rabbitMqPort, String rabbitMqTopic,
-                            String rabbitMqUser, String rabbitMqPassword, String exchangeName) {
+                            String rabbitMqUser, String rabbitMqPassword, String exchangeName,
+                            boolean publisherConfirms, Integer maxUnconfirmed) {
     super(graph);
     this.rabbitMqHost = rabbitMqHost;
     this.rabbitMqPort = rabbitMqPort;
@@ -39,6 +42,8 @@ public class RabbitMqParameters extends EventSinkBindingParams {
     this.rabbitMqUser = rabbitMqUser;
     this.rabbitMqPassword = rabbitMqPassword;
     this.exchangeName = exchangeName;
+    this.publisherConfirms = publisherConfirms;
+    this.maxUnconfirmed = maxUnconfirmed;
 
   }
 
@@ -65,4 +70,12 @@ public class RabbitMqParameters extends EventSinkBindingParams {
   public String getExchangeName() {
     return exchangeName;
   }
+
+  public boolean isPublisherConfirms() {
+    return publisherConfirms;
+  }
+
+  public Integer getMaxUnconfirmed() {
+    return maxUnconfirmed;
+  }
 }
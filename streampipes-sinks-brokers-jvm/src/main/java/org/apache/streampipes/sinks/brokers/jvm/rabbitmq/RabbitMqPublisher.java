@@ -21,18 +21,24 @@ package org.apache.streampipes.sinks.brokers.jvm.rabbitmq;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
-import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import com.rabbitmq.client.ShutdownSignalException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RabbitMqPublisher {
 
-  private Map<String, Channel> queueMap;
+  private static final long CONFIRM_TIMEOUT_MS = 5000;
+
+  private final Map<String, PublisherChannel> queueMap;
   private boolean errorMode;
 
   private ConnectionFactory factory;
@@ -41,13 +47,21 @@ public class RabbitMqPublisher {
   private RabbitMqParameters params;
 
   private String exchangeName;
+  private Semaphore confirmWindow;
+  // counts of the channels which have been removed
+  private final AtomicLong removedPublished = new AtomicLong();
+  private final AtomicLong removedConfirmed = new AtomicLong();
+  private final AtomicLong removedNacked = new AtomicLong();
   private static final Logger LOG = LoggerFactory.getLogger(RabbitMqPublisher.class);
 
   public RabbitMqPublisher(RabbitMqParameters params) {
+    this.queueMap = new ConcurrentHashMap<>();
     try {
-      this.queueMap = new HashMap<>();
       this.params = params;
       this.exchangeName = params.getExchangeName();
+      if (params.isPublisherConfirms()) {
+        this.confirmWindow = new Semaphore(params.getMaxUnconfirmed());
+      }
       setupConnection();
 
       this.errorMode = false;
@@ -71,53 +85,75 @@ public class RabbitMqPublisher {
   }
 
   public boolean isConnected()  {
-    return this.connection.isOpen();
+    return this.connection != null && this.connection.isOpen();
   }
 
   public void fire(byte[] event, String topic) {
-    if (!channelActive(topic)) {
-      setupChannel(topic);
+    PublisherChannel channel = queueMap.computeIfAbsent(topic, this::setupChannel);
+    if (channel == null) {
+      return;
     }
     try {
-      queueMap.get(topic).basicPublish(exchangeName, topic, null, event);
-    } catch (IOException e) {
-      e.printStackTrace();
+      channel.publish(event);
+    } catch (IOException | ShutdownSignalException e) {
+      LOG.error("Could not publish event to topic {}: {}", topic, e.getMessage());
     }
   }
 
-  private void setupChannel(String topic) {
+  private PublisherChannel setupChannel(String topic) {
     try {
       Channel channel = connection.createChannel();
       channel.exchangeDeclare(exchangeName, "topic", true, false, null);
 
-      queueMap.put(topic, channel);
-    } catch (IOException e) {
-      e.printStackTrace();
+      // a channel which has been shut down is removed, the next event to the topic opens a new one
+      return new PublisherChannel(channel, exchangeName, topic, confirmWindow,
+              closedChannel -> removeChannel(topic, closedChannel));
+    } catch (IOException | ShutdownSignalException e) {
+      LOG.error("Could not create channel for topic {}: {}", topic, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Removes the channel from the cache and adds its counts to the counts of the removed channels. The counts are
+   * only added once, by the call which actually removed the channel.
+   */
+  private void removeChannel(String topic, PublisherChannel channel) {
+    if (queueMap.remove(topic, channel)) {
+      removedPublished.addAndGet(channel.getPublished());
+      removedConfirmed.addAndGet(channel.getConfirmed());
+      removedNacked.addAndGet(channel.getNacked());
     }
   }
 
-  private boolean channelActive(String topic) {
-    return queueMap.containsKey(topic);
+  /**
+   * @return the number of messages published since the publisher was created, including removed channels
+   */
+  public long getPublishedCount() {
+    return removedPublished.get() + queueMap.values().stream().mapToLong(PublisherChannel::getPublished).sum();
+  }
+
+  public long getConfirmedCount() {
+    return removedConfirmed.get() + queueMap.values().stream().mapToLong(PublisherChannel::getConfirmed).sum();
+  }
+
+  public long getNackedCount() {
+    return removedNacked.get() + queueMap.values().stream().mapToLong(PublisherChannel::getNacked).sum();
   }
 
   public void cleanup() {
-    queueMap
-            .keySet()
-            .stream()
-            .map(key -> queueMap.get(key))
-            .forEach(channel -> {
-              try {
-                channel.close();
-              } catch (IOException e) {
-                e.printStackTrace();
-              } catch (TimeoutException e) {
-                e.printStackTrace();
-              }
-            });
+    List<Map.Entry<String, PublisherChannel>> channels = new ArrayList<>(queueMap.entrySet());
+    for (Map.Entry<String, PublisherChannel> channel : channels) {
+      channel.getValue().close(CONFIRM_TIMEOUT_MS);
+      // closed channels usually remove themselves already
+      removeChannel(channel.getKey(), channel.getValue());
+    }
+    LOG.info("Published {} messages ({} confirmed, {} nacked)", getPublishedCount(), getConfirmedCount(),
+            getNackedCount());
     try {
       connection.close();
     } catch (IOException e) {
-      e.printStackTrace();
+      LOG.error("Could not close connection: {}", e.getMessage());
     }
   }
 
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.brokers.jvm.rest;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.apache.streampipes.logging.api.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Posts request bodies to a REST endpoint over a pool of keep-alive connections.
+ *
+ * In asynchronous mode, requests are sent from a dedicated pool of threads and failed requests are retried with
+ * exponential backoff on the same pool, so the caller never blocks. The number of requests which are in flight
+ * (including those waiting for a retry) is bounded; bodies which exceed this limit are dropped and counted.
+ */
+public class PooledRestClient {
+
+  private static final int CONNECT_TIMEOUT_MS = 1000;
+  private static final int SOCKET_TIMEOUT_MS = 100000;
+  private static final long INITIAL_BACKOFF_MS = 100;
+  private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+  private final String url;
+  private final ContentType contentType;
+  private final boolean gzip;
+  private final int maxRetries;
+  private final int maxInFlightRequests;
+  private final Logger logger;
+
+  private final CloseableHttpClient httpClient;
+  private final ScheduledExecutorService senderPool;
+  private final Semaphore inFlightRequests;
+  private final AtomicLong droppedRequests = new AtomicLong();
+  private final AtomicLong failedRequests = new AtomicLong();
+
+  public PooledRestClient(String url,
+                          ContentType contentType,
+                          boolean asynchronous,
+                          int maxInFlightRequests,
+                          int maxRetries,
+                          boolean gzip,
+                          Logger logger) {
+    this.url = url;
+    this.contentType = contentType;
+    this.gzip = gzip;
+    this.maxRetries = maxRetries;
+    this.maxInFlightRequests = maxInFlightRequests;
+    this.logger = logger;
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxInFlightRequests);
+    connectionManager.setDefaultMaxPerRoute(maxInFlightRequests);
+    this.httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                    .setConnectTimeout(CONNECT_TIMEOUT_MS)
+                    .setSocketTimeout(SOCKET_TIMEOUT_MS)
+                    .build())
+            .build();
+
+    if (asynchronous) {
+      this.senderPool = new ScheduledThreadPoolExecutor(maxInFlightRequests);
+      this.inFlightRequests = new Semaphore(maxInFlightRequests);
+    } else {
+      this.senderPool = null;
+      this.inFlightRequests = null;
+    }
+  }
+
+  /**
+   * Sends the given body. In synchronous mode, the request is executed on the calling thread without retries.
+   */
+  public void send(byte[] body) {
+    if (senderPool == null) {
+      try {
+        post(body);
+      } catch (IOException e) {
+        logger.error("Error while sending data to endpoint: " + url + " Exception: " + e);
+      }
+    } else if (inFlightRequests.tryAcquire()) {
+      try {
+        senderPool.execute(() -> attempt(body, 0));
+      } catch (RejectedExecutionException e) {
+        inFlightRequests.release();
+        logger.warn("Request to endpoint " + url + " dropped, the client is closed");
+      }
+    } else if (droppedRequests.incrementAndGet() % 100 == 1) {
+      logger.warn("Too many requests in flight to endpoint " + url + ", " + droppedRequests.get()
+              + " requests dropped so far");
+    }
+  }
+
+  /**
+   * Waits for requests which are still in flight and releases all connections.
+   */
+  public void close() {
+    if (senderPool != null) {
+      try {
+        if (!inFlightRequests.tryAcquire(maxInFlightRequests, SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          logger.warn("Requests to endpoint " + url + " did not complete within " + SHUTDOWN_TIMEOUT_MS + " ms");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      senderPool.shutdownNow();
+      if (droppedRequests.get() > 0 || failedRequests.get() > 0) {
+        logger.warn(droppedRequests.get() + " requests were dropped and " + failedRequests.get()
+                + " requests failed after retrying");
+      }
+    }
+    try {
+      httpClient.close();
+    } catch (IOException e) {
+      logger.error("Could not close connection pool: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Executes one attempt of a request. The permit of the request is released in any case, unless a retry has been
+   * scheduled which then owns the permit.
+   */
+  private void attempt(byte[] body, int retry) {
+    boolean retryScheduled = false;
+    try {
+      post(body);
+    } catch (IOException e) {
+      if (retry < maxRetries && !senderPool.isShutdown()) {
+        senderPool.schedule(() -> attempt(body, retry + 1), INITIAL_BACKOFF_MS << retry, TimeUnit.MILLISECONDS);
+        retryScheduled = true;
+      } else {
+        failedRequests.incrementAndGet();
+        logger.error("Error while sending data to endpoint: " + url + " Exception: " + e);
+      }
+    } catch (RuntimeException e) {
+      failedRequests.incrementAndGet();
+      logger.error("Error while sending data to endpoint: " + url + " Exception: " + e);
+    } finally {
+      if (!retryScheduled) {
+        inFlightRequests.release();
+      }
+    }
+  }
+
+  /**
+   * Executes a single request. Server errors (5xx) and rate limiting (429) are reported as {@link IOException}
+   * so that they are retried, other responses are consumed and ignored.
+   */
+  private void post(byte[] body) throws IOException {
+    HttpPost request = new HttpPost(url);
+    if (gzip) {
+      request.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+      request.setEntity(new ByteArrayEntity(compress(body), contentType));
+    } else {
+      request.setEntity(new ByteArrayEntity(body, contentType));
+    }
+
+    try (CloseableHttpResponse response = httpClient.execute(request)) {
+      EntityUtils.consume(response.getEntity());
+      int statusCode = response.getStatusLine().getStatusCode();
+      if (statusCode >= 500 || statusCode == 429) {
+        throw new IOException("Endpoint responded with status " + statusCode);
+      }
+    }
+  }
+
+  private byte[] compress(byte[] body) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 64);
+    try (GZIPOutputStream gzipStream = new GZIPOutputStream(out)) {
+      gzipStream.write(body);
+    }
+    return out.toByteArray();
+  }
+}
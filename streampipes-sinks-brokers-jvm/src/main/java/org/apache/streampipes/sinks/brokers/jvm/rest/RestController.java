@@ -21,6 +21,7 @@ package org.apache.streampipes.sinks.brokers.jvm.rest;
 
 import org.apache.streampipes.model.graph.DataSinkDescription;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
+import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.DataSinkBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.DataSinkParameterExtractor;
@@ -31,9 +32,25 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventSink;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventSinkDeclarer;
 
+import java.util.Arrays;
+
 public class RestController extends StandaloneEventSinkDeclarer<RestParameters> {
 
   private static final String URL_KEY = "url-key";
+  private static final String SEND_MODE_KEY = "send-mode";
+  private static final String MAX_IN_FLIGHT_KEY = "max-in-flight";
+  private static final String MAX_RETRIES_KEY = "max-retries";
+  private static final String BATCH_SIZE_KEY = "batch-size";
+  private static final String MAX_LINGER_KEY = "max-linger";
+  private static final String BATCH_FORMAT_KEY = "batch-format";
+  private static final String COMPRESSION_KEY = "compression";
+
+  private static final String SYNCHRONOUS = "Synchronous";
+  private static final String ASYNCHRONOUS = "Asynchronous";
+  private static final String JSON_ARRAY = "JSON array";
+  private static final String NDJSON = "Newline-delimited JSON";
+  private static final String NO_COMPRESSION = "None";
+  private static final String GZIP = "GZIP";
 
   @Override
   public DataSinkDescription declareModel() {
@@ -46,6 +63,16 @@ public class RestController extends StandaloneEventSinkDeclarer<RestParameters>
                     .build())
             .requiredTextParameter(Labels.withId(URL_KEY),
                     false, false)
+            .requiredSingleValueSelection(Labels.withId(SEND_MODE_KEY),
+                    Arrays.asList(new Option(SYNCHRONOUS, true), new Option(ASYNCHRONOUS, false)))
+            .requiredIntegerParameter(Labels.withId(MAX_IN_FLIGHT_KEY), 8)
+            .requiredIntegerParameter(Labels.withId(MAX_RETRIES_KEY), 3)
+            .requiredIntegerParameter(Labels.withId(BATCH_SIZE_KEY), 1)
+            .requiredIntegerParameter(Labels.withId(MAX_LINGER_KEY), 1000)
+            .requiredSingleValueSelection(Labels.withId(BATCH_FORMAT_KEY),
+                    Arrays.asList(new Option(JSON_ARRAY, true), new Option(NDJSON, false)))
+            .requiredSingleValueSelection(Labels.withId(COMPRESSION_KEY),
+                    Arrays.asList(new Option(NO_COMPRESSION, true), new Option(GZIP, false)))
             .build();
   }
 
@@ -53,8 +80,16 @@ public class RestController extends StandaloneEventSinkDeclarer<RestParameters>
   public ConfiguredEventSink<RestParameters> onInvocation(DataSinkInvocation graph, DataSinkParameterExtractor extractor) {
 
     String url = extractor.singleValueParameter(URL_KEY, String.class);
+    boolean asynchronous = extractor.selectedSingleValue(SEND_MODE_KEY, String.class).equals(ASYNCHRONOUS);
+    int maxInFlight = extractor.singleValueParameter(MAX_IN_FLIGHT_KEY, Integer.class);
+    int maxRetries = extractor.singleValueParameter(MAX_RETRIES_KEY, Integer.class);
+    int batchSize = extractor.singleValueParameter(BATCH_SIZE_KEY, Integer.class);
+    int maxLinger = extractor.singleValueParameter(MAX_LINGER_KEY, Integer.class);
+    boolean ndjson = extractor.selectedSingleValue(BATCH_FORMAT_KEY, String.class).equals(NDJSON);
+    boolean gzip = extractor.selectedSingleValue(COMPRESSION_KEY, String.class).equals(GZIP);
 
-    RestParameters params = new RestParameters(graph, url);
+    RestParameters params = new RestParameters(graph, url, asynchronous, maxInFlight, maxRetries, batchSize,
+            maxLinger, ndjson, gzip);
 
     return new ConfiguredEventSink<>(params, RestPublisher::new);
   }
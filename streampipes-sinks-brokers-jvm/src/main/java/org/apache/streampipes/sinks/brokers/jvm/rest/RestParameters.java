@@ -24,13 +24,63 @@ import org.apache.streampipes.wrapper.params.binding.EventSinkBindingParams;
 public class RestParameters extends EventSinkBindingParams {
 
   private String url;
+  private boolean asynchronous;
+  private int maxInFlightRequests;
+  private int maxRetries;
+  private int batchSize;
+  private int maxLinger;
+  private boolean ndjson;
+  private boolean gzip;
 
-  public RestParameters(DataSinkInvocation graph, String url) {
+  public RestParameters(DataSinkInvocation graph,
+                        String url,
+                        boolean asynchronous,
+                        int maxInFlightRequests,
+                        int maxRetries,
+                        int batchSize,
+                        int maxLinger,
+                        boolean ndjson,
+                        boolean gzip) {
     super(graph);
     this.url = url;
+    this.asynchronous = asynchronous;
+    this.maxInFlightRequests = maxInFlightRequests;
+    this.maxRetries = maxRetries;
+    this.batchSize = batchSize;
+    this.maxLinger = maxLinger;
+    this.ndjson = ndjson;
+    this.gzip = gzip;
   }
 
   public String getUrl() {
     return url;
   }
+
+  public boolean isAsynchronous() {
+    return asynchronous;
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public int getMaxLinger() {
+    return maxLinger;
+  }
+
+  public boolean isNdjson() {
+    return ndjson;
+  }
+
+  public boolean isGzip() {
+    return gzip;
+  }
 }
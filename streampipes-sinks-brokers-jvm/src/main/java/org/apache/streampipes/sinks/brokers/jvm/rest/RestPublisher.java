@@ -18,53 +18,92 @@
 
 package org.apache.streampipes.sinks.brokers.jvm.rest;
 
-import org.apache.http.client.fluent.Request;
 import org.apache.http.entity.ContentType;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.dataformat.json.JsonDataFormatDefinition;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.batch.BatchBuffer;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
-import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
 
 public class RestPublisher implements EventSink<RestParameters> {
   private static Logger logger;
 
-  private String url;
+  private static final ContentType NDJSON = ContentType.create("application/x-ndjson");
+
   private JsonDataFormatDefinition jsonDataFormatDefinition;
+  private PooledRestClient client;
+
+  private boolean ndjson;
+  private BatchBuffer<byte[], RuntimeException> batchBuffer;
 
   @Override
   public void onInvocation(RestParameters params, EventSinkRuntimeContext runtimeContext) throws SpRuntimeException {
-    this.url = params.getUrl();
     logger = params.getGraph().getLogger(RestPublisher.class);
     jsonDataFormatDefinition = new JsonDataFormatDefinition();
+
+    this.ndjson = params.isNdjson();
+    this.batchBuffer = new BatchBuffer<>(params.getBatchSize(), params.getMaxLinger(), this::flush,
+            e -> logger.error("Error while sending batch: " + e));
+    this.client = new PooledRestClient(params.getUrl(),
+            ndjson && batchBuffer.isBatching() ? NDJSON : ContentType.APPLICATION_JSON,
+            params.isAsynchronous(),
+            Math.max(params.getMaxInFlightRequests(), 1),
+            Math.max(params.getMaxRetries(), 0),
+            params.isGzip(),
+            logger);
   }
 
   @Override
   public void onEvent(Event inputEvent) {
 
-    byte[] json = null;
+    byte[] json;
     try {
       json = jsonDataFormatDefinition.fromMap(inputEvent.getRaw());
     } catch (SpRuntimeException e) {
       logger.error("Error while serializing event: " + inputEvent.getSourceInfo().getSourceId() + " Exception:" +
               " " + e);
+      return;
     }
 
-    try {
-      Request.Post(url)
-              .bodyByteArray(json, ContentType.APPLICATION_JSON)
-              .connectTimeout(1000)
-              .socketTimeout(100000)
-              .execute().returnContent().asString();
-    } catch (IOException e) {
-      logger.error("Error while sending data to endpoint: " + url + " Exception: " + e);
+    if (batchBuffer.isBatching()) {
+      batchBuffer.add(json);
+    } else {
+      client.send(json);
     }
   }
 
   @Override
   public void onDetach() throws SpRuntimeException {
+    batchBuffer.close();
+    client.close();
+  }
+
+  /**
+   * Sends the events with a single request, either as a JSON array or as newline-delimited JSON.
+   */
+  private void flush(List<byte[]> events) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    if (!ndjson) {
+      body.write('[');
+    }
+    for (int i = 0; i < events.size(); i++) {
+      if (i > 0 && !ndjson) {
+        body.write(',');
+      }
+      byte[] json = events.get(i);
+      body.write(json, 0, json.length);
+      if (ndjson) {
+        body.write('\n');
+      }
+    }
+    if (!ndjson) {
+      body.write(']');
+    }
+    client.send(body.toByteArray());
   }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.brokers.jvm.websocket;
+
+import org.java_websocket.WebSocket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of outbound frames for a single client. If the queue is full, the oldest frame is dropped; in
+ * conflate mode only the latest frame is kept.
+ */
+public class ClientQueue {
+
+    private final WebSocket connection;
+    private final int capacity;
+    private final boolean conflate;
+    private final Deque<byte[]> frames = new ArrayDeque<>();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private long lastSendTimestamp;
+
+    public ClientQueue(WebSocket connection, int capacity, boolean conflate) {
+        this.connection = connection;
+        this.capacity = Math.max(capacity, 1);
+        this.conflate = conflate;
+    }
+
+    public synchronized void offer(byte[] frame) {
+        if (conflate && !frames.isEmpty()) {
+            droppedFrames.addAndGet(frames.size());
+            frames.clear();
+        } else if (frames.size() >= capacity) {
+            frames.pollFirst();
+            droppedFrames.incrementAndGet();
+        }
+        frames.addLast(frame);
+    }
+
+    public synchronized List<byte[]> drain() {
+        List<byte[]> drained = new ArrayList<>(frames);
+        frames.clear();
+        return drained;
+    }
+
+    public synchronized int getDepth() {
+        return frames.size();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    public WebSocket getConnection() {
+        return connection;
+    }
+
+    /**
+     * @return true if no drain was scheduled before, i.e., the caller is responsible for scheduling it
+     */
+    boolean markDrainScheduled() {
+        return drainScheduled.compareAndSet(false, true);
+    }
+
+    void clearDrainScheduled() {
+        drainScheduled.set(false);
+    }
+
+    long getLastSendTimestamp() {
+        return lastSendTimestamp;
+    }
+
+    void setLastSendTimestamp(long lastSendTimestamp) {
+        this.lastSendTimestamp = lastSendTimestamp;
+    }
+}
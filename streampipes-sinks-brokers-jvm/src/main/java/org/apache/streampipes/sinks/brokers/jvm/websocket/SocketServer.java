@@ -23,31 +23,64 @@ import org.apache.streampipes.model.runtime.Event;
 import org.java_websocket.WebSocket;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Serializes each event once and hands it to a bounded queue per client. A single sender thread drains the queues;
+ * a client is only written to once the previous frames have left its socket buffer, so a slow client only loses
+ * frames instead of slowing down the pipeline or the other clients.
+ */
 public class SocketServer extends WebSocketServer {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SocketServer.class);
+
+    private static final long BUFFER_RETRY_MS = 10;
+    private static final long METRICS_LOG_INTERVAL_MS = 60000;
+
     private JsonDataFormatDefinition dataFormatDefinition;
 
-    public SocketServer(int port) {
+    private final int queueSize;
+    private final boolean conflate;
+    private final boolean batchFrames;
+    private final long minSendIntervalMs;
+
+    private final Map<WebSocket, ClientQueue> clients = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor();
+
+    public SocketServer(int port, int queueSize, boolean conflate, boolean batchFrames, long minSendIntervalMs) {
         super(new InetSocketAddress(port));
         dataFormatDefinition = new JsonDataFormatDefinition();
+        this.queueSize = queueSize;
+        this.conflate = conflate;
+        this.batchFrames = batchFrames;
+        this.minSendIntervalMs = minSendIntervalMs;
+        sender.scheduleAtFixedRate(this::logMetrics, METRICS_LOG_INTERVAL_MS, METRICS_LOG_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void onOpen(WebSocket conn, ClientHandshake handshake) {
         conn.send("Welcome!"); //This method sends a message to the new client
         broadcast("New connection: " + handshake.getResourceDescriptor()); //This method sends a message to all clients connected
+        clients.put(conn, new ClientQueue(conn, queueSize, conflate));
         System.out.println(conn.getRemoteSocketAddress().getAddress().getHostAddress() + " connected.");
     }
 
     @Override
     public void onClose(WebSocket conn, int code, String reason, boolean remote) {
-        // do nothing special
+        clients.remove(conn);
     }
-
     @Override
     public void onMessage(WebSocket conn, String message) {
         System.out.println(conn + ": " + message);
@@ -67,6 +100,79 @@ public class SocketServer extends WebSocketServer {
 
     public void onEvent(Event event) {
         Map<String, Object> rawEvent = event.getRaw();
-        broadcast(dataFormatDefinition.fromMap(rawEvent));
+        byte[] frame = dataFormatDefinition.fromMap(rawEvent);
+        for (ClientQueue client : clients.values()) {
+            client.offer(frame);
+            scheduleDrain(client, 0);
+        }
+    }
+
+    @Override
+    public void stop() throws IOException, InterruptedException {
+        sender.shutdownNow();
+        logMetrics();
+        super.stop();
+    }
+
+    public int getQueueDepth() {
+        return clients.values().stream().mapToInt(ClientQueue::getDepth).sum();
+    }
+
+    public long getDroppedFrames() {
+        return clients.values().stream().mapToLong(ClientQueue::getDroppedFrames).sum();
+    }
+
+    private void scheduleDrain(ClientQueue client, long delayMs) {
+        if (client.markDrainScheduled() && !sender.isShutdown()) {
+            sender.schedule(() -> drain(client), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain(ClientQueue client) {
+        client.clearDrainScheduled();
+        WebSocket conn = client.getConnection();
+        if (!conn.isOpen() || client.getDepth() == 0) {
+            return;
+        }
+        if (conn.hasBufferedData()) {
+            scheduleDrain(client, BUFFER_RETRY_MS);
+            return;
+        }
+        long wait = client.getLastSendTimestamp() + minSendIntervalMs - System.currentTimeMillis();
+        if (wait > 0) {
+            scheduleDrain(client, wait);
+            return;
+        }
+
+        List<byte[]> frames = client.drain();
+        if (batchFrames && frames.size() > 1) {
+            conn.send(toJsonArray(frames));
+        } else {
+            frames.forEach(conn::send);
+        }
+        client.setLastSendTimestamp(System.currentTimeMillis());
+    }
+
+    private byte[] toJsonArray(List<byte[]> frames) {
+        int size = frames.size() + 1;
+        for (byte[] frame : frames) {
+            size += frame.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('[');
+        for (int i = 0; i < frames.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(frames.get(i), 0, frames.get(i).length);
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private void logMetrics() {
+        int maxDepth = clients.values().stream().mapToInt(ClientQueue::getDepth).max().orElse(0);
+        LOG.info("{} clients, queued frames: {} (max. {} per client), dropped frames: {}", clients.size(),
+                getQueueDepth(), maxDepth, getDroppedFrames());
     }
 }
@@ -21,8 +21,10 @@ package org.apache.streampipes.sinks.brokers.jvm.websocket;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.model.graph.DataSinkDescription;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.DataSinkBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
+import org.apache.streampipes.sdk.extractor.DataSinkParameterExtractor;
 import org.apache.streampipes.sdk.helpers.EpRequirements;
 import org.apache.streampipes.sdk.helpers.Labels;
 import org.apache.streampipes.sdk.helpers.Locales;
@@ -32,11 +34,20 @@ import org.apache.streampipes.wrapper.standalone.SinkParams;
 import org.apache.streampipes.wrapper.standalone.StreamPipesDataSink;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 
 public class WebsocketServerSink extends StreamPipesDataSink {
 
     private String PORT_KEY = "port";
+    private String QUEUE_SIZE_KEY = "queue-size";
+    private String OVERFLOW_KEY = "overflow-policy";
+    private String BATCH_FRAMES_KEY = "batch-frames";
+    private String MIN_SEND_INTERVAL_KEY = "min-send-interval";
+
+    private static final String DROP_OLDEST = "Drop oldest";
+    private static final String CONFLATE = "Keep latest only";
+
     private Integer port;
 
     private SocketServer server;
@@ -51,13 +62,25 @@ public class WebsocketServerSink extends StreamPipesDataSink {
                         .requiredProperty(EpRequirements.anyProperty())
                         .build())
                 .requiredIntegerParameter(Labels.withId(PORT_KEY))
+                .requiredIntegerParameter(Labels.withId(QUEUE_SIZE_KEY), 1000)
+                .requiredSingleValueSelection(Labels.withId(OVERFLOW_KEY),
+                        Arrays.asList(new Option(DROP_OLDEST, true), new Option(CONFLATE, false)))
+                .requiredSingleValueSelection(Labels.withId(BATCH_FRAMES_KEY),
+                        Arrays.asList(new Option("Yes", false), new Option("No", true)))
+                .requiredIntegerParameter(Labels.withId(MIN_SEND_INTERVAL_KEY), 0)
                 .build();
     }
 
     @Override
     public void onInvocation(SinkParams parameters, EventSinkRuntimeContext runtimeContext) throws SpRuntimeException {
-        port = parameters.extractor().singleValueParameter(PORT_KEY, Integer.class);
-        server = new SocketServer(port);
+        DataSinkParameterExtractor extractor = parameters.extractor();
+        port = extractor.singleValueParameter(PORT_KEY, Integer.class);
+        int queueSize = extractor.singleValueParameter(QUEUE_SIZE_KEY, Integer.class);
+        boolean conflate = extractor.selectedSingleValue(OVERFLOW_KEY, String.class).equals(CONFLATE);
+        boolean batchFrames = extractor.selectedSingleValue(BATCH_FRAMES_KEY, String.class).equals("Yes");
+        long minSendInterval = Math.max(extractor.singleValueParameter(MIN_SEND_INTERVAL_KEY, Integer.class), 0);
+
+        server = new SocketServer(port, queueSize, conflate, batchFrames, minSendInterval);
         server.setReuseAddr(true);
         server.start();
     }
@@ -19,20 +19,35 @@
 package org.apache.streampipes.sinks.databases.jvm.couchdb;
 
 import org.lightcouch.CouchDbClient;
+import org.lightcouch.CouchDbException;
 import org.lightcouch.CouchDbProperties;
+import org.lightcouch.Response;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.model.runtime.EventConverter;
+import org.apache.streampipes.pe.shared.batch.BatchBuffer;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public class CouchDb implements EventSink<CouchDbParameters> {
 
+  private static Logger LOG;
+
   private CouchDbClient couchDbClient;
 
+  private BatchBuffer<Map<String, Object>, RuntimeException> batchBuffer;
+  private long writtenDocuments;
+  private long startTimestamp;
+
   @Override
   public void onInvocation(CouchDbParameters parameters, EventSinkRuntimeContext runtimeContext) throws
           SpRuntimeException {
+    LOG = parameters.getGraph().getLogger(CouchDb.class);
     this.couchDbClient = new CouchDbClient(new CouchDbProperties(
             parameters.getDatabaseName(),
             true,
@@ -42,17 +57,63 @@ public class CouchDb implements EventSink<CouchDbParameters> {
             parameters.getUser(),
             parameters.getPassword()
     ));
+    this.batchBuffer = new BatchBuffer<>(parameters.getBatchSize(), parameters.getMaxLinger(), this::flush,
+            e -> LOG.error(e.getMessage()));
+
+    this.startTimestamp = System.currentTimeMillis();
   }
 
   @Override
   public void onEvent(Event inputEvent) {
-    couchDbClient.save(new EventConverter(inputEvent).toInputEventMap());
+    Map<String, Object> document = new EventConverter(inputEvent).toInputEventMap();
+    if (batchBuffer.isBatching()) {
+      batchBuffer.add(document);
+    } else {
+      couchDbClient.save(document);
+      writtenDocuments++;
+    }
   }
 
   @Override
   public void onDetach() throws SpRuntimeException {
+    batchBuffer.close();
+    logStatistics();
     this.couchDbClient.shutdown();
   }
 
+  /**
+   * Writes the documents with a single request to the _bulk_docs endpoint. Documents which are rejected by the
+   * database are logged, the documents are discarded in any case.
+   */
+  private void flush(List<Map<String, Object>> pendingDocuments) {
+    try {
+      List<Response> rejected = storeBulk(couchDbClient, pendingDocuments);
+      for (Response response : rejected) {
+        LOG.error("Document could not be stored: " + response.getError() + " (" + response.getReason() + ")");
+      }
+      writtenDocuments += pendingDocuments.size() - rejected.size();
+    } catch (CouchDbException e) {
+      LOG.error("Could not store " + pendingDocuments.size() + " documents: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Stores the documents with a single _bulk_docs request. The documents are stored independently of each other,
+   * so a rejected document does not prevent the others from being stored.
+   *
+   * @return The responses of the documents which were rejected by the database
+   * @throws CouchDbException If the request as a whole failed
+   */
+  static List<Response> storeBulk(CouchDbClient client, List<Map<String, Object>> documents) {
+    return client.bulk(documents, false)
+            .stream()
+            .filter(response -> response.getError() != null)
+            .collect(Collectors.toList());
+  }
 
+  private void logStatistics() {
+    long elapsedMs = Math.max(System.currentTimeMillis() - startTimestamp, 1);
+    LOG.info("Stored " + writtenDocuments + " documents (" + (writtenDocuments * 1000 / elapsedMs) + " docs/s, batch "
+            + "size " + batchBuffer.getBatchSize() + ")");
+  }
 }
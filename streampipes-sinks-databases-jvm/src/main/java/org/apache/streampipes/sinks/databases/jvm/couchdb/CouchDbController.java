@@ -38,6 +38,8 @@ public class CouchDbController  extends StandaloneEventSinkDeclarer<CouchDbParam
   private static final String DATABASE_NAME_KEY = "db_name";
   private static final String DATABASE_USER_KEY = "db_user";
   private static final String DATABASE_PASSORD_KEY = "db_password";
+  private static final String BATCH_SIZE_KEY = "batch_size";
+  private static final String MAX_LINGER_KEY = "max_linger";
 
   @Override
   public DataSinkDescription declareModel() {
@@ -52,6 +54,8 @@ public class CouchDbController  extends StandaloneEventSinkDeclarer<CouchDbParam
             .requiredTextParameter(Labels.withId(DATABASE_HOST_KEY))
             .requiredIntegerParameter(Labels.withId(DATABASE_PORT_KEY))
             .requiredTextParameter(Labels.withId(DATABASE_NAME_KEY))
+            .requiredIntegerParameter(Labels.withId(BATCH_SIZE_KEY), 1)
+            .requiredIntegerParameter(Labels.withId(MAX_LINGER_KEY), 1000)
             .build();
   }
 
@@ -63,6 +67,8 @@ public class CouchDbController  extends StandaloneEventSinkDeclarer<CouchDbParam
     String hostname = extractor.singleValueParameter(DATABASE_HOST_KEY, String.class);
     Integer port = extractor.singleValueParameter(DATABASE_PORT_KEY, Integer.class);
     String dbName = extractor.singleValueParameter(DATABASE_NAME_KEY, String.class);
+    Integer batchSize = extractor.singleValueParameter(BATCH_SIZE_KEY, Integer.class);
+    Integer maxLinger = extractor.singleValueParameter(MAX_LINGER_KEY, Integer.class);
 
     //TODO: Use this after optional parameters implementation
     //String user = extractor.singleValueParameter(DATABASE_USER_KEY, String.class);
@@ -71,7 +77,8 @@ public class CouchDbController  extends StandaloneEventSinkDeclarer<CouchDbParam
     String user = null;
     String password = null;
 
-    CouchDbParameters params = new CouchDbParameters(graph, hostname, port, dbName, user, password);
+    CouchDbParameters params = new CouchDbParameters(graph, hostname, port, dbName, user, password, batchSize,
+            maxLinger);
 
     return new ConfiguredEventSink<>(params, CouchDb::new);
   }
@@ -28,14 +28,18 @@ public class CouchDbParameters extends EventSinkBindingParams {
   private String databaseName;
   private String user;
   private String password;
+  private Integer batchSize;
+  private Integer maxLinger;
 
-  public CouchDbParameters(DataSinkInvocation graph, String couchDbHost, Integer couchDbPort, String databaseName, String user, String password) {
+  public CouchDbParameters(DataSinkInvocation graph, String couchDbHost, Integer couchDbPort, String databaseName, String user, String password, Integer batchSize, Integer maxLinger) {
     super(graph);
     this.couchDbHost = couchDbHost;
     this.couchDbPort = couchDbPort;
     this.databaseName = databaseName;
     this.user = user;
     this.password = password;
+    this.batchSize = batchSize;
+    this.maxLinger = maxLinger;
   }
 
   public String getCouchDbHost() {
@@ -57,4 +61,12 @@ public class CouchDbParameters extends EventSinkBindingParams {
   public String getPassword() {
     return password;
   }
+
+  public Integer getBatchSize() {
+    return batchSize;
+  }
+
+  public Integer getMaxLinger() {
+    return maxLinger;
+  }
 }
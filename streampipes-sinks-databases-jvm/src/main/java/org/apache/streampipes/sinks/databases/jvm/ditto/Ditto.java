@@ -18,6 +18,7 @@
 package org.apache.streampipes.sinks.databases.jvm.ditto;
 
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
@@ -28,6 +29,7 @@ import org.eclipse.ditto.client.configuration.MessagingConfiguration;
 import org.eclipse.ditto.client.configuration.WebSocketMessagingConfiguration;
 import org.eclipse.ditto.client.messaging.AuthenticationProviders;
 import org.eclipse.ditto.client.messaging.internal.WebSocketMessagingProvider;
+import org.eclipse.ditto.client.twin.TwinFeatureHandle;
 import org.eclipse.ditto.client.twin.TwinThingHandle;
 import org.eclipse.ditto.model.things.Feature;
 import org.eclipse.ditto.model.things.Features;
@@ -35,10 +37,15 @@ import org.eclipse.ditto.model.things.Thing;
 import org.eclipse.ditto.model.things.ThingId;
 import org.eclipse.ditto.signals.commands.things.exceptions.ThingNotAccessibleException;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class Ditto implements EventSink<DittoParameters> {
 
@@ -48,12 +55,26 @@ public class Ditto implements EventSink<DittoParameters> {
 
   private List<String> selectedFields;
 
+  private static Logger LOG;
+  private static final long DETACH_TIMEOUT_MS = 5000;
+
+  private TwinFeatureHandle featureHandle;
+  private int maxOutstandingUpdates;
+  private Semaphore outstandingUpdates;
+  private long updateInterval;
+  private final Map<String, String> mergedProperties = new LinkedHashMap<>();
+  private ScheduledExecutorService updateScheduler;
+
   @Override
   public void onInvocation(DittoParameters parameters, EventSinkRuntimeContext runtimeContext) throws SpRuntimeException {
 
     this.thingId = parameters.getThingId();
     this.featureId = parameters.getFeatureId();
     this.selectedFields = parameters.getSelectedFields();
+    this.maxOutstandingUpdates = Math.max(parameters.getMaxOutstandingUpdates(), 1);
+    this.outstandingUpdates = new Semaphore(maxOutstandingUpdates);
+    this.updateInterval = parameters.getUpdateInterval();
+    LOG = parameters.getGraph().getLogger(Ditto.class);
 
     MessagingConfiguration configuration = WebSocketMessagingConfiguration.newBuilder()
             .endpoint(parameters.getDittoApiEndpoint())
@@ -94,6 +115,14 @@ public class Ditto implements EventSink<DittoParameters> {
       System.out.println("feature not present, adding feature...");
       twinHandle.setFeatures(Features.newBuilder().set(Feature.newBuilder().withId(featureId).build()).build());
     }
+
+    this.featureHandle = client.twin().forFeature(ThingId.of(thingId), featureId);
+
+    if (updateInterval > 0) {
+      updateScheduler = Executors.newSingleThreadScheduledExecutor();
+      updateScheduler.scheduleAtFixedRate(this::sendMergedProperties, updateInterval, updateInterval,
+              TimeUnit.MILLISECONDS);
+    }
   }
 
   @Override
@@ -101,18 +130,95 @@ public class Ditto implements EventSink<DittoParameters> {
     Event reducedEvent = event.getSubset(selectedFields);
 
     Map<String, Object> raw = reducedEvent.getRaw();
-    for (String key: raw.keySet()) {
-      try {
-        client.twin().forId(ThingId.of(this.thingId)).forFeature(this.featureId).putProperty(key,
-                String.valueOf(raw.get(key))).get();
-      } catch (InterruptedException | ExecutionException e) {
-        throw new SpRuntimeException(e);
+    if (updateInterval > 0) {
+      // values are merged and sent by the update scheduler, newer values replace older ones
+      synchronized (mergedProperties) {
+        raw.forEach((key, value) -> mergedProperties.put(key, String.valueOf(value)));
       }
+      return;
+    }
+
+    Map<String, String> properties = new LinkedHashMap<>();
+    raw.forEach((key, value) -> properties.put(key, String.valueOf(value)));
+    try {
+      outstandingUpdates.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SpRuntimeException(e);
     }
+    sendProperties(properties);
   }
 
   @Override
   public void onDetach() throws SpRuntimeException {
+    try {
+      if (updateScheduler != null) {
+        updateScheduler.shutdown();
+        updateScheduler.awaitTermination(DETACH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        updateScheduler = null;
+        sendRemainingProperties();
+      }
+      // waits until all outstanding updates are acknowledged
+      if (!outstandingUpdates.tryAcquire(maxOutstandingUpdates, DETACH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        LOG.warn("Not all property updates were acknowledged before the client was closed");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
     this.client.destroy();
   }
+
+  /**
+   * Sends the merged properties of the current update interval, unless the maximum number of outstanding
+   * updates is reached. In that case, the properties are kept and sent with the next interval.
+   */
+  private void sendMergedProperties() {
+    Map<String, String> properties;
+    synchronized (mergedProperties) {
+      if (mergedProperties.isEmpty() || !outstandingUpdates.tryAcquire()) {
+        return;
+      }
+      properties = new LinkedHashMap<>(mergedProperties);
+      mergedProperties.clear();
+    }
+    sendProperties(properties);
+  }
+
+  /**
+   * Sends the merged properties which were not sent by the update scheduler, waiting at most
+   * {@link Ditto#DETACH_TIMEOUT_MS} for an outstanding update to be acknowledged.
+   */
+  private void sendRemainingProperties() throws InterruptedException {
+    Map<String, String> properties;
+    synchronized (mergedProperties) {
+      properties = new LinkedHashMap<>(mergedProperties);
+      mergedProperties.clear();
+    }
+    if (properties.isEmpty()) {
+      return;
+    }
+    if (outstandingUpdates.tryAcquire(DETACH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+      sendProperties(properties);
+    } else {
+      LOG.warn("Discarded the last update of properties " + properties.keySet() + " of feature '" + featureId
+              + "' of thing '" + thingId + "', outstanding updates were not acknowledged in time");
+    }
+  }
+
+  /**
+   * Writes each property without blocking, other properties of the feature are not touched. Requires a permit
+   * of {@link Ditto#outstandingUpdates}, which is released once all properties are acknowledged.
+   */
+  private void sendProperties(Map<String, String> properties) {
+    CompletableFuture<?>[] updates = properties.entrySet().stream()
+            .map(property -> featureHandle.putProperty(property.getKey(), property.getValue()))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(updates).whenComplete((result, throwable) -> {
+      outstandingUpdates.release();
+      if (throwable != null) {
+        LOG.error("Could not update properties of feature '" + featureId + "' of thing '" + thingId + "': "
+                + throwable.getMessage());
+      }
+    });
+  }
 }
@@ -44,6 +44,9 @@ public class DittoController extends StandaloneEventSinkDeclarer<DittoParameters
 
   private static final String SELECTED_FIELDS_KEY = "selectedFieldsKey";
 
+  private static final String MAX_OUTSTANDING_UPDATES_KEY = "maxOutstandingUpdatesKey";
+  private static final String UPDATE_INTERVAL_KEY = "updateIntervalKey";
+
   @Override
   public DataSinkDescription declareModel() {
     return DataSinkBuilder.create("org.apache.streampipes.sinks.databases.ditto")
@@ -59,6 +62,8 @@ public class DittoController extends StandaloneEventSinkDeclarer<DittoParameters
             .requiredSecret(Labels.withId(DITTO_PASSWORD_KEY))
             .requiredTextParameter(Labels.withId(DITTO_THING_ID_KEY))
             .requiredTextParameter(Labels.withId(DITTO_FEATURE_ID_KEY))
+            .requiredIntegerParameter(Labels.withId(MAX_OUTSTANDING_UPDATES_KEY), 16)
+            .requiredIntegerParameter(Labels.withId(UPDATE_INTERVAL_KEY), 0)
             .build();
   }
 
@@ -72,8 +77,11 @@ public class DittoController extends StandaloneEventSinkDeclarer<DittoParameters
     String dittoFeatureId = extractor.textParameter(DITTO_FEATURE_ID_KEY);
 
     List<String> selectedFieldSelectors = extractor.mappingPropertyValues(SELECTED_FIELDS_KEY);
+    Integer maxOutstandingUpdates = extractor.singleValueParameter(MAX_OUTSTANDING_UPDATES_KEY, Integer.class);
+    Integer updateInterval = extractor.singleValueParameter(UPDATE_INTERVAL_KEY, Integer.class);
     DittoParameters params = new DittoParameters(graph, dittoApiEndpoint, dittoUser,
-            dittoPassword, dittoThingId, dittoFeatureId, selectedFieldSelectors);
+            dittoPassword, dittoThingId, dittoFeatureId, selectedFieldSelectors, maxOutstandingUpdates,
+            updateInterval);
 
     return new ConfiguredEventSink<>(params, Ditto::new);
   }
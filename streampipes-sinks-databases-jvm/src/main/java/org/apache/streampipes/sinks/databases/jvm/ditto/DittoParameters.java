@@ -33,13 +33,18 @@ public class DittoParameters extends EventSinkBindingParams {
 
   private List<String> selectedFields;
 
+  private Integer maxOutstandingUpdates;
+  private Integer updateInterval;
+
   public DittoParameters(DataSinkInvocation graph,
                          String dittoApiEndpoint,
                          String dittoUser,
                          String dittoPassword,
                          String thingId,
                          String featureId,
-                         List<String> selectedFields) {
+                         List<String> selectedFields,
+                         Integer maxOutstandingUpdates,
+                         Integer updateInterval) {
     super(graph);
     this.dittoApiEndpoint = dittoApiEndpoint;
     this.dittoUser = dittoUser;
@@ -47,6 +52,8 @@ public class DittoParameters extends EventSinkBindingParams {
     this.thingId = thingId;
     this.featureId = featureId;
     this.selectedFields = selectedFields;
+    this.maxOutstandingUpdates = maxOutstandingUpdates;
+    this.updateInterval = updateInterval;
   }
 
   public String getDittoApiEndpoint() {
@@ -72,4 +79,12 @@ public class DittoParameters extends EventSinkBindingParams {
   public List<String> getSelectedFields() {
     return selectedFields;
   }
+
+  public Integer getMaxOutstandingUpdates() {
+    return maxOutstandingUpdates;
+  }
+
+  public Integer getUpdateInterval() {
+    return updateInterval;
+  }
 }
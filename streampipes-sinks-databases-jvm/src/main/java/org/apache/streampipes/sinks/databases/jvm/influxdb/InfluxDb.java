@@ -21,9 +21,12 @@ package org.apache.streampipes.sinks.databases.jvm.influxdb;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.model.schema.EventProperty;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
+import java.util.stream.Collectors;
+
 public class InfluxDb implements EventSink<InfluxDbParameters> {
 
   private InfluxDbClient influxDbClient;
@@ -44,6 +47,9 @@ public class InfluxDb implements EventSink<InfluxDbParameters> {
         parameters.getTimestampField(),
         parameters.getBatchSize(),
         parameters.getFlushDuration(),
+        runtimeContext.getInputSchemaInfo().get(0).getEventSchema().getEventProperties().stream()
+            .map(EventProperty::getRuntimeName)
+            .collect(Collectors.toList()),
         LOG
     );
   }
@@ -24,23 +24,47 @@ import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.model.schema.EventProperty;
 import org.apache.streampipes.model.schema.EventPropertyPrimitive;
 import org.apache.streampipes.sinks.databases.jvm.jdbcclient.JdbcClient;
+import org.apache.streampipes.sinks.databases.jvm.jdbcclient.ParameterBinding;
 import org.apache.streampipes.vocabulary.XSD;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 public class IotDb extends JdbcClient implements EventSink<IotDbParameters> {
 
   private static Logger LOG;
 
+  private static final String STREAM_PREFIX = "s0::";
+
   private String timestampField;
+  private String timestampKey;
+
+  /**
+   * The types of the time series, derived from the event schema when the time series are created
+   */
+  private final Map<String, SqlAttribute> columnTypes = new HashMap<>();
+
+  /**
+   * The key set the current insert statement was generated for and the resulting column order
+   */
+  private Set<String> statementKeys;
+  private String[] statementColumns;
+  private SqlAttribute[] statementTypes;
 
   @Override
   public void onInvocation(IotDbParameters parameters, EventSinkRuntimeContext runtimeContext) throws SpRuntimeException {
     LOG = parameters.getGraph().getLogger(IotDb.class);
     timestampField = parameters.getTimestampField();
+    // Runtime name of the timestamp field without the stream prefix
+    timestampKey = timestampField.startsWith(STREAM_PREFIX)
+            ? timestampField.substring(STREAM_PREFIX.length())
+            : timestampField;
 
     // tablename is the identifier for the storage group in the IoTDB Adapter (e.g. root.data.table1) in which all
     // time series are written
@@ -65,8 +89,8 @@ public class IotDb extends JdbcClient implements EventSink<IotDbParameters> {
     try {
       if (event.getRaw().containsKey("value")) {
         // Renaming value. Very ugly
-        event.addField("value_1", event.getFieldBySelector("s0::value").getRawValue());
-        event.removeFieldBySelector("s0::value");
+        event.addField("value_1", event.getFieldBySelector(STREAM_PREFIX + "value").getRawValue());
+        event.removeFieldBySelector(STREAM_PREFIX + "value");
       }
       save(event);
     } catch (SpRuntimeException e) {
@@ -83,33 +107,69 @@ public class IotDb extends JdbcClient implements EventSink<IotDbParameters> {
   protected void save(final Event event) throws SpRuntimeException {
     checkConnected();
     try {
-      Long timestampValue = event.getFieldBySelector(timestampField).getAsPrimitive().getAsLong();
-      event.removeFieldBySelector(timestampField);
-      Statement statement;
-      statement = c.createStatement();
-      StringBuilder sb1 = new StringBuilder();
-      StringBuilder sb2 = new StringBuilder();
-      //TODO: Check for SQL-Injection
-      // Timestamp must be in the beginning of the values
-      sb1.append("INSERT INTO ").append(tableName).append("(timestamp, ");
-      sb2.append(" VALUES (").append(timestampValue).append(", ");
-      for (String s : event.getRaw().keySet()) {
-        sb1.append(s).append(", ");
-        if (event.getFieldByRuntimeName(s).getRawValue() instanceof String) {
-          sb2.append("\"").append(event.getFieldByRuntimeName(s).getRawValue().toString()).append("\", ");
-        } else {
-          sb2.append(event.getFieldByRuntimeName(s).getRawValue().toString()).append(", ");
-        }
-      }
-      sb1.setLength(sb1.length() - 2);
-      sb2.setLength(sb2.length() - 2);
-      sb1.append(") ").append(sb2).append(")");
-      statement.execute(sb1.toString());
+      fillPreparedStatement(event.getRaw());
+      ps.executeUpdate();
     } catch (SQLException e) {
-      e.printStackTrace();
+      LOG.error(e.getMessage());
     }
   }
 
+  /**
+   * Fills the cached insert statement with the values of the event. The timestamp is always bound to the
+   * first parameter. The statement is only regenerated when the key set of the event changes.
+   *
+   * @param event The raw event which should be saved
+   * @throws SQLException       When the statement cannot be prepared or filled
+   * @throws SpRuntimeException When the timestamp is missing or a value cannot be converted to the type of its
+   *                            time series
+   */
+  @Override
+  protected void fillPreparedStatement(final Map<String, Object> event) throws SQLException, SpRuntimeException {
+    // checked first, the statement layout relies on the timestamp being one of the keys
+    Object timestamp = event.get(timestampKey);
+    if (!(timestamp instanceof Number)) {
+      throw new SpRuntimeException("Timestamp field '" + timestampKey + "' is missing or not a number: " + timestamp);
+    }
+
+    if (statementKeys == null || !statementKeys.equals(event.keySet())) {
+      generateInsertStatement(event);
+    }
+    ps.setLong(1, ((Number) timestamp).longValue());
+    for (int i = 0; i < statementColumns.length; i++) {
+      // Index 1 is reserved for the timestamp
+      ParameterBinding.bindValue(ps, i + 2, statementTypes[i], event.get(statementColumns[i]), statementColumns[i]);
+    }
+  }
+
+  private void generateInsertStatement(final Map<String, Object> event) throws SQLException {
+    int columnCount = event.size() - 1;
+    statementColumns = new String[columnCount];
+    statementTypes = new SqlAttribute[columnCount];
+
+    //TODO: Check for SQL-Injection
+    // Timestamp must be in the beginning of the values
+    StringBuilder sb1 = new StringBuilder("INSERT INTO ").append(tableName).append("(timestamp");
+    StringBuilder sb2 = new StringBuilder(" VALUES (?");
+
+    int i = 0;
+    for (Map.Entry<String, Object> pair : event.entrySet()) {
+      if (pair.getKey().equals(timestampKey)) {
+        continue;
+      }
+      statementColumns[i] = pair.getKey();
+      statementTypes[i] = columnTypes.containsKey(pair.getKey())
+              ? columnTypes.get(pair.getKey())
+              : SqlAttribute.getFromObject(pair.getValue());
+      sb1.append(", ").append(pair.getKey());
+      sb2.append(", ?");
+      i++;
+    }
+    sb1.append(")").append(sb2).append(")");
+
+    replacePreparedStatement(sb1.toString());
+    statementKeys = new HashSet<>(event.keySet());
+  }
+
   @Override
   protected void ensureDatabaseExists(String url, String databaseName) throws SpRuntimeException {
     checkRegEx(tableName, "Storage Group name");
@@ -131,11 +191,9 @@ public class IotDb extends JdbcClient implements EventSink<IotDbParameters> {
    */
   @Override
   protected void ensureTableExists(String url, String databaseName) throws SpRuntimeException {
-    int index = 1;
-    parameters.put("timestamp", new Parameterinfo(index++, SqlAttribute.LONG));
     for (EventProperty eventProperty : eventProperties) {
       try {
-        if (eventProperty.getRuntimeName().equals(timestampField.substring(4))) {
+        if (eventProperty.getRuntimeName().equals(timestampKey)) {
           continue;
         }
         Statement statement = null;
@@ -146,7 +204,7 @@ public class IotDb extends JdbcClient implements EventSink<IotDbParameters> {
         if (eventProperty.getRuntimeName().equals("value")) {
           runtimeName = "value_1";
         }
-        String datatype = extractAndAddEventPropertyRuntimeType(eventProperty, index++);
+        String datatype = extractAndAddEventPropertyRuntimeType(eventProperty, runtimeName);
 
         statement.execute("CREATE TIMESERIES "
                 + tableName
@@ -164,32 +222,33 @@ public class IotDb extends JdbcClient implements EventSink<IotDbParameters> {
     tableExists = true;
   }
 
-  private String extractAndAddEventPropertyRuntimeType(EventProperty eventProperty, int index) {
+  private String extractAndAddEventPropertyRuntimeType(EventProperty eventProperty, String runtimeName) {
     // Supported datatypes can be found here: https://iotdb.apache.org/#/Documents/0.8.0/chap2/sec2
     String re;
     if (eventProperty instanceof EventPropertyPrimitive) {
       String runtimeType = ((EventPropertyPrimitive)eventProperty).getRuntimeType();
       if (runtimeType.equals(XSD._integer.toString())) {
-        parameters.put(eventProperty.getRuntimeName(), new Parameterinfo(index, SqlAttribute.INTEGER));
+        columnTypes.put(runtimeName, SqlAttribute.INTEGER);
         re = "INT32";
       } else if (runtimeType.equals(XSD._long.toString())) {
-        parameters.put(eventProperty.getRuntimeName(), new Parameterinfo(index, SqlAttribute.LONG));
+        columnTypes.put(runtimeName, SqlAttribute.LONG);
         re = "INT64";
       } else if (runtimeType.equals(XSD._float.toString())) {
-        parameters.put(eventProperty.getRuntimeName(), new Parameterinfo(index, SqlAttribute.FLOAT));
+        columnTypes.put(runtimeName, SqlAttribute.FLOAT);
         re = "FLOAT";
       } else if (runtimeType.equals(XSD._double.toString())) {
-        parameters.put(eventProperty.getRuntimeName(), new Parameterinfo(index, SqlAttribute.DOUBLE));
+        columnTypes.put(runtimeName, SqlAttribute.DOUBLE);
         re = "DOUBLE";
       } else if (runtimeType.equals(XSD._boolean.toString())) {
-        parameters.put(eventProperty.getRuntimeName(), new Parameterinfo(index, SqlAttribute.BOOLEAN));
+        columnTypes.put(runtimeName, SqlAttribute.BOOLEAN);
         re = "BOOLEAN";
       } else {
-        parameters.put(eventProperty.getRuntimeName(), new Parameterinfo(index, SqlAttribute.STRING));
+        columnTypes.put(runtimeName, SqlAttribute.STRING);
         re = "TEXT";
       }
     } else {
       // TODO: Add listed and nested items
+      columnTypes.put(runtimeName, SqlAttribute.STRING);
       re = "TEXT";
     }
     return re;
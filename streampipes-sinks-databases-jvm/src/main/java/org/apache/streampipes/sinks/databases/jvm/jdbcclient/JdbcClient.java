@@ -24,10 +24,13 @@ import org.apache.streampipes.model.runtime.Event;
 import org.apache.streampipes.model.schema.EventProperty;
 import org.apache.streampipes.model.schema.EventPropertyNested;
 import org.apache.streampipes.model.schema.EventPropertyPrimitive;
+import org.apache.streampipes.pe.shared.batch.BatchBuffer;
+import org.apache.streampipes.pe.shared.statistics.WriteStatistics;
 import org.apache.streampipes.vocabulary.XSD;
 
 import java.sql.*;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -52,9 +55,19 @@ public class JdbcClient {
      */
     protected List<EventProperty> eventProperties;
     /**
-     * The parameters in the prepared statement {@code ps} together with their index and data type
+     * The binding plan for the insert statement {@code ps}, derived once from {@link JdbcClient#eventProperties}
      */
-    protected HashMap<String, Parameterinfo> parameters = new HashMap<>();
+    private ParameterBinding[] bindings;
+
+    /**
+     * Events which are not yet written to the table (only set if batching is enabled)
+     */
+    private BatchBuffer<Map<String, Object>, SpRuntimeException> batchBuffer;
+    private int batchedRows = 0;
+
+    private static final long STATISTICS_LOG_INTERVAL_MS = 60000;
+    private long lastStatisticsLog = System.currentTimeMillis();
+    protected final WriteStatistics batchStatistics = new WriteStatistics("rows");
 
     /**
      * A wrapper class for all supported SQL data types (INT, BIGINT, FLOAT, DOUBLE, VARCHAR(255)).
@@ -112,62 +125,12 @@ public class JdbcClient {
             return r;
         }
 
-        /**
-         * Sets the value in the prepardStatement {@code ps}
-         *
-         * @param p     The needed info about the parameter (index and type)
-         * @param value The value of the object, which should be filled in the
-         * @param ps    The prepared statement, which will be filled
-         * @throws SpRuntimeException When the data type in {@code p} is unknown
-         * @throws SQLException       When the setters of the statement throw an
-         *                            exception (e.g. {@code setInt()})
-         */
-        public static void setValue(Parameterinfo p, Object value, PreparedStatement ps)
-                throws SQLException, SpRuntimeException {
-            switch (p.type) {
-                case INTEGER:
-                    ps.setInt(p.index, (Integer) value);
-                    break;
-                case LONG:
-                    ps.setLong(p.index, (Long) value);
-                    break;
-                case FLOAT:
-                    ps.setFloat(p.index, (Float) value);
-                    break;
-                case DOUBLE:
-                    ps.setDouble(p.index, (Double) value);
-                    break;
-                case BOOLEAN:
-                    ps.setBoolean(p.index, (Boolean) value);
-                    break;
-                case STRING:
-                    ps.setString(p.index, value.toString());
-                    break;
-                default:
-                    throw new SpRuntimeException("Unknown SQL datatype");
-            }
-        }
-
         @Override
         public String toString() {
             return sqlName;
         }
     }
 
-    /**
-     * Contains all information needed to "fill" a prepared statement (index and the data type)
-     */
-    protected static class Parameterinfo {
-        private int index;
-        private SqlAttribute type;
-
-        public Parameterinfo(final int index, final SqlAttribute type) {
-            this.index = index;
-            this.type = type;
-        }
-    }
-
-
     public JdbcClient() {
     }
 
@@ -197,6 +160,56 @@ public class JdbcClient {
         connect(host, port, urlName, databaseName);
     }
 
+    /**
+     * Enables batched writes. Events are collected until {@code batchSize} events are pending or the
+     * oldest pending event has been waiting for {@code maxLingerMs} and are then written with
+     * {@link PreparedStatement#executeBatch()} within a single transaction. A batch which could not be
+     * written because of a connection or database error stays pending and is written again together with
+     * the following events (at most ten batches are kept, older events are dropped). If a batch fails
+     * because of its data, its events are written one at a time and only the failing events are dropped.
+     * Needs to be called after {@link JdbcClient#initializeJdbc}.
+     *
+     * @param batchSize   The maximum number of events per batch (a value of 1 or less disables batching)
+     * @param maxLingerMs The maximum time in ms an event is buffered before the batch gets written
+     * @throws SpRuntimeException If the connection could not be switched to manual commits
+     */
+    protected void initializeBatching(int batchSize, long maxLingerMs) throws SpRuntimeException {
+        checkConnected();
+        if (batchSize > 1) {
+            try {
+                c.setAutoCommit(false);
+            } catch (SQLException e) {
+                throw new SpRuntimeException("Could not disable auto commit: " + e.getMessage());
+            }
+
+            batchBuffer = new BatchBuffer<Map<String, Object>, SpRuntimeException>(batchSize, maxLingerMs,
+                    this::flush, e -> logger.error(e.getMessage()))
+                    .retainFailedBatches(10 * batchSize, JdbcClient::isTransientWriteFailure);
+            logger.info("Batching enabled (batch size: " + batchSize + ", max linger: " + maxLingerMs + " ms)");
+        }
+    }
+
+    protected boolean isBatching() {
+        return batchBuffer != null;
+    }
+
+    /**
+     * Stops the background flusher and writes all pending events. Should be called before
+     * {@link JdbcClient#closeAll()} when the sink gets detached.
+     */
+    protected void stopBatching() {
+        if (isBatching()) {
+            try {
+                batchBuffer.close();
+            } catch (SpRuntimeException e) {
+                logger.error("Could not write " + batchBuffer.getPendingCount() + " pending events: "
+                        + e.getMessage());
+            }
+            logger.info("Batch statistics: " + batchStatistics + ", " + batchBuffer.getDroppedCount()
+                    + " events dropped, " + batchBuffer.getRejectedCount() + " events rejected");
+        }
+    }
+
 
     /**
      * Connects to the HadoopFileSystem Server and initilizes {@link JdbcClient#c} and
@@ -273,7 +286,7 @@ public class JdbcClient {
      * @param event Data to be saved in the SQL table
      * @throws SQLException       When the statement cannot be executed
      * @throws SpRuntimeException When the table name is not allowed or it is thrown
-     *                            by {@link SqlAttribute#setValue(Parameterinfo, Object, PreparedStatement)}
+     *                            by {@link ParameterBinding#bind(PreparedStatement, Map)}
      */
     private void executePreparedStatement(final Map<String, Object> event)
             throws SQLException, SpRuntimeException {
@@ -292,12 +305,15 @@ public class JdbcClient {
 	 * @throws SpRuntimeException When there was an error in the saving process
 	 */
 	protected void save(final Event event) throws SpRuntimeException {
-		//TODO: Add batch support (https://stackoverflow.com/questions/3784197/efficient-way-to-do-batch-inserts-with-jdbc)
-		checkConnected();
-		Map<String, Object> eventMap = event.getRaw();
 		if (event == null) {
 			throw new SpRuntimeException("event is null");
 		}
+		checkConnected();
+		Map<String, Object> eventMap = event.getRaw();
+		if (isBatching()) {
+			batchBuffer.add(eventMap);
+			return;
+		}
 		if (!tableExists) {
 			// Creates the table
 			createTable();
@@ -306,7 +322,7 @@ public class JdbcClient {
 		try {
 			executePreparedStatement(eventMap);
 		} catch (SQLException e) {
-			if (e.getSQLState().substring(0, 2).equals("42")) {
+			if (e.getSQLState() != null && e.getSQLState().startsWith("42")) {
 				// If the table does not exists (because it got deleted or something, will cause the error
 				// code "42") we will try to create a new one. Otherwise we do not handle the exception.
 				logger.warn("Table '" + tableName + "' was unexpectedly not found and gets recreated.");
@@ -325,102 +341,224 @@ public class JdbcClient {
 		}
 	}
 
-    private void fillPreparedStatement(final Map<String, Object> event)
-            throws SQLException, SpRuntimeException {
-        fillPreparedStatement(event, "");
+    /**
+     * Writes the given events within one transaction. If the table was unexpectedly not found
+     * (SQL state "42"), the table gets recreated and the batch is written once again. Called by the
+     * {@link JdbcClient#batchBuffer}, which keeps the events pending if writing them failed.
+     *
+     * @param pendingEvents The events which should be written
+     * @throws SpRuntimeException If the batch could not be written
+     */
+    private void flush(List<Map<String, Object>> pendingEvents) throws SpRuntimeException {
+        checkConnected();
+        int rows = pendingEvents.size();
+        long start = System.nanoTime();
+        boolean written = false;
+        try {
+            if (!tableExists) {
+                createTable();
+                tableExists = true;
+            }
+            writeBatch(pendingEvents);
+            written = true;
+        } catch (SQLException e) {
+            rollback();
+            if (e.getSQLState() != null && e.getSQLState().startsWith("42")) {
+                logger.warn("Table '" + tableName + "' was unexpectedly not found and gets recreated.");
+                tableExists = false;
+                createTable();
+                tableExists = true;
+
+                try {
+                    writeBatch(pendingEvents);
+                    written = true;
+                } catch (SQLException e1) {
+                    rollback();
+                    throw toWriteFailure(e1);
+                }
+            } else {
+                throw toWriteFailure(e);
+            }
+        } catch (SpRuntimeException e) {
+            // the rows which were already added must not be executed together with the retried batch
+            rollback();
+            throw e;
+        } catch (RuntimeException e) {
+            rollback();
+            throw e;
+        } finally {
+            if (!written) {
+                batchStatistics.recordFailed();
+            }
+        }
+        batchStatistics.recordWrite(rows, System.nanoTime() - start);
+        logStatistics();
     }
 
     /**
-     * Fills a prepared statement with the actual values base on {@link JdbcClient#parameters}. If
-     * {@link JdbcClient#parameters} is empty or not complete (which should only happen once in the
-     * begining), it calls {@link JdbcClient#generatePreparedStatement(Map)} to generate a new one.
+     * Errors caused by the data of an event (SQL state classes "22" and "23") are reported by their
+     * message only. All other SQL errors keep the {@link SQLException} as cause, which marks them as
+     * transient for {@link JdbcClient#isTransientWriteFailure(Exception)}.
+     */
+    private SpRuntimeException toWriteFailure(SQLException e) {
+        String sqlState = e.getSQLState();
+        if (sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"))) {
+            return new SpRuntimeException(e.getMessage());
+        }
+        return new SpRuntimeException(e);
+    }
+
+    /**
+     * @return true if a batch failed because of the connection or the database and can be written later,
+     * false if it failed because of its data, e.g. a value which cannot be converted or violates a constraint
+     */
+    static boolean isTransientWriteFailure(Exception e) {
+        return e instanceof SpRuntimeException && e.getCause() instanceof SQLException;
+    }
+
+    /**
+     * Fills the prepared statement {@code ps} once per event, adds it to the batch of the statement and
+     * executes and commits the batch.
      *
-     * @param event
-     * @param pre
-     * @throws SQLException
-     * @throws SpRuntimeException
+     * @param events The events which should be written
+     * @throws SQLException       When the batch cannot be executed or committed
+     * @throws SpRuntimeException See {@link JdbcClient#fillPreparedStatement(Map)}
      */
-    private void fillPreparedStatement(final Map<String, Object> event, String pre)
-            throws SQLException, SpRuntimeException {
-        // checkConnected();
-        //TODO: Possible error: when the event does not contain all objects of the parameter list
-        for (Map.Entry<String, Object> pair : event.entrySet()) {
-            String newKey = pre + pair.getKey();
-            if (pair.getValue() instanceof Map) {
-                // recursively extracts nested values
-                fillPreparedStatement((Map<String, Object>) pair.getValue(), newKey + "_");
-            } else {
-                if (!parameters.containsKey(newKey)) {
-                    //TODO: start the for loop all over again
-                    generatePreparedStatement(event);
-                }
-                Parameterinfo p = parameters.get(newKey);
-                SqlAttribute.setValue(p, pair.getValue(), ps);
+    protected void writeBatch(final List<Map<String, Object>> events) throws SQLException, SpRuntimeException {
+        batchedRows = 0;
+        for (Map<String, Object> event : events) {
+            if (ps != null) {
+                ps.clearParameters();
             }
+            fillPreparedStatement(event);
+            ps.addBatch();
+            batchedRows++;
+        }
+        ps.executeBatch();
+        batchedRows = 0;
+        c.commit();
+    }
+
+    private void rollback() {
+        batchedRows = 0;
+        try {
+            if (ps != null) {
+                ps.clearBatch();
+            }
+            c.rollback();
+        } catch (SQLException e) {
+            logger.warn("Exception during rollback: " + e.getMessage());
+        }
+    }
+
+    private void logStatistics() {
+        long now = System.currentTimeMillis();
+        if (now - lastStatisticsLog >= STATISTICS_LOG_INTERVAL_MS) {
+            lastStatisticsLog = now;
+            logger.info("Batch statistics: " + batchStatistics);
         }
     }
 
     /**
-     * Initializes the variables {@link JdbcClient#parameters} and {@link JdbcClient#ps}
-     * according to the parameter event.
+     * Fills the prepared statement {@link JdbcClient#ps} with the values of the event. Subclasses which
+     * write a different statement layout override this method and (re-)generate {@code ps} with
+     * {@link JdbcClient#replacePreparedStatement(String)}.
      *
-     * @param event The event which is getting analyzed
-     * @throws SpRuntimeException When the tablename is not allowed
-     * @throws SQLException       When the prepareStatment cannot be evaluated
+     * @param event The raw event which should be saved
+     * @throws SQLException       When the statement cannot be prepared or filled
+     * @throws SpRuntimeException When a value has an unknown data type
      */
-    private void generatePreparedStatement(final Map<String, Object> event)
+    protected void fillPreparedStatement(final Map<String, Object> event)
             throws SQLException, SpRuntimeException {
-        // input: event
-        // wanted: INSERT INTO test4321 ( randomString, randomValue ) VALUES ( ?,? );
+        if (bindings == null) {
+            generatePreparedStatement();
+        }
+        for (ParameterBinding binding : bindings) {
+            binding.bind(ps, event);
+        }
+    }
+
+    /**
+     * @return The binding plan of the insert statement (one entry per column of the table)
+     * @throws SQLException       When the insert statement cannot be prepared
+     * @throws SpRuntimeException When the tablename or a column name is not allowed
+     */
+    protected ParameterBinding[] getBindings() throws SQLException, SpRuntimeException {
+        if (bindings == null) {
+            generatePreparedStatement();
+        }
+        return bindings;
+    }
+
+    /**
+     * Initializes the variables {@link JdbcClient#bindings} and {@link JdbcClient#ps} according to
+     * {@link JdbcClient#eventProperties}. The columns are the same ones which are created by
+     * {@link JdbcClient#createTable()}.
+     *
+     * @throws SpRuntimeException When the tablename or a column name is not allowed
+     * @throws SQLException       When the prepareStatment cannot be evaluated
+     */
+    private void generatePreparedStatement() throws SQLException, SpRuntimeException {
+        // wanted: INSERT INTO test4321 ( "randomString", "nested_randomValue" ) VALUES ( ?, ? );
         checkConnected();
-        parameters.clear();
-        StringBuilder statement1 = new StringBuilder("INSERT INTO ");
-        StringBuilder statement2 = new StringBuilder("VALUES ( ");
         checkRegEx(tableName, "Tablename");
-        statement1.append(tableName).append(" ( ");
+        List<ParameterBinding> newBindings = new ArrayList<>();
+        StringBuilder statement1 = new StringBuilder("INSERT INTO ").append(tableName).append(" ( ");
+        StringBuilder statement2 = new StringBuilder("VALUES ( ");
 
-        // Starts index at 1, since the parameterIndex in the PreparedStatement starts at 1 as well
-        extendPreparedStatement(event, statement1, statement2, 1);
+        extractBindings(eventProperties, new String[0], "", newBindings, statement1, statement2);
 
         statement1.append(" ) ");
         statement2.append(" );");
-        String finalStatement = statement1.append(statement2).toString();
-        ps = c.prepareStatement(finalStatement);
-    }
-
-    private int extendPreparedStatement(final Map<String, Object> event,
-                                        StringBuilder s1, StringBuilder s2, int index) throws SpRuntimeException {
-        return extendPreparedStatement(event, s1, s2, index, "", "");
+        replacePreparedStatement(statement1.append(statement2).toString());
+        bindings = newBindings.toArray(new ParameterBinding[0]);
     }
 
     /**
-     * @param event
-     * @param s1
-     * @param s2
-     * @param index
-     * @param preProperty
-     * @param pre
-     * @return
-     * @throws SpRuntimeException
+     * Recursively adds a {@link ParameterBinding} and a column to the insert statement for every
+     * (nested) property. Nested properties are flattened to "parent_child" columns.
      */
-    private int extendPreparedStatement(final Map<String, Object> event,
-                                        StringBuilder s1, StringBuilder s2, int index, String preProperty, String pre)
+    private void extractBindings(List<EventProperty> properties, String[] parentPath, String preProperty,
+                                 List<ParameterBinding> plan, StringBuilder s1, StringBuilder s2)
             throws SpRuntimeException {
-        checkConnected();
-        for (Map.Entry<String, Object> pair : event.entrySet()) {
-            if (pair.getValue() instanceof Map) {
-                index = extendPreparedStatement((Map<String, Object>) pair.getValue(), s1, s2, index,
-                        pair.getKey() + "_", pre);
+        for (EventProperty property : properties) {
+            checkRegEx(property.getRuntimeName(), "Column name");
+            String[] path = Arrays.copyOf(parentPath, parentPath.length + 1);
+            path[parentPath.length] = property.getRuntimeName();
+
+            if (property instanceof EventPropertyNested) {
+                extractBindings(((EventPropertyNested) property).getEventProperties(), path,
+                        preProperty + property.getRuntimeName() + "_", plan, s1, s2);
             } else {
-                checkRegEx(pair.getKey(), "Columnname");
-                parameters.put(pair.getKey(), new Parameterinfo(index, SqlAttribute.getFromObject(pair.getValue())));
-                s1.append(pre).append("\"").append(preProperty).append(pair.getKey()).append("\"");
+                SqlAttribute type = property instanceof EventPropertyPrimitive
+                        ? SqlAttribute.getFromUri(((EventPropertyPrimitive) property).getRuntimeType())
+                        : SqlAttribute.STRING;
+                String pre = plan.isEmpty() ? "" : ", ";
+                String columnName = preProperty + property.getRuntimeName();
+                // The parameterIndex in the PreparedStatement starts at 1
+                plan.add(new ParameterBinding(plan.size() + 1, columnName, path, type));
+                s1.append(pre).append("\"").append(columnName).append("\"");
                 s2.append(pre).append("?");
-                index++;
             }
-            pre = ", ";
         }
-        return index;
+    }
+
+    /**
+     * Replaces the prepared statement {@link JdbcClient#ps} with a new one. Rows which were already
+     * added to the batch of the old statement are executed before the old statement gets closed.
+     *
+     * @param statement The SQL statement which should be prepared
+     * @throws SQLException When the pending batch cannot be executed or the statement cannot be prepared
+     */
+    protected void replacePreparedStatement(String statement) throws SQLException {
+        if (ps != null) {
+            if (batchedRows > 0) {
+                ps.executeBatch();
+                batchedRows = 0;
+            }
+            ps.close();
+        }
+        ps = c.prepareStatement(statement);
     }
 
     /**
@@ -444,7 +582,8 @@ public class JdbcClient {
         try {
             st.executeUpdate(statement.toString());
         } catch (SQLException e) {
-            throw new SpRuntimeException(e.getMessage());
+            // keeps the cause, so that batched writes retry if the table could not be created
+            throw new SpRuntimeException(e);
         }
     }
 
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.databases.jvm.jdbcclient;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Map;
+
+/**
+ * Binds one column of the insert statement. The parameter index, the SQL type and the path to the value
+ * inside of (possibly nested) events are resolved once from the event schema, so filling the statement
+ * does not need to build column names or look up parameter information per event.
+ */
+public class ParameterBinding {
+
+  private final int index;
+  private final String columnName;
+  private final String[] path;
+  private final JdbcClient.SqlAttribute type;
+
+  /**
+   * @param index      The index of the parameter in the prepared statement (starting at 1)
+   * @param columnName The name of the column in the table
+   * @param path       The runtime names leading from the top level of the event to the value
+   * @param type       The SQL type of the column
+   */
+  ParameterBinding(int index, String columnName, String[] path, JdbcClient.SqlAttribute type) {
+    this.index = index;
+    this.columnName = columnName;
+    this.path = path;
+    this.type = type;
+  }
+
+  /**
+   * Sets the value of this column in the prepared statement. Missing values are set to NULL.
+   *
+   * @param ps    The prepared statement which gets filled
+   * @param event The raw event
+   * @throws SQLException       When the setters of the statement throw an exception
+   * @throws SpRuntimeException When the value cannot be converted to the type of the column
+   */
+  void bind(PreparedStatement ps, Map<String, Object> event) throws SQLException, SpRuntimeException {
+    bindValue(ps, index, type, resolve(event), columnName);
+  }
+
+  /**
+   * Sets a single value in a prepared statement. Null values are set to NULL. Values which do not match the type
+   * of the column are converted (numbers to the numeric type of the column, numeric and boolean strings are
+   * parsed), all other mismatches are reported with the name of the column.
+   *
+   * @param ps         The prepared statement which gets filled
+   * @param index      The index of the parameter (starting at 1)
+   * @param type       The SQL type of the column
+   * @param value      The value, may be null
+   * @param columnName The name of the column, used in error messages
+   * @throws SQLException       When the setters of the statement throw an exception
+   * @throws SpRuntimeException When the value cannot be converted to the type of the column
+   */
+  public static void bindValue(PreparedStatement ps, int index, JdbcClient.SqlAttribute type, Object value,
+                               String columnName) throws SQLException, SpRuntimeException {
+    if (value == null) {
+      ps.setNull(index, toSqlType(type));
+      return;
+    }
+    switch (type) {
+      case INTEGER:
+        ps.setInt(index, toNumber(value, type, columnName).intValue());
+        break;
+      case LONG:
+        ps.setLong(index, toNumber(value, type, columnName).longValue());
+        break;
+      case FLOAT:
+        ps.setFloat(index, toNumber(value, type, columnName).floatValue());
+        break;
+      case DOUBLE:
+        ps.setDouble(index, toNumber(value, type, columnName).doubleValue());
+        break;
+      case BOOLEAN:
+        ps.setBoolean(index, toBoolean(value, columnName));
+        break;
+      case DATETIME:
+        ps.setTimestamp(index, new Timestamp(toNumber(value, JdbcClient.SqlAttribute.LONG, columnName)
+                .longValue()));
+        break;
+      case STRING:
+        ps.setString(index, value.toString());
+        break;
+      default:
+        throw new SpRuntimeException("Unknown SQL datatype of column '" + columnName + "'");
+    }
+  }
+
+  /**
+   * Appends the value of this column as a CSV field (as expected by PostgreSQL's COPY in CSV format).
+   * Missing values are written as an unquoted empty field (NULL), strings are always quoted. Values are
+   * converted like in {@link #bindValue(PreparedStatement, int, JdbcClient.SqlAttribute, Object, String)}.
+   *
+   * @param sb    The buffer the field is appended to
+   * @param event The raw event
+   * @throws SpRuntimeException When the value cannot be converted to the type of the column
+   */
+  public void appendAsCsv(StringBuilder sb, Map<String, Object> event) throws SpRuntimeException {
+    Object value = resolve(event);
+    if (value == null) {
+      return;
+    }
+    switch (type) {
+      case INTEGER:
+        sb.append(toNumber(value, type, columnName).intValue());
+        break;
+      case LONG:
+        sb.append(toNumber(value, type, columnName).longValue());
+        break;
+      case FLOAT:
+        sb.append(toNumber(value, type, columnName).floatValue());
+        break;
+      case DOUBLE:
+        sb.append(toNumber(value, type, columnName).doubleValue());
+        break;
+      case BOOLEAN:
+        sb.append(toBoolean(value, columnName));
+        break;
+      case DATETIME:
+        sb.append(new Timestamp(toNumber(value, JdbcClient.SqlAttribute.LONG, columnName).longValue()));
+        break;
+      default:
+        String s = value.toString();
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+          char ch = s.charAt(i);
+          if (ch == '"') {
+            sb.append('"');
+          }
+          sb.append(ch);
+        }
+        sb.append('"');
+    }
+  }
+
+  public String getColumnName() {
+    return columnName;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object resolve(Map<String, Object> event) {
+    Object value = event.get(path[0]);
+    for (int i = 1; i < path.length; i++) {
+      if (!(value instanceof Map)) {
+        return null;
+      }
+      value = ((Map<String, Object>) value).get(path[i]);
+    }
+    return value;
+  }
+
+  private static Number toNumber(Object value, JdbcClient.SqlAttribute type, String columnName)
+          throws SpRuntimeException {
+    if (value instanceof Number) {
+      return (Number) value;
+    }
+    if (value instanceof String) {
+      String s = ((String) value).trim();
+      try {
+        switch (type) {
+          case INTEGER:
+            return Integer.valueOf(s);
+          case LONG:
+            return Long.valueOf(s);
+          case FLOAT:
+            return Float.valueOf(s);
+          default:
+            return Double.valueOf(s);
+        }
+      } catch (NumberFormatException e) {
+        // reported below
+      }
+    }
+    throw mismatch(value, type, columnName);
+  }
+
+  private static boolean toBoolean(Object value, String columnName) throws SpRuntimeException {
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).intValue() != 0;
+    }
+    if ("true".equalsIgnoreCase(value.toString()) || "false".equalsIgnoreCase(value.toString())) {
+      return Boolean.parseBoolean(value.toString());
+    }
+    throw mismatch(value, JdbcClient.SqlAttribute.BOOLEAN, columnName);
+  }
+
+  private static SpRuntimeException mismatch(Object value, JdbcClient.SqlAttribute type, String columnName) {
+    return new SpRuntimeException("Value '" + value + "' of column '" + columnName + "' cannot be converted to "
+            + type);
+  }
+
+  private static int toSqlType(JdbcClient.SqlAttribute type) {
+    switch (type) {
+      case INTEGER:
+        return Types.INTEGER;
+      case LONG:
+        return Types.BIGINT;
+      case FLOAT:
+        return Types.FLOAT;
+      case DOUBLE:
+        return Types.DOUBLE;
+      case BOOLEAN:
+        return Types.BOOLEAN;
+      case DATETIME:
+        return Types.TIMESTAMP;
+      default:
+        return Types.VARCHAR;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.schema.EventPropertyNested;
 import org.apache.streampipes.model.schema.EventPropertyPrimitive;
 import org.apache.streampipes.sinks.databases.jvm.jdbcclient.JdbcClient;
+import org.apache.streampipes.sinks.databases.jvm.jdbcclient.ParameterBinding;
 import org.apache.streampipes.vocabulary.SO;
 import org.apache.streampipes.vocabulary.XSD;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
@@ -42,6 +43,13 @@ public class Mysql extends JdbcClient implements EventSink<MysqlParameters> {
     private HashMap<String, Column> tableColumns;
     private List<String> timestampKeys;
 
+    /**
+     * The key set the current insert statement was generated for and the resulting column order
+     */
+    private Set<String> statementKeys;
+    private String[] statementColumns;
+    private SqlAttribute[] statementTypes;
+
     @Override
     public void onInvocation(MysqlParameters params, EventSinkRuntimeContext runtimeContext) throws SpRuntimeException {
 
@@ -61,6 +69,7 @@ public class Mysql extends JdbcClient implements EventSink<MysqlParameters> {
                 "com.mysql.cj.jdbc.Driver",
                 "mysql",
                 LOG);
+        initializeBatching(params.getBatchSize(), params.getMaxLinger());
     }
 
 
@@ -76,6 +85,7 @@ public class Mysql extends JdbcClient implements EventSink<MysqlParameters> {
 
     @Override
     public void onDetach() throws SpRuntimeException {
+        stopBatching();
         closeAll();
     }
 
@@ -122,41 +132,69 @@ public class Mysql extends JdbcClient implements EventSink<MysqlParameters> {
     }
 
 
+    /**
+     * Fills the cached insert statement with the values of the event. The statement is only regenerated
+     * when the key set of the event differs from the one the statement was generated for.
+     *
+     * @param event The raw event which should be saved
+     * @throws SQLException       When the statement cannot be prepared or filled
+     * @throws SpRuntimeException When a value cannot be converted to the type of its column
+     */
     @Override
-    protected void save(final Event event) throws SpRuntimeException {
-        checkConnected();
+    protected void fillPreparedStatement(final Map<String, Object> event) throws SQLException, SpRuntimeException {
+        if (statementKeys == null || !statementKeys.equals(event.keySet())) {
+            generateInsertStatement(event);
+        }
 
-        try {
-            Statement statement;
-            statement = c.createStatement();
-            StringBuilder sb = new StringBuilder("INSERT INTO " + params.getTable() + " (");
-            StringBuilder sb2 = new StringBuilder("Values (");
-
-            for (String s : event.getRaw().keySet()) {
-                sb.append(s).append(", ");
-                if (event.getFieldByRuntimeName(s).getRawValue() instanceof String) {
-                    sb2.append("\"").append(event.getFieldByRuntimeName(s).getRawValue().toString()).append("\", ");
-                } else {
-                    //
-                    if (this.timestampKeys.contains(s)) {
-                        java.sql.Timestamp sqlTimestamp = new java.sql.Timestamp(event.getFieldByRuntimeName(s).getAsPrimitive().getAsLong());
-                        sb2.append("\"").append(sqlTimestamp).append("\", ");
-                    } else {
-                        sb2.append(event.getFieldByRuntimeName(s).getRawValue().toString()).append(", ");
-                    }
+        for (int i = 0; i < statementColumns.length; i++) {
+            ParameterBinding.bindValue(ps, i + 1, statementTypes[i], event.get(statementColumns[i]),
+                    statementColumns[i]);
+        }
+    }
 
-                }
-            }
-            // Remove last comma
-            sb.setLength(sb.length() - 2);
-            sb2.setLength(sb2.length() - 2);
 
-            sb.append(") ").append(sb2).append(")");
-            statement.execute(sb.toString());
+    /**
+     * Generates the insert statement for the key set of the event. The column types are taken from the event
+     * schema. Only keys which are not part of the schema are typed by their value in this event.
+     */
+    private void generateInsertStatement(final Map<String, Object> event) throws SQLException {
+        int columnCount = event.size();
+        statementColumns = new String[columnCount];
+        statementTypes = new SqlAttribute[columnCount];
+
+        StringBuilder sb = new StringBuilder("INSERT INTO " + params.getTable() + " (");
+        StringBuilder sb2 = new StringBuilder("VALUES (");
+
+        int i = 0;
+        for (Map.Entry<String, Object> pair : event.entrySet()) {
+            statementColumns[i] = pair.getKey();
+            statementTypes[i] = getColumnType(pair.getKey(), pair.getValue());
+            sb.append(pair.getKey()).append(", ");
+            sb2.append("?, ");
+            i++;
+        }
+        // Remove last comma
+        sb.setLength(sb.length() - 2);
+        sb2.setLength(sb2.length() - 2);
+        sb.append(") ").append(sb2).append(")");
 
-        } catch (SQLException e) {
-            e.printStackTrace();
+        replacePreparedStatement(sb.toString());
+        statementKeys = new HashSet<>(event.keySet());
+    }
+
+
+    private SqlAttribute getColumnType(String key, Object value) {
+        if (this.timestampKeys.contains(key)) {
+            return SqlAttribute.DATETIME;
+        }
+        for (EventProperty property : eventProperties) {
+            if (property.getRuntimeName().equals(key)) {
+                return property instanceof EventPropertyPrimitive
+                        ? SqlAttribute.getFromUri(((EventPropertyPrimitive) property).getRuntimeType())
+                        : SqlAttribute.STRING;
+            }
         }
+        return SqlAttribute.getFromObject(value);
     }
 
 
@@ -38,6 +38,8 @@ public class MysqlController extends StandaloneEventSinkDeclarer<MysqlParameters
     private static final String DB_KEY = "db";
     private static final String TABLE_KEY = "table";
     private static final String PORT_KEY = "port";
+    private static final String BATCH_SIZE_KEY = "batch_size";
+    private static final String MAX_LINGER_KEY = "max_linger";
 
     @Override
     public DataSinkDescription declareModel() {
@@ -54,6 +56,8 @@ public class MysqlController extends StandaloneEventSinkDeclarer<MysqlParameters
                 .requiredSecret(Labels.withId(PASSWORD_KEY))
                 .requiredTextParameter(Labels.withId(DB_KEY), false, false)
                 .requiredTextParameter(Labels.withId(TABLE_KEY), false, false)
+                .requiredIntegerParameter(Labels.withId(BATCH_SIZE_KEY), 1)
+                .requiredIntegerParameter(Labels.withId(MAX_LINGER_KEY), 1000)
                 .build();
     }
 
@@ -67,8 +71,11 @@ public class MysqlController extends StandaloneEventSinkDeclarer<MysqlParameters
         String db = extractor.singleValueParameter(DB_KEY, String.class);
         String table = extractor.singleValueParameter(TABLE_KEY, String.class);
         Integer port = extractor.singleValueParameter(PORT_KEY, Integer.class);
+        Integer batchSize = extractor.singleValueParameter(BATCH_SIZE_KEY, Integer.class);
+        Integer maxLinger = extractor.singleValueParameter(MAX_LINGER_KEY, Integer.class);
 
-        MysqlParameters params = new MysqlParameters(graph, host, user, password, db, table, port);
+        MysqlParameters params = new MysqlParameters(graph, host, user, password, db, table, port, batchSize,
+                maxLinger);
         return new ConfiguredEventSink<>(params, Mysql::new);
     }
 
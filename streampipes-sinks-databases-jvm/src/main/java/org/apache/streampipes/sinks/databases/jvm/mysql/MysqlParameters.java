@@ -29,10 +29,12 @@ public class MysqlParameters extends EventSinkBindingParams {
     private String db;
     private String table;
     private Integer port;
+    private Integer batchSize;
+    private Integer maxLinger;
 
 
     public MysqlParameters(DataSinkInvocation graph, String host, String user, String password, String db, String table,
-                           Integer port) {
+                           Integer port, Integer batchSize, Integer maxLinger) {
         super(graph);
         this.host = host;
         this.user = user;
@@ -40,6 +42,8 @@ public class MysqlParameters extends EventSinkBindingParams {
         this.db = db;
         this.table = table;
         this.port = port;
+        this.batchSize = batchSize;
+        this.maxLinger = maxLinger;
     }
 
     public String getHost() {
@@ -63,4 +67,8 @@ public class MysqlParameters extends EventSinkBindingParams {
     }
 
     public Integer getPort() { return port; }
+
+    public Integer getBatchSize() { return batchSize; }
+
+    public Integer getMaxLinger() { return maxLinger; }
 }
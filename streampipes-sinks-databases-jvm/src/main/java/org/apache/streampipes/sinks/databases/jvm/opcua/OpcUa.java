@@ -48,6 +48,19 @@ public class OpcUa implements EventSink<OpcUaParameters> {
 	private Class targetDataType;
 	private Class sourceDataType;
 
+	private static final int MAX_QUEUED_VALUES = 1000;
+	private static final long DETACH_TIMEOUT_MS = 5000;
+	private static final long STATISTICS_LOG_INTERVAL_MS = 60000;
+
+	// state of the asynchronous write mode, guarded by this
+	private final Deque<DataValue> pendingValues = new ArrayDeque<>();
+	private int inFlightWrites = 0;
+	private int maxObservedInFlightWrites = 0;
+	private long writeCount = 0;
+	private long replacedValues = 0;
+	private long totalWriteLatencyNanos = 0;
+	private long lastStatisticsLog = System.currentTimeMillis();
+
 	// define a mapping of StreamPipes data types to Java classes
 	private static HashMap<String, Class> XSDMatchings = new HashMap<>();
 	static {
@@ -137,22 +150,15 @@ public class OpcUa implements EventSink<OpcUaParameters> {
 
 		if (v == null) {
 			LOG.error("Mapping property type: " + this.params.getMappingPropertyType() + " is not supported");
+		} else if (params.isAsyncWrites()) {
+			writeAsync(new DataValue(v));
 		} else {
 
 			DataValue value = new DataValue(v);
 			CompletableFuture<StatusCode> f = opcUaClient.writeValue(node, value);
 
 			try {
-				StatusCode status = f.get();
-				if (status.isBad()) {
-					if (status.getValue() == 0x80740000L) {
-						LOG.error("Type missmatch! Tried to write value of type: " + this.params.getMappingPropertyType() + " but server did not accept this");
-					} else if (status.getValue() == 0x803B0000L) {
-						LOG.error("Wrong access level. Not allowed to write to nodes");
-					}
-					LOG.error("Value: " + value.getValue().toString() + " could not be written to node Id: " + this.params.getNodeId() + " on " +
-							"OPC-UA server: " + this.serverUrl);
-				}
+				checkStatus(f.get(), value);
 			} catch (InterruptedException | ExecutionException e) {
 				LOG.error("Exception: Value: " + value.getValue().toString() + " could not be written to node Id: " + this.params.getNodeId() + " on " +
 						"OPC-UA server: " + this.serverUrl);
@@ -162,9 +168,124 @@ public class OpcUa implements EventSink<OpcUaParameters> {
 
 	@Override
 	public void onDetach() throws SpRuntimeException {
+		if (params.isAsyncWrites()) {
+			awaitPendingWrites();
+			LOG.info("Write statistics: " + writeStatistics());
+		}
 		opcUaClient.disconnect();
 	}
 
+	/**
+	 * Writes the value without blocking on the server response. Each value is sent with its own write, at most the
+	 * configured number of writes are in flight and values which arrive in the meantime are queued in arrival
+	 * order. With "latest value wins", a new value replaces all queued values instead. Otherwise the event thread
+	 * blocks once {@link OpcUa#MAX_QUEUED_VALUES} values are queued.
+	 */
+	private synchronized void writeAsync(DataValue value) {
+		if (params.isLatestValueWins()) {
+			replacedValues += pendingValues.size();
+			pendingValues.clear();
+		} else {
+			while (pendingValues.size() >= MAX_QUEUED_VALUES) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+		pendingValues.add(value);
+		sendPendingValues();
+	}
+
+	private synchronized void sendPendingValues() {
+		while (!pendingValues.isEmpty() && inFlightWrites < params.getMaxInFlightWrites()) {
+			DataValue value = pendingValues.poll();
+			inFlightWrites++;
+			maxObservedInFlightWrites = Math.max(maxObservedInFlightWrites, inFlightWrites);
+
+			long start = System.nanoTime();
+			opcUaClient.writeValue(node, value)
+					.whenComplete((statusCode, throwable) -> onWriteCompleted(value, statusCode, throwable, start));
+		}
+	}
+
+	private synchronized void onWriteCompleted(DataValue value, StatusCode statusCode, Throwable throwable,
+											long start) {
+		writeCount++;
+		totalWriteLatencyNanos += System.nanoTime() - start;
+
+		if (throwable != null) {
+			LOG.error("Exception: Value: " + value.getValue().toString() + " could not be written to node Id: "
+					+ this.params.getNodeId() + " on OPC-UA server: " + this.serverUrl + " (" + throwable.getMessage() + ")");
+		} else {
+			checkStatus(statusCode, value);
+		}
+
+		long now = System.currentTimeMillis();
+		if (now - lastStatisticsLog >= STATISTICS_LOG_INTERVAL_MS) {
+			lastStatisticsLog = now;
+			LOG.info("Write statistics: " + writeStatistics());
+		}
+
+		inFlightWrites--;
+		sendPendingValues();
+		notifyAll();
+	}
+
+	/**
+	 * Waits (at most {@link OpcUa#DETACH_TIMEOUT_MS}) until the running writes and the queued values are written.
+	 */
+	private synchronized void awaitPendingWrites() {
+		long deadline = System.currentTimeMillis() + DETACH_TIMEOUT_MS;
+		while ((inFlightWrites > 0 || !pendingValues.isEmpty()) && System.currentTimeMillis() < deadline) {
+			try {
+				wait(Math.max(deadline - System.currentTimeMillis(), 1));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return The number of writes which are currently in flight in asynchronous mode
+	 */
+	public synchronized int getInFlightWrites() {
+		return inFlightWrites;
+	}
+
+	/**
+	 * @return The number of values which wait for a free write slot in asynchronous mode
+	 */
+	public synchronized int getQueuedValues() {
+		return pendingValues.size();
+	}
+
+	/**
+	 * @return The number of writes, the average write latency, the current and the maximum number of in-flight
+	 * writes, the number of queued values and the number of values replaced by a newer value before being written
+	 */
+	public synchronized String writeStatistics() {
+		double avgLatencyMs = writeCount > 0 ? totalWriteLatencyNanos / 1e6 / writeCount : 0;
+		return String.format("%d writes (avg write latency %.2f ms, in-flight %d, max in-flight %d, queued %d, "
+						+ "replaced by newer values %d)", writeCount, avgLatencyMs, inFlightWrites, maxObservedInFlightWrites,
+				pendingValues.size(), replacedValues);
+	}
+
+	private void checkStatus(StatusCode status, DataValue value) {
+		if (status.isBad()) {
+			if (status.getValue() == 0x80740000L) {
+				LOG.error("Type missmatch! Tried to write value of type: " + this.params.getMappingPropertyType() + " but server did not accept this");
+			} else if (status.getValue() == 0x803B0000L) {
+				LOG.error("Wrong access level. Not allowed to write to nodes");
+			}
+			LOG.error("Value: " + value.getValue().toString() + " could not be written to node Id: " + this.params.getNodeId() + " on " +
+					"OPC-UA server: " + this.serverUrl);
+		}
+	}
+
 	private Variant getValue(Event inputEvent) {
 		Variant result = null;
 		PrimitiveField propertyPrimitive = inputEvent.getFieldBySelector(this.params.getMappingPropertySelector()).getAsPrimitive();
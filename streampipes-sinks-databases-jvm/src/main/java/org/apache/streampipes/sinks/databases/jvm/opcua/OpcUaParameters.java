@@ -29,9 +29,13 @@ public class OpcUaParameters extends EventSinkBindingParams {
   private Integer nameSpaceIndex;
   private String mappingPropertySelector;
   private String mappingPropertyType;
+  private boolean asyncWrites;
+  private Integer maxInFlightWrites;
+  private boolean latestValueWins;
 
   public OpcUaParameters(DataSinkInvocation graph, String hostname, Integer port, String nodeId, Integer nameSpaceIndex,
-                         String mappingPropertySelector, String mappingPropertyType) {
+                         String mappingPropertySelector, String mappingPropertyType, boolean asyncWrites,
+                         Integer maxInFlightWrites, boolean latestValueWins) {
     super(graph);
     this.hostname = hostname;
     this.port = port;
@@ -39,6 +43,9 @@ public class OpcUaParameters extends EventSinkBindingParams {
     this.nameSpaceIndex = nameSpaceIndex;
     this.mappingPropertySelector = mappingPropertySelector;
     this.mappingPropertyType = mappingPropertyType;
+    this.asyncWrites = asyncWrites;
+    this.maxInFlightWrites = maxInFlightWrites;
+    this.latestValueWins = latestValueWins;
   }
 
   public String getHostName() {
@@ -96,4 +103,16 @@ public class OpcUaParameters extends EventSinkBindingParams {
   public void setMappingPropertyType(String mappingPropertyType) {
     this.mappingPropertyType = mappingPropertyType;
   }
+
+  public boolean isAsyncWrites() {
+    return asyncWrites;
+  }
+
+  public Integer getMaxInFlightWrites() {
+    return maxInFlightWrites;
+  }
+
+  public boolean isLatestValueWins() {
+    return latestValueWins;
+  }
 }
@@ -23,6 +23,7 @@ import org.apache.streampipes.model.DataSinkType;
 import org.apache.streampipes.model.graph.DataSinkDescription;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
 import org.apache.streampipes.model.schema.PropertyScope;
+import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.DataSinkBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.DataSinkParameterExtractor;
@@ -31,6 +32,8 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventSink;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventSinkDeclarer;
 
+import java.util.Arrays;
+
 public class UpcUaController extends StandaloneEventSinkDeclarer<OpcUaParameters> {
 
   private static final String OPC_SERVER_KEY = "opc_host";
@@ -38,6 +41,12 @@ public class UpcUaController extends StandaloneEventSinkDeclarer<OpcUaParameters
   private static final String OPC_NAMESPACE_INDEX_KEY = "opc_namespace_index";
   private static final String OPC_NODE_ID_KEY = "opc_node_id_index";
   private static final String MAPPING_PROPERTY_KEY = "mapping_property_key";
+  private static final String WRITE_MODE_KEY = "write_mode";
+  private static final String MAX_IN_FLIGHT_KEY = "max_in_flight_writes";
+  private static final String LATEST_VALUE_WINS_KEY = "latest_value_wins";
+
+  private static final String SYNC_WRITE_MODE = "Synchronous";
+  private static final String ASYNC_WRITE_MODE = "Asynchronous";
 
 
   @Override
@@ -55,6 +64,15 @@ public class UpcUaController extends StandaloneEventSinkDeclarer<OpcUaParameters
             .requiredIntegerParameter(Labels.withId(OPC_PORT_KEY))
             .requiredIntegerParameter(Labels.withId(OPC_NAMESPACE_INDEX_KEY))
             .requiredTextParameter(Labels.withId(OPC_NODE_ID_KEY))
+            .requiredSingleValueSelection(Labels.withId(WRITE_MODE_KEY),
+                    Arrays.asList(
+                            new Option(SYNC_WRITE_MODE, true),
+                            new Option(ASYNC_WRITE_MODE, false)))
+            .requiredIntegerParameter(Labels.withId(MAX_IN_FLIGHT_KEY), 1)
+            .requiredSingleValueSelection(Labels.withId(LATEST_VALUE_WINS_KEY),
+                    Arrays.asList(
+                            new Option("Yes", false),
+                            new Option("No", true)))
             .build();
   }
 
@@ -79,8 +97,12 @@ public class UpcUaController extends StandaloneEventSinkDeclarer<OpcUaParameters
     }
 
 
+    boolean asyncWrites = ASYNC_WRITE_MODE.equals(extractor.selectedSingleValue(WRITE_MODE_KEY, String.class));
+    Integer maxInFlightWrites = Math.max(extractor.singleValueParameter(MAX_IN_FLIGHT_KEY, Integer.class), 1);
+    boolean latestValueWins = "Yes".equals(extractor.selectedSingleValue(LATEST_VALUE_WINS_KEY, String.class));
+
     OpcUaParameters params = new OpcUaParameters(graph, hostname, port, nodeId, nameSpaceIndex,
-            mappingPropertySelector, mappingPropertyType);
+            mappingPropertySelector, mappingPropertyType, asyncWrites, maxInFlightWrites, latestValueWins);
 
     return new ConfiguredEventSink<>(params, OpcUa::new);
   }
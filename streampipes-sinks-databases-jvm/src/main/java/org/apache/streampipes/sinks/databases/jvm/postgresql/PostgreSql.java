@@ -25,10 +25,17 @@ import org.apache.streampipes.sinks.databases.jvm.jdbcclient.JdbcClient;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
 public class PostgreSql extends JdbcClient implements EventSink<PostgreSqlParameters> {
 
   private static Logger LOG;
 
+  private PostgreSqlCopyWriter copyWriter;
+
   @Override
   public void onInvocation(PostgreSqlParameters parameters, EventSinkRuntimeContext runtimeContext) throws SpRuntimeException {
     LOG = parameters.getGraph().getLogger(PostgreSql.class);
@@ -48,6 +55,19 @@ public class PostgreSql extends JdbcClient implements EventSink<PostgreSqlParame
             "org.postgresql.Driver",
             "postgresql",
             LOG);
+    initializeBatching(parameters.getBatchSize(), parameters.getMaxLinger());
+
+    if (parameters.isCopyMode()) {
+      if (!isBatching()) {
+        LOG.warn("Bulk COPY requires a batch size greater than 1, events are inserted one by one.");
+      } else {
+        try {
+          copyWriter = new PostgreSqlCopyWriter(c, parameters.getTableName(), getBindings());
+        } catch (SQLException e) {
+          throw new SpRuntimeException("Could not initialize bulk COPY: " + e.getMessage());
+        }
+      }
+    }
   }
 
   @Override
@@ -61,8 +81,30 @@ public class PostgreSql extends JdbcClient implements EventSink<PostgreSqlParame
     }
   }
 
+  /**
+   * Writes the batch with COPY if the bulk mode is enabled. If the COPY command fails (e.g. because a
+   * single row is rejected or a value cannot be converted), the transaction is rolled back and the batch
+   * is written with inserts, which report the failing row.
+   */
+  @Override
+  protected void writeBatch(List<Map<String, Object>> events) throws SQLException, SpRuntimeException {
+    if (copyWriter == null) {
+      super.writeBatch(events);
+      return;
+    }
+    try {
+      copyWriter.copy(events);
+      c.commit();
+    } catch (SQLException | IOException | SpRuntimeException e) {
+      LOG.warn("Bulk COPY failed, writing the batch with INSERT statements: " + e.getMessage());
+      c.rollback();
+      super.writeBatch(events);
+    }
+  }
+
   @Override
   public void onDetach() throws SpRuntimeException {
+    stopBatching();
     closeAll();
   }
 }
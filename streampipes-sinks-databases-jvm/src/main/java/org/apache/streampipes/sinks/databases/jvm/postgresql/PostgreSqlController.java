@@ -21,6 +21,7 @@ package org.apache.streampipes.sinks.databases.jvm.postgresql;
 import org.apache.streampipes.model.DataSinkType;
 import org.apache.streampipes.model.graph.DataSinkDescription;
 import org.apache.streampipes.model.graph.DataSinkInvocation;
+import org.apache.streampipes.model.staticproperty.Option;
 import org.apache.streampipes.sdk.builder.DataSinkBuilder;
 import org.apache.streampipes.sdk.builder.StreamRequirementsBuilder;
 import org.apache.streampipes.sdk.extractor.DataSinkParameterExtractor;
@@ -31,6 +32,8 @@ import org.apache.streampipes.sdk.utils.Assets;
 import org.apache.streampipes.wrapper.standalone.ConfiguredEventSink;
 import org.apache.streampipes.wrapper.standalone.declarer.StandaloneEventSinkDeclarer;
 
+import java.util.Arrays;
+
 public class PostgreSqlController extends StandaloneEventSinkDeclarer<PostgreSqlParameters> {
 
   private static final String DATABASE_HOST_KEY = "db_host";
@@ -39,6 +42,12 @@ public class PostgreSqlController extends StandaloneEventSinkDeclarer<PostgreSql
   private static final String DATABASE_TABLE_KEY = "db_table";
   private static final String DATABASE_USER_KEY = "db_user";
   private static final String DATABASE_PASSWORD_KEY = "db_password";
+  private static final String BATCH_SIZE_KEY = "batch_size";
+  private static final String MAX_LINGER_KEY = "max_linger";
+  private static final String INGEST_MODE_KEY = "ingest_mode";
+
+  private static final String INSERT_MODE = "Insert";
+  private static final String COPY_MODE = "Bulk COPY";
 
   @Override
   public DataSinkDescription declareModel() {
@@ -55,6 +64,12 @@ public class PostgreSqlController extends StandaloneEventSinkDeclarer<PostgreSql
             .requiredTextParameter(Labels.withId(DATABASE_TABLE_KEY))
             .requiredTextParameter(Labels.withId(DATABASE_USER_KEY))
             .requiredSecret(Labels.withId(DATABASE_PASSWORD_KEY))
+            .requiredIntegerParameter(Labels.withId(BATCH_SIZE_KEY), 1)
+            .requiredIntegerParameter(Labels.withId(MAX_LINGER_KEY), 1000)
+            .requiredSingleValueSelection(Labels.withId(INGEST_MODE_KEY),
+                    Arrays.asList(
+                            new Option(INSERT_MODE, true),
+                            new Option(COPY_MODE, false)))
             .build();
   }
 
@@ -68,6 +83,9 @@ public class PostgreSqlController extends StandaloneEventSinkDeclarer<PostgreSql
     String tableName = extractor.singleValueParameter(DATABASE_TABLE_KEY, String.class);
     String user = extractor.singleValueParameter(DATABASE_USER_KEY, String.class);
     String password = extractor.secretValue(DATABASE_PASSWORD_KEY);
+    Integer batchSize = extractor.singleValueParameter(BATCH_SIZE_KEY, Integer.class);
+    Integer maxLinger = extractor.singleValueParameter(MAX_LINGER_KEY, Integer.class);
+    boolean copyMode = COPY_MODE.equals(extractor.selectedSingleValue(INGEST_MODE_KEY, String.class));
 
     PostgreSqlParameters params = new PostgreSqlParameters(graph,
             hostname,
@@ -75,7 +93,10 @@ public class PostgreSqlController extends StandaloneEventSinkDeclarer<PostgreSql
             dbName,
             tableName,
             user,
-            password);
+            password,
+            batchSize,
+            maxLinger,
+            copyMode);
 
     return new ConfiguredEventSink<>(params, PostgreSql::new);
   }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.databases.jvm.postgresql;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.sinks.databases.jvm.jdbcclient.ParameterBinding;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes buffered events with PostgreSQL's {@code COPY ... FROM STDIN} protocol in CSV format. The
+ * columns and their order are taken from the binding plan of the insert statement, so both paths write
+ * the same columns.
+ */
+public class PostgreSqlCopyWriter {
+
+  private final CopyManager copyManager;
+  private final ParameterBinding[] bindings;
+  private final String copyStatement;
+  private final StringBuilder buffer = new StringBuilder();
+
+  public PostgreSqlCopyWriter(Connection connection, String tableName, ParameterBinding[] bindings)
+          throws SQLException {
+    this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+    this.bindings = bindings;
+
+    StringBuilder statement = new StringBuilder("COPY ").append(tableName).append(" ( ");
+    for (int i = 0; i < bindings.length; i++) {
+      if (i > 0) {
+        statement.append(", ");
+      }
+      statement.append("\"").append(bindings[i].getColumnName()).append("\"");
+    }
+    statement.append(" ) FROM STDIN WITH (FORMAT csv)");
+    this.copyStatement = statement.toString();
+  }
+
+  /**
+   * Encodes the events as CSV rows and copies them into the table. Does not commit the transaction.
+   *
+   * @param events The events which should be written
+   * @return The number of rows written by the server
+   * @throws SQLException When the server rejects the COPY command
+   * @throws IOException  When the rows cannot be sent to the server
+   * @throws SpRuntimeException When a value cannot be converted to the type of its column
+   */
+  public long copy(List<Map<String, Object>> events) throws SQLException, IOException, SpRuntimeException {
+    buffer.setLength(0);
+    for (Map<String, Object> event : events) {
+      for (int i = 0; i < bindings.length; i++) {
+        if (i > 0) {
+          buffer.append(',');
+        }
+        bindings[i].appendAsCsv(buffer, event);
+      }
+      buffer.append('\n');
+    }
+    return copyManager.copyIn(copyStatement, new StringReader(buffer.toString()));
+  }
+}
@@ -29,8 +29,11 @@ public class PostgreSqlParameters extends EventSinkBindingParams {
   private String tableName;
   private String user;
   private String password;
+  private Integer batchSize;
+  private Integer maxLinger;
+  private boolean copyMode;
 
-  public PostgreSqlParameters(DataSinkInvocation graph, String PostgreSqlHost, Integer PostgreSqlPort, String databaseName, String tableName, String user, String password) {
+  public PostgreSqlParameters(DataSinkInvocation graph, String PostgreSqlHost, Integer PostgreSqlPort, String databaseName, String tableName, String user, String password, Integer batchSize, Integer maxLinger, boolean copyMode) {
     super(graph);
     this.PostgreSqlHost = PostgreSqlHost;
     this.PostgreSqlPort = PostgreSqlPort;
@@ -38,6 +41,9 @@ public class PostgreSqlParameters extends EventSinkBindingParams {
     this.tableName = tableName;
     this.user = user;
     this.password = password;
+    this.batchSize = batchSize;
+    this.maxLinger = maxLinger;
+    this.copyMode = copyMode;
   }
 
   public String getPostgreSqlHost() {
@@ -63,4 +69,16 @@ public class PostgreSqlParameters extends EventSinkBindingParams {
   public String getPassword() {
     return password;
   }
+
+  public Integer getBatchSize() {
+    return batchSize;
+  }
+
+  public Integer getMaxLinger() {
+    return maxLinger;
+  }
+
+  public boolean isCopyMode() {
+    return copyMode;
+  }
 }
@@ -22,57 +22,88 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.batch.BatchBuffer;
 import org.apache.streampipes.wrapper.context.EventSinkRuntimeContext;
 import org.apache.streampipes.wrapper.runtime.EventSink;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.List;
 
 public class Redis implements EventSink<RedisParameters> {
 
     private static final String EVENT_PREFIX = "sp:event:";
     private static final String EVENT_COUNT = "sp:events";
-    private static JedisPool jedisPool = null;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static Logger LOG;
+
+    private JedisPool jedisPool = null;
     private String primaryKey;
     private Boolean autoIncrement;
-    private String password;
-    private String clientName;
-    private Integer index;
-    private Integer ttl;
+    private SetParams setParams;
+
+    private BatchBuffer<String[], SpRuntimeException> batchBuffer;
 
     @Override
     public void onInvocation(RedisParameters parameters, EventSinkRuntimeContext runtimeContext) {
-        if (jedisPool == null) initialPool(parameters);
+        LOG = parameters.getGraph().getLogger(Redis.class);
+        initialPool(parameters);
         primaryKey = parameters.getPrimaryKey();
         autoIncrement = parameters.isAutoIncrement();
-        password = parameters.getRedisPassword();
-        clientName = parameters.getRedisClient();
-        index = parameters.getRedisIndex();
-        ttl = parameters.getTTL();
+        // SET ... EX replaces the separate EXPIRE call
+        setParams = parameters.getTTL() > 0 ? SetParams.setParams().ex(parameters.getTTL()) : null;
+        batchBuffer = new BatchBuffer<>(parameters.getBatchSize(), parameters.getMaxLinger(), this::flush,
+                e -> LOG.error(e.getMessage()));
     }
 
     @Override
     public void onEvent(Event inputEvent) throws SpRuntimeException {
-        try (Jedis jedis = getJedis()) {
-            final String eventKey = getEventKey(inputEvent, autoIncrement ? jedis.incr(EVENT_COUNT) : 0L);
-            jedis.set(eventKey, getEventValue(inputEvent));
-            if (ttl > -1) jedis.expire(eventKey, ttl);
-        } catch (SpRuntimeException e) {
-            throw e;
-        } catch (Exception ex) {
-            throw new SpRuntimeException("Could not persist event to redis", ex);
+        String eventValue = getEventValue(inputEvent);
+        String eventKey = autoIncrement ? null : getEventKey(inputEvent);
+
+        if (batchBuffer.isBatching()) {
+            batchBuffer.add(new String[]{eventKey, eventValue});
+            return;
+        }
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            if (autoIncrement) {
+                eventKey = EVENT_PREFIX + jedis.incr(EVENT_COUNT);
+            }
+            if (setParams != null) {
+                jedis.set(eventKey, eventValue, setParams);
+            } else {
+                jedis.set(eventKey, eventValue);
+            }
+        } catch (JedisException e) {
+            throw new SpRuntimeException("Could not persist event to redis", e);
         }
     }
 
     @Override
     public void onDetach() {
+        try {
+            batchBuffer.close();
+        } catch (SpRuntimeException e) {
+            LOG.error(e.getMessage());
+        }
         if (jedisPool != null && !jedisPool.isClosed()) jedisPool.close();
         jedisPool = null;
     }
 
+    /**
+     * Creates the connection pool. Authentication, the connection name and the database index are set by the
+     * pool once per connection instead of once per event.
+     */
     private void initialPool(RedisParameters parameters) {
         JedisPoolConfig config = new JedisPoolConfig();
         config.setMaxTotal(parameters.getRedisPoolMaxActive());
@@ -81,36 +112,48 @@ public class Redis implements EventSink<RedisParameters> {
         config.setTestWhileIdle(false);
         config.setTestOnBorrow(false);
         config.setTestOnReturn(false);
-        jedisPool = new JedisPool(config, parameters.getRedisHost(),
-                parameters.getRedisPort(), parameters.getRedisPoolTimeout());
+
+        String password = StringUtils.isNotBlank(parameters.getRedisPassword()) ? parameters.getRedisPassword() : null;
+        String clientName = StringUtils.isNotBlank(parameters.getRedisClient()) ? parameters.getRedisClient() : null;
+        int database = parameters.getRedisIndex() > -1 ? parameters.getRedisIndex() : Protocol.DEFAULT_DATABASE;
+
+        jedisPool = new JedisPool(config, parameters.getRedisHost(), parameters.getRedisPort(),
+                parameters.getRedisPoolTimeout(), password, database, clientName);
     }
 
-    private Jedis getJedis() throws SpRuntimeException {
-        Jedis jedis = jedisPool.getResource();
-        try {
-            jedis.connect();
-            if (StringUtils.isNotBlank(password)) jedis.auth(password);
-            if (StringUtils.isNotBlank(clientName)) jedis.clientSetname(clientName);
-            if (index > -1) jedis.select(index);
+    /**
+     * Writes the key/value pairs with a single pipeline. For auto-incremented keys, a range of keys is reserved
+     * with one INCRBY call before the pipeline is sent.
+     */
+    private void flush(List<String[]> pendingEvents) throws SpRuntimeException {
+        int count = pendingEvents.size();
+        try (Jedis jedis = jedisPool.getResource()) {
+            long firstIndex = autoIncrement ? jedis.incrBy(EVENT_COUNT, count) - count + 1 : 0L;
+
+            Pipeline pipeline = jedis.pipelined();
+            for (int i = 0; i < count; i++) {
+                String[] event = pendingEvents.get(i);
+                String eventKey = autoIncrement ? EVENT_PREFIX + (firstIndex + i) : event[0];
+                if (setParams != null) {
+                    pipeline.set(eventKey, event[1], setParams);
+                } else {
+                    pipeline.set(eventKey, event[1]);
+                }
+            }
+            pipeline.sync();
         } catch (JedisException e) {
-            jedis.close();
-            throw new SpRuntimeException("Could not connect to redis", e);
+            throw new SpRuntimeException("Could not persist events to redis", e);
         }
-        return jedis;
     }
 
-    private String getEventKey(Event event, Long count) {
-        if (autoIncrement) {
-            return EVENT_PREFIX + count;
-        } else {
-            String value = event.getFieldBySelector(primaryKey).getAsPrimitive().getAsString();
-            return EVENT_PREFIX + value;
-        }
+    private String getEventKey(Event event) {
+        String value = event.getFieldBySelector(primaryKey).getAsPrimitive().getAsString();
+        return EVENT_PREFIX + value;
     }
 
     private String getEventValue(Event event) throws SpRuntimeException {
         try {
-            return new ObjectMapper().writeValueAsString(event.getRaw());
+            return MAPPER.writeValueAsString(event.getRaw());
         } catch (JsonProcessingException e) {
             throw new SpRuntimeException("Could not convert event to JSON", e);
         }
@@ -46,6 +46,8 @@ public class RedisController extends StandaloneEventSinkDeclarer<RedisParameters
     private static final String REDIS_POOL_MAX_IDLE_KEY = "redis_pool_max_idle";
     private static final String REDIS_POOL_MAX_WAIT_KEY = "redis_pool_max_wait";
     private static final String REDIS_POOL_TIMEOUT_KEY = "redis_pool_timeout";
+    private static final String BATCH_SIZE_KEY = "batch_size";
+    private static final String MAX_LINGER_KEY = "max_linger";
 
     @Override
     public DataSinkDescription declareModel() {
@@ -70,6 +72,8 @@ public class RedisController extends StandaloneEventSinkDeclarer<RedisParameters
                 .requiredIntegerParameter(Labels.withId(REDIS_POOL_MAX_IDLE_KEY), 8)
                 .requiredIntegerParameter(Labels.withId(REDIS_POOL_MAX_WAIT_KEY), -1)
                 .requiredIntegerParameter(Labels.withId(REDIS_POOL_TIMEOUT_KEY), 2000)
+                .requiredIntegerParameter(Labels.withId(BATCH_SIZE_KEY), 1)
+                .requiredIntegerParameter(Labels.withId(MAX_LINGER_KEY), 1000)
                 .build();
     }
 
@@ -90,12 +94,14 @@ public class RedisController extends StandaloneEventSinkDeclarer<RedisParameters
         Integer redisPoolMaxIdle = extractor.singleValueParameter(REDIS_POOL_MAX_IDLE_KEY, Integer.class);
         Integer redisPoolMaxWait = extractor.singleValueParameter(REDIS_POOL_MAX_WAIT_KEY, Integer.class);
         Integer redisPoolTimeout = extractor.singleValueParameter(REDIS_POOL_TIMEOUT_KEY, Integer.class);
+        Integer batchSize = extractor.singleValueParameter(BATCH_SIZE_KEY, Integer.class);
+        Integer maxLinger = extractor.singleValueParameter(MAX_LINGER_KEY, Integer.class);
         String redisPassword = "";
         String redisClient = "";
 
         RedisParameters params = new RedisParameters(graph, primaryKey, autoIncrement, ttl, redisHost,
                 redisPort, redisPassword, redisClient, redisIndex, redisPoolMaxActive, redisPoolMaxIdle,
-                redisPoolMaxWait, redisPoolTimeout);
+                redisPoolMaxWait, redisPoolTimeout, batchSize, maxLinger);
 
         return new ConfiguredEventSink<>(params, Redis::new);
     }
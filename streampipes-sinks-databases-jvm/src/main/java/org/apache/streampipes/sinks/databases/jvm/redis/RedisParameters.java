@@ -35,6 +35,8 @@ public class RedisParameters extends EventSinkBindingParams {
     private Integer redisPoolMaxIdle;
     private Integer redisPoolMaxWait;
     private Integer redisPoolTimeout;
+    private Integer batchSize;
+    private Integer maxLinger;
 
     public RedisParameters(DataSinkInvocation graph,
                            String primaryKey,
@@ -48,7 +50,9 @@ public class RedisParameters extends EventSinkBindingParams {
                            Integer redisPoolMaxActive,
                            Integer redisPoolMaxIdle,
                            Integer redisPoolMaxWait,
-                           Integer redisPoolTimeout) {
+                           Integer redisPoolTimeout,
+                           Integer batchSize,
+                           Integer maxLinger) {
         super(graph);
         this.primaryKey = primaryKey;
         this.autoIncrement = autoIncrement;
@@ -62,6 +66,8 @@ public class RedisParameters extends EventSinkBindingParams {
         this.redisPoolMaxIdle = redisPoolMaxIdle;
         this.redisPoolMaxWait = redisPoolMaxWait;
         this.redisPoolTimeout = redisPoolTimeout;
+        this.batchSize = batchSize;
+        this.maxLinger = maxLinger;
     }
 
     public String getPrimaryKey() {
@@ -111,4 +117,12 @@ public class RedisParameters extends EventSinkBindingParams {
     public Integer getRedisPoolTimeout() {
         return redisPoolTimeout;
     }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public Integer getMaxLinger() {
+        return maxLinger;
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.databases.jvm.couchdb;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightcouch.CouchDbClient;
+import org.lightcouch.CouchDbException;
+import org.lightcouch.CouchDbProperties;
+import org.lightcouch.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the bulk writes of the CouchDB sink against a minimal HTTP server which stands in for CouchDB.
+ */
+public class CouchDbBulkTest {
+
+  private static final String DATABASE = "sp_test";
+
+  private HttpServer server;
+  private CouchDbClient client;
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+  private volatile int responseStatus;
+  private volatile String responseBody;
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", this::handle);
+    server.start();
+
+    client = new CouchDbClient(new CouchDbProperties(DATABASE, false, "http", "localhost",
+            server.getAddress().getPort(), null, null));
+  }
+
+  @After
+  public void stopServer() {
+    client.shutdown();
+    server.stop(0);
+  }
+
+  @Test
+  public void storesAllDocumentsWithOneRequest() {
+    respondWith(201, "[{\"id\":\"a\",\"rev\":\"1-1\"},{\"id\":\"b\",\"rev\":\"1-2\"}]");
+
+    List<Response> rejected = CouchDb.storeBulk(client, Arrays.asList(document("a", 1), document("b", 2)));
+
+    assertTrue(rejected.isEmpty());
+    assertEquals(Collections.singletonList("POST /" + DATABASE + "/_bulk_docs"), requests);
+    assertTrue(requestBodies.get(0).contains("\"_id\":\"a\""));
+    assertTrue(requestBodies.get(0).contains("\"_id\":\"b\""));
+  }
+
+  @Test
+  public void returnsOnlyRejectedDocuments() {
+    respondWith(201, "[{\"id\":\"a\",\"rev\":\"1-1\"},"
+            + "{\"id\":\"b\",\"error\":\"conflict\",\"reason\":\"Document update conflict.\"},"
+            + "{\"id\":\"c\",\"rev\":\"1-3\"}]");
+
+    List<Response> rejected = CouchDb.storeBulk(client, Arrays.asList(document("a", 1), document("b", 2),
+            document("c", 3)));
+
+    assertEquals(1, rejected.size());
+    assertEquals("b", rejected.get(0).getId());
+    assertEquals("conflict", rejected.get(0).getError());
+    assertEquals("Document update conflict.", rejected.get(0).getReason());
+  }
+
+  @Test
+  public void requestsDocumentsToBeStoredIndependently() {
+    respondWith(201, "[{\"id\":\"a\",\"rev\":\"1-1\"}]");
+
+    CouchDb.storeBulk(client, Collections.singletonList(document("a", 1)));
+
+    assertTrue(requestBodies.get(0).contains("\"all_or_nothing\":false"));
+  }
+
+  @Test(expected = CouchDbException.class)
+  public void failsIfTheRequestFails() {
+    respondWith(500, "{\"error\":\"internal_server_error\",\"reason\":\"unavailable\"}");
+
+    CouchDb.storeBulk(client, Collections.singletonList(document("a", 1)));
+  }
+
+  private void respondWith(int status, String body) {
+    this.responseStatus = status;
+    this.responseBody = body;
+  }
+
+  private Map<String, Object> document(String id, int value) {
+    Map<String, Object> document = new HashMap<>();
+    document.put("_id", id);
+    document.put("value", value);
+    return document;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+    requestBodies.add(read(exchange.getRequestBody()));
+
+    byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(responseStatus, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private String read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
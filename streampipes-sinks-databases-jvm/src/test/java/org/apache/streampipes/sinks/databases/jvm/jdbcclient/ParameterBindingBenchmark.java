@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.streampipes.sinks.databases.jvm.jdbcclient;
+
+import org.apache.streampipes.commons.exceptions.SpRuntimeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to bind a wide, nested event to the insert statement and to encode it as a CSV row
+ * for PostgreSQL's COPY. The statement discards all values, so only the binding itself is measured.
+ *
+ * <p>The benchmark is not run by the build, run its main method with the test classpath of this module instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBindingBenchmark {
+
+  @Param({"1", "4"})
+  private int nestedObjects;
+
+  private ParameterBinding[] bindings;
+  private Map<String, Object> event;
+  private PreparedStatement ps;
+  private StringBuilder row;
+
+  @Setup
+  public void setup() {
+    List<ParameterBinding> plan = new ArrayList<>();
+    event = new HashMap<>();
+    for (int i = 0; i < nestedObjects; i++) {
+      String parent = "sensor" + i;
+      Map<String, Object> nested = new HashMap<>();
+      nested.put("id", "sensor-" + i);
+      nested.put("count", i);
+      nested.put("timestamp", 1600000000000L + i);
+      nested.put("temperature", 20.5 + i);
+      nested.put("active", i % 2 == 0);
+      event.put(parent, nested);
+
+      addBinding(plan, parent, "id", JdbcClient.SqlAttribute.STRING);
+      addBinding(plan, parent, "count", JdbcClient.SqlAttribute.INTEGER);
+      addBinding(plan, parent, "timestamp", JdbcClient.SqlAttribute.LONG);
+      addBinding(plan, parent, "temperature", JdbcClient.SqlAttribute.DOUBLE);
+      addBinding(plan, parent, "active", JdbcClient.SqlAttribute.BOOLEAN);
+    }
+    bindings = plan.toArray(new ParameterBinding[0]);
+    ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> null);
+    row = new StringBuilder();
+  }
+
+  @Benchmark
+  public PreparedStatement bind() throws SQLException, SpRuntimeException {
+    for (ParameterBinding binding : bindings) {
+      binding.bind(ps, event);
+    }
+    return ps;
+  }
+
+  @Benchmark
+  public int appendAsCsv() throws SpRuntimeException {
+    row.setLength(0);
+    for (int i = 0; i < bindings.length; i++) {
+      if (i > 0) {
+        row.append(',');
+      }
+      bindings[i].appendAsCsv(row, event);
+    }
+    return row.length();
+  }
+
+  private void addBinding(List<ParameterBinding> plan, String parent, String key, JdbcClient.SqlAttribute type) {
+    plan.add(new ParameterBinding(plan.size() + 1, parent + "_" + key, new String[]{parent, key}, type));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(ParameterBindingBenchmark.class.getSimpleName())
+            .build())
+            .run();
+  }
+}
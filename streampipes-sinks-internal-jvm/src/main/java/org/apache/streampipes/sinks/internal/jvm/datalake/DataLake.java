@@ -43,6 +43,7 @@ import java.util.stream.Collectors;
  */
 public class DataLake implements EventSink<DataLakeParameters> {
 
+  private static final String INTERNAL_LABEL_KEY = "sp_internal_label";
 
   private DataLakeInfluxDbClient influxDbClient;
 
@@ -60,6 +61,12 @@ public class DataLake implements EventSink<DataLakeParameters> {
 
     this.timestampField = parameters.getTimestampField();
 
+    EventSchema schema = runtimeContext.getInputSchemaInfo().get(0).getEventSchema();
+    List<String> runtimeNames = schema.getEventProperties().stream()
+            .map(EventProperty::getRuntimeName)
+            .collect(Collectors.toList());
+    runtimeNames.add(INTERNAL_LABEL_KEY);
+
     this.influxDbClient = new DataLakeInfluxDbClient(
             parameters.getInfluxDbHost(),
             parameters.getInfluxDbPort(),
@@ -71,11 +78,10 @@ public class DataLake implements EventSink<DataLakeParameters> {
             parameters.getBatchSize(),
             parameters.getFlushDuration(),
             parameters.getDimensionProperties(),
+            runtimeNames,
             LOG
     );
 
-    EventSchema schema = runtimeContext.getInputSchemaInfo().get(0).getEventSchema();
-
     schema.getEventProperties().stream().forEach(eventProperty -> {
       eventProperty.setRuntimeName(prepareString(eventProperty.getRuntimeName()));
     });
@@ -106,7 +112,7 @@ public class DataLake implements EventSink<DataLakeParameters> {
         event.updateFieldBySelector("s0::" + eventProperty.getRuntimeName(), fileRoute);
       });
 
-      event.addField("sp_internal_label", "");
+      event.addField(INTERNAL_LABEL_KEY, "");
 
       influxDbClient.save(event);
     } catch (SpRuntimeException e) {
@@ -18,19 +18,19 @@
 
 package org.apache.streampipes.sinks.internal.jvm.datalake;
 
-import org.influxdb.BatchOptions;
 import org.influxdb.InfluxDB;
+import org.influxdb.InfluxDBException;
 import org.influxdb.InfluxDBFactory;
-import org.influxdb.dto.Point;
 import org.influxdb.dto.Pong;
 import org.influxdb.dto.Query;
 import org.influxdb.dto.QueryResult;
 import org.apache.streampipes.commons.exceptions.SpRuntimeException;
 import org.apache.streampipes.logging.api.Logger;
 import org.apache.streampipes.model.runtime.Event;
+import org.apache.streampipes.pe.shared.batch.BatchBuffer;
+import org.apache.streampipes.pe.shared.influxdb.LineProtocolEncoder;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,6 +53,12 @@ public class DataLakeInfluxDbClient {
 
 	private InfluxDB influxDb = null;
 
+    private LineProtocolEncoder encoder;
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder body = new StringBuilder();
+    private BatchBuffer<String, RuntimeException> batchBuffer;
+    private static final int MAX_QUEUED_BATCHES = 4;
+
 	DataLakeInfluxDbClient(String influxDbHost,
                          Integer influxDbPort,
                          String databaseName,
@@ -63,6 +69,7 @@ public class DataLakeInfluxDbClient {
                          Integer batchSize,
                          Integer flushDuration,
                          List<String> tagsFields,
+                         List<String> runtimeNames,
                          Logger logger) throws SpRuntimeException {
 		this.influxDbHost = influxDbHost;
 		this.influxDbPort = influxDbPort;
@@ -75,6 +82,8 @@ public class DataLakeInfluxDbClient {
 		this.flushDuration = flushDuration;
 		this.logger = logger;
 		this.tagFields = tagsFields;
+		this.encoder = new LineProtocolEncoder(measureName, runtimeNames, DataLake::prepareString,
+                key -> tagFields != null && tagFields.contains(key));
 
 		validate();
 		connect();
@@ -127,7 +136,9 @@ public class DataLakeInfluxDbClient {
 
     // setting up the database
     influxDb.setDatabase(databaseName);
-    influxDb.enableBatch(batchSize, flushDuration, TimeUnit.MILLISECONDS);
+    batchBuffer = new BatchBuffer<String, RuntimeException>(batchSize, flushDuration, this::flush,
+            e -> logger.error(e.getMessage()))
+            .writeAsynchronously(MAX_QUEUED_BATCHES);
 	}
 
   /**
@@ -170,40 +181,35 @@ public class DataLakeInfluxDbClient {
 			throw new SpRuntimeException("event is null");
 		}
 
-		Long timestampValue = event.getFieldBySelector(timestampField).getAsPrimitive().getAsLong();
-    Point.Builder p = Point.measurement(measureName).time(timestampValue, TimeUnit.MILLISECONDS);
-
-      for (Map.Entry<String, Object> pair : event.getRaw().entrySet()) {
-          if (tagFields != null && tagFields.stream().anyMatch(tag -> tag.equals(pair.getKey()))) {
-              p.tag(pair.getKey(), pair.getValue().toString());
-          } else {
-              if (pair.getValue() instanceof Integer) {
-                  p.addField(DataLake.prepareString(pair.getKey()), (Integer) pair.getValue());
-              } else if (pair.getValue() instanceof Long) {
-                  p.addField(DataLake.prepareString(pair.getKey()), (Long) pair.getValue());
-              } else if (pair.getValue() instanceof Double) {
-                  p.addField(DataLake.prepareString(pair.getKey()), (Double) pair.getValue());
-              } else if (pair.getValue() instanceof Boolean) {
-                  p.addField(DataLake.prepareString(pair.getKey()), (Boolean) pair.getValue());
-              } else {
-                  p.addField(DataLake.prepareString(pair.getKey()), pair.getValue().toString());
-              }
-          }
-      }
-
-      influxDb.write(p.build());
+		long timestampValue = event.getFieldBySelector(timestampField).getAsPrimitive().getAsLong();
+		line.setLength(0);
+		encoder.encode(event.getRaw(), timestampValue, line);
+		if (line.length() > 0) {
+			batchBuffer.add(line.toString());
+		}
 	}
 
   /**
-   * Shuts down the connection to the InfluxDB server
+   * Writes the given lines with a single request, called by the single writer thread of the batch buffer which is
+   * why the request body can be reused. The lines are discarded if the write fails. The points are written with the
+   * default retention policy of the database.
    */
-	void stop() {
-	    influxDb.flush();
+    private void flush(List<String> lines) {
+        body.setLength(0);
+        lines.forEach(body::append);
         try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            influxDb.write(databaseName, null, InfluxDB.ConsistencyLevel.ONE, TimeUnit.MILLISECONDS,
+                    body.toString());
+        } catch (InfluxDBException e) {
+            logger.error("Could not write " + lines.size() + " points: " + e.getMessage());
         }
+    }
+
+  /**
+   * Writes the pending points and shuts down the connection to the InfluxDB server
+   */
+	void stop() {
+        batchBuffer.close();
         influxDb.close();
 	}
 }